@@ -0,0 +1,74 @@
+package xlr.magas.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.model.Conversation;
+import xlr.magas.domain.model.Turn;
+import xlr.magas.domain.ports.in.ContinueConversationUseCase;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.domain.ports.out.ConversationMemoryPort;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Multi-turn chat. Each question is asked with what the {@link ConversationMemoryPort} recalls: a
+ * summary of older turns and the most recent ones verbatim, so the prompt stays about the same size
+ * however long the conversation runs. A turn is remembered only once its answer has completed.
+ * Conversations are started by the memory, which hands out their ids; an id it does not know fails
+ * with {@link NoSuchElementException}.
+ */
+@Service
+public class ConversationService implements ContinueConversationUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationService.class);
+
+    static final String SYSTEM_MESSAGE = "You are a helpful AI assistant. Provide engaging, creative responses. "
+            + "Continue the conversation below, staying consistent with what has already been said.";
+
+    private final ChatModelPort chatModelPort;
+    private final ConversationMemoryPort conversationMemoryPort;
+
+    public ConversationService(ChatModelPort chatModelPort, ConversationMemoryPort conversationMemoryPort) {
+        this.chatModelPort = chatModelPort;
+        this.conversationMemoryPort = conversationMemoryPort;
+    }
+
+    @Override
+    public Mono<String> startConversation() {
+        return conversationMemoryPort.start();
+    }
+
+    @Override
+    public Flux<String> continueConversation(String conversationId, String question, String language) {
+        return conversationMemoryPort.recall(conversationId)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("No conversation " + conversationId)))
+                .flatMapMany(conversation -> {
+                    StringBuilder answer = new StringBuilder();
+                    return chatModelPort.askChatModel(systemMessage(conversation), question + " In " + language + " language.")
+                            .doOnNext(answer::append)
+                            .concatWith(Flux.defer(() -> conversationMemoryPort
+                                    .remember(conversationId, new Turn(question, answer.toString()))
+                                    .doOnError(error -> log.warn("Failed to remember a turn of conversation {}", conversationId, error))
+                                    .onErrorComplete()
+                                    .then(Mono.<String>empty())));
+                });
+    }
+
+    static String systemMessage(Conversation conversation) {
+        StringBuilder system = new StringBuilder(SYSTEM_MESSAGE);
+        if (conversation.summary() != null) {
+            system.append("\n\nSummary of the conversation so far:\n").append(conversation.summary());
+        }
+        if (!conversation.turns().isEmpty()) {
+            system.append("\n\nMost recent turns:");
+            for (Turn turn : conversation.turns()) {
+                system.append("\nUser: ").append(turn.question())
+                        .append("\nAssistant: ").append(turn.answer());
+            }
+        }
+        return system.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package xlr.magas.application.service;
 
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 import xlr.magas.domain.ports.in.GenerateImageUseCase;
 import xlr.magas.domain.ports.out.ImageModelPort;
 
@@ -17,4 +18,9 @@ public class PictureService implements GenerateImageUseCase {
     public String generateImage(String prompt) {
         return imageModelPort.generateImage(prompt);
     }
+
+    @Override
+    public Mono<String> generateImageAsync(String prompt) {
+        return imageModelPort.generateImageAsync(prompt);
+    }
 }
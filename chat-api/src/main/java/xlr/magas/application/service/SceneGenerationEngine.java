@@ -0,0 +1,139 @@
+package xlr.magas.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.SceneOutline;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryRecord;
+import xlr.magas.domain.model.Text;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.domain.system.CharacterSystemProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Generates scenes as a pipeline instead of one long narrator call. The narrator first streams an
+ * outline, one JSON line per scene; each scene starts as soon as its outline line is complete. Per
+ * scene, the narration and the dialogue of every character present run concurrently and are merged
+ * back in order, so wall-clock time tends towards the longest branch rather than the sum.
+ */
+@Component
+public class SceneGenerationEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SceneGenerationEngine.class);
+
+    private final ChatModelPort chatModelPort;
+    private final ScenePromptAssembler scenePromptAssembler;
+    private final ObjectMapper objectMapper;
+    private final int sceneParallelism;
+    private final int characterParallelism;
+
+    public SceneGenerationEngine(ChatModelPort chatModelPort,
+                                 ScenePromptAssembler scenePromptAssembler,
+                                 ObjectMapper objectMapper,
+                                 @Value("${story.scenes.parallelism:4}") int sceneParallelism,
+                                 @Value("${story.scenes.character-parallelism:4}") int characterParallelism) {
+        this.chatModelPort = chatModelPort;
+        this.scenePromptAssembler = scenePromptAssembler;
+        this.objectMapper = objectMapper;
+        this.sceneParallelism = sceneParallelism;
+        this.characterParallelism = characterParallelism;
+    }
+
+    public Flux<Scene> generate(StoryBlueprint blueprint, CharacterSystemProvider[] characterSystems, int numberOfScenes) {
+        return stream(blueprint, characterSystems, numberOfScenes).ofType(Scene.class);
+    }
+
+    /**
+     * Emits each {@link SceneOutline} as soon as it is parsed, ahead of the finished {@link Scene}s,
+     * so callers can start work that only needs the outline.
+     */
+    public Flux<StoryRecord> stream(StoryBlueprint blueprint, CharacterSystemProvider[] characterSystems, int numberOfScenes) {
+        ScenePromptAssembler.ScenePrompt outlinePrompt = scenePromptAssembler.outline(blueprint, numberOfScenes);
+        String narratorSystemMessage = outlinePrompt.systemMessage();
+
+        return outlines(chatModelPort.askChatModel(narratorSystemMessage, outlinePrompt.userMessage()))
+                .take(numberOfScenes)
+                .publish(shared -> Flux.<StoryRecord>merge(shared,
+                        shared.flatMapSequential(outline -> scene(outline, narratorSystemMessage, characterSystems),
+                                sceneParallelism)));
+    }
+
+    Flux<SceneOutline> outlines(Flux<String> tokens) {
+        return lines(tokens)
+                .mapNotNull(line -> parseOutline(line).orElse(null));
+    }
+
+    private Mono<Scene> scene(SceneOutline outline, String narratorSystemMessage, CharacterSystemProvider[] characterSystems) {
+        List<Mono<Text>> branches = new ArrayList<>();
+        branches.add(text(chatModelPort.askChatModel(narratorSystemMessage, scenePromptAssembler.narration(outline)),
+                "narration", null));
+        for (CharacterSystemProvider characterSystem : characterSystems) {
+            if (isPresent(outline, characterSystem.getCharacterName())) {
+                branches.add(text(chatModelPort.askChatModel(characterSystem.getSystemMessage(),
+                                scenePromptAssembler.dialogue(outline, characterSystem.getCharacterName())),
+                        "dialogue", characterSystem.getCharacterName()));
+            }
+        }
+
+        return Flux.mergeSequential(branches, characterParallelism + 1, 1)
+                .collectList()
+                .map(texts -> new Scene(outline.order(), outline.title(), outline.setting(), texts));
+    }
+
+    private static Mono<Text> text(Flux<String> tokens, String type, String character) {
+        return tokens.collect(Collectors.joining())
+                .map(text -> new Text(type, character, null, text.strip()));
+    }
+
+    private static boolean isPresent(SceneOutline outline, String characterName) {
+        return outline.characters().stream().anyMatch(name -> name.equalsIgnoreCase(characterName));
+    }
+
+    private static Flux<String> lines(Flux<String> tokens) {
+        return Flux.defer(() -> {
+            StringBuilder buffer = new StringBuilder();
+            return tokens.concatMapIterable(token -> {
+                        buffer.append(token);
+                        List<String> lines = new ArrayList<>();
+                        int newline;
+                        while ((newline = buffer.indexOf("\n")) >= 0) {
+                            lines.add(buffer.substring(0, newline));
+                            buffer.delete(0, newline + 1);
+                        }
+                        return lines;
+                    })
+                    .concatWith(Mono.fromSupplier(buffer::toString));
+        });
+    }
+
+    private Optional<SceneOutline> parseOutline(String line) {
+        String json = line.strip();
+        if (!json.startsWith("{")) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            List<String> characters = new ArrayList<>();
+            node.path("c").forEach(name -> characters.add(name.asText()));
+            Setting setting = new Setting(node.path("p").asText(), node.path("l").asText(), node.path("tm").asText());
+            return Optional.of(new SceneOutline(node.path("o").asInt(), node.path("t").asText(), setting,
+                    node.path("s").asText(), characters));
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping malformed scene outline in model output: {}", e.getOriginalMessage());
+            return Optional.empty();
+        }
+    }
+}
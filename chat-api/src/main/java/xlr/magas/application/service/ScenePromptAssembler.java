@@ -0,0 +1,146 @@
+package xlr.magas.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import xlr.magas.domain.model.SceneOutline;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.system.NarratorSystemProvider;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the prompts for scene generation. The blueprint is embedded exactly once, in the narrator
+ * system message, as whitespace-free JSON with short keys; blank fields are dropped and a one-line
+ * legend tells the model what the keys mean. Per-scene prompts only carry the scene outline.
+ */
+@Component
+public class ScenePromptAssembler {
+
+    static final String BLUEPRINT_LEGEND =
+        "Keys: t=title g=genre tn=tone th=themes c=characters(n=name bg=background p=personality " +
+        "m=motivations r=relationships d=developmentArc) a=storyArc(h=openingHook ra=risingAction " +
+        "cl=climax rs=resolution) w=worldSetting(l=primaryLocations tp=timePeriod cc=culturalContext " +
+        "rm=rulesAndMagic at=atmosphere) kp=keyPlotPoints";
+
+    private final ObjectMapper objectMapper;
+
+    public ScenePromptAssembler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String narratorSystemMessage(StoryBlueprint blueprint) {
+        return new NarratorSystemProvider(BLUEPRINT_LEGEND + "\n" + compact(blueprint)).getSystemMessage();
+    }
+
+    public ScenePrompt outline(StoryBlueprint blueprint, int numberOfScenes) {
+        String userMessage = String.format(
+            "Using the story blueprint in your instructions, outline %d compelling scenes for this story.\n" +
+            "Each scene should advance the plot and include character interactions.\n\n" +
+            "Output one JSON object per line, in scene order, with no other text:\n" +
+            "{\"o\":<scene number>,\"t\":\"<title>\",\"p\":\"<interior or exterior>\",\"l\":\"<location>\"," +
+            "\"tm\":\"<time>\",\"s\":\"<one-sentence summary>\",\"c\":[\"<names of characters in the scene>\"]}",
+            numberOfScenes
+        );
+        return new ScenePrompt(narratorSystemMessage(blueprint), userMessage);
+    }
+
+    public String narration(SceneOutline outline) {
+        return String.format(
+            "Narrate scene %d \"%s\" (%s, %s): %s\n" +
+            "Characters present: %s. Describe the setting, actions and mood; " +
+            "the characters will speak for themselves, so do not write their dialogue.",
+            outline.order(), outline.title(), outline.setting().location(), outline.setting().time(), outline.summary(),
+            String.join(", ", outline.characters())
+        );
+    }
+
+    public String dialogue(SceneOutline outline, String characterName) {
+        return String.format(
+            "Scene %d \"%s\" (%s, %s): %s\n" +
+            "Give %s's dialogue and actions in this scene.",
+            outline.order(), outline.title(), outline.setting().location(), outline.setting().time(), outline.summary(),
+            characterName
+        );
+    }
+
+    public String coverImage(StoryBlueprint.WorldSetting worldSetting) {
+        return String.format("Illustration of %s during %s. Atmosphere: %s.",
+                worldSetting.primaryLocations(), worldSetting.timePeriod(), worldSetting.atmosphere());
+    }
+
+    public String sceneImage(SceneOutline outline) {
+        Setting setting = outline.setting();
+        return String.format("Illustration of %s, %s, %s: %s",
+                setting.location(), setting.position(), setting.time(), outline.summary());
+    }
+
+    String compact(StoryBlueprint blueprint) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        put(json, "t", blueprint.title());
+        put(json, "g", blueprint.genre());
+        put(json, "tn", blueprint.tone());
+        put(json, "th", blueprint.themes());
+        if (blueprint.characters() != null) {
+            put(json, "c", blueprint.characters().stream().map(ScenePromptAssembler::compact).toList());
+        }
+        if (blueprint.storyArc() != null) {
+            put(json, "a", compact(blueprint.storyArc()));
+        }
+        if (blueprint.worldSetting() != null) {
+            put(json, "w", compact(blueprint.worldSetting()));
+        }
+        put(json, "kp", blueprint.keyPlotPoints());
+
+        try {
+            return objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValueAsString(json);
+        } catch (Exception e) {
+            return blueprint.toString();
+        }
+    }
+
+    private static Map<String, Object> compact(StoryBlueprint.CharacterProfile character) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        put(json, "n", character.name());
+        put(json, "bg", character.background());
+        put(json, "p", character.personality());
+        put(json, "m", character.motivations());
+        put(json, "r", character.relationships());
+        put(json, "d", character.developmentArc());
+        return json;
+    }
+
+    private static Map<String, Object> compact(StoryBlueprint.StoryArc storyArc) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        put(json, "h", storyArc.openingHook());
+        put(json, "ra", storyArc.risingAction());
+        put(json, "cl", storyArc.climax());
+        put(json, "rs", storyArc.resolution());
+        return json;
+    }
+
+    private static Map<String, Object> compact(StoryBlueprint.WorldSetting worldSetting) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        put(json, "l", worldSetting.primaryLocations());
+        put(json, "tp", worldSetting.timePeriod());
+        put(json, "cc", worldSetting.culturalContext());
+        put(json, "rm", worldSetting.rulesAndMagic());
+        put(json, "at", worldSetting.atmosphere());
+        return json;
+    }
+
+    private static void put(Map<String, Object> json, String key, Object value) {
+        boolean empty = value == null
+                || value instanceof String s && s.isBlank()
+                || value instanceof List<?> l && l.isEmpty()
+                || value instanceof Map<?, ?> m && m.isEmpty();
+        if (!empty) {
+            json.put(key, value);
+        }
+    }
+
+    public record ScenePrompt(String systemMessage, String userMessage) {}
+}
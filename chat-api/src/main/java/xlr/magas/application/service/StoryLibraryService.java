@@ -0,0 +1,64 @@
+package xlr.magas.application.service;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryEvent;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.StorySummary;
+import xlr.magas.domain.ports.in.ReadStoryUseCase;
+import xlr.magas.domain.ports.out.StoryStorePort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves stories saved by {@link StorytellingService} without calling a model. A replay carries the
+ * same events as the original stream, in the order a client lays them out: blueprint, cover, then
+ * each scene followed by its image, and the final {@code done}. Parts a stored story lacks, such as the
+ * blueprint or scenes of one saved before they were generated, are left out of the replay.
+ */
+@Service
+public class StoryLibraryService implements ReadStoryUseCase {
+
+    private final StoryStorePort storyStorePort;
+
+    public StoryLibraryService(StoryStorePort storyStorePort) {
+        this.storyStorePort = storyStorePort;
+    }
+
+    @Override
+    public Flux<StoryEvent> replayStory(String id) {
+        return Mono.fromCallable(() -> storyStorePort.findById(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .flatMapIterable(StoryLibraryService::events);
+    }
+
+    @Override
+    public List<StorySummary> findStories(String topic) {
+        return storyStorePort.findByTopic(topic);
+    }
+
+    private static List<StoryEvent> events(StoredStory stored) {
+        List<StoryEvent> events = new ArrayList<>();
+        if (stored.blueprint() != null) {
+            events.add(StoryEvent.blueprint(stored.blueprint()));
+        }
+        if (stored.cover() != null) {
+            events.add(StoryEvent.image(StorytellingService.COVER, stored.cover()));
+        }
+        Story story = stored.story() == null || stored.story().scenes() == null ? new Story(List.of()) : stored.story();
+        for (Scene scene : story.scenes()) {
+            events.addAll(StorytellingService.sceneEvents(scene, scene.image()));
+            if (scene.image() != null) {
+                events.add(StoryEvent.image(scene.order(), scene.image()));
+            }
+        }
+        events.add(StoryEvent.done(story));
+        return events;
+    }
+}
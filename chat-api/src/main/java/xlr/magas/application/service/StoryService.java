@@ -1,5 +1,7 @@
 package xlr.magas.application.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import xlr.magas.domain.ports.in.GenerateStoryUseCase;
@@ -8,10 +10,14 @@ import xlr.magas.domain.ports.out.ChatModelPort;
 @Service
 public class StoryService implements GenerateStoryUseCase {
 
+    private static final Logger log = LoggerFactory.getLogger(StoryService.class);
+
     private final ChatModelPort chatModelPort;
+    private final StreamCoalescer streamCoalescer;
 
-    public StoryService(ChatModelPort chatModelPort) {
+    public StoryService(ChatModelPort chatModelPort, StreamCoalescer streamCoalescer) {
         this.chatModelPort = chatModelPort;
+        this.streamCoalescer = streamCoalescer;
     }
 
     @Override
@@ -19,8 +25,12 @@ public class StoryService implements GenerateStoryUseCase {
         // For now, use a simple system message that works with Spring AI
         // TODO: Implement the full 3-tier system once template issues are resolved
         String systemMessage = "You are a helpful AI assistant. Provide engaging, creative responses.";
+        String userMessage = "Tell me a creative story about: " + topic + ". In " + language + " language.";
 
-        System.out.println("Using simple system message for topic: " + topic);
-        return chatModelPort.askChatModel(systemMessage, "Tell me a creative story about: " + topic + ". In " + language + " language.");
+        log.debug("Using simple system message for topic: {}", topic);
+        return streamCoalescer.coalesce(new StoryRequest(systemMessage, userMessage, language),
+                () -> chatModelPort.askChatModel(systemMessage, userMessage));
     }
+
+    private record StoryRequest(String systemMessage, String userMessage, String language) {}
 }
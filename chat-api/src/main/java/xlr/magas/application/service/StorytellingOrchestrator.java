@@ -3,7 +3,9 @@ package xlr.magas.application.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import xlr.magas.domain.model.Scene;
 import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryRecord;
 import xlr.magas.domain.ports.out.ChatModelPort;
 import xlr.magas.domain.system.*;
 
@@ -13,13 +15,19 @@ public class StorytellingOrchestrator {
     private final ChatModelPort chatModelPort;
     private final GodSystemProvider godSystemProvider;
     private final ObjectMapper objectMapper;
+    private final SceneGenerationEngine sceneGenerationEngine;
+    private final StreamingJsonParser streamingJsonParser;
 
     public StorytellingOrchestrator(ChatModelPort chatModelPort,
                                    GodSystemProvider godSystemProvider,
-                                   ObjectMapper objectMapper) {
+                                   ObjectMapper objectMapper,
+                                   SceneGenerationEngine sceneGenerationEngine,
+                                   StreamingJsonParser streamingJsonParser) {
         this.chatModelPort = chatModelPort;
         this.godSystemProvider = godSystemProvider;
         this.objectMapper = objectMapper;
+        this.sceneGenerationEngine = sceneGenerationEngine;
+        this.streamingJsonParser = streamingJsonParser;
     }
 
     public Flux<String> createStoryBlueprint(String topic, String language) {
@@ -29,6 +37,10 @@ public class StorytellingOrchestrator {
         return chatModelPort.askChatModel(systemMessage, userMessage);
     }
 
+    public Flux<StoryRecord> streamStoryBlueprint(String topic, String language) {
+        return streamingJsonParser.blueprint(createStoryBlueprint(topic, language));
+    }
+
     public StoryBlueprint parseStoryBlueprint(String blueprintJson) {
         try {
             return objectMapper.readValue(blueprintJson, StoryBlueprint.class);
@@ -65,32 +77,11 @@ public class StorytellingOrchestrator {
                 .toArray(CharacterSystemProvider[]::new);
     }
 
-    public Flux<String> generateScenes(StoryBlueprint blueprint, int numberOfScenes) {
-        String blueprintJson;
-        try {
-            blueprintJson = objectMapper.writeValueAsString(blueprint);
-        } catch (Exception e) {
-            blueprintJson = blueprint.toString();
-        }
-
-        NarratorSystemProvider narratorSystem = new NarratorSystemProvider(blueprintJson);
-
-        // TODO: Implement character systems for individual character interactions
-        // CharacterSystemProvider[] characterSystems = createCharacterSystems(blueprint);
-
-        String narratorSystemMessage = narratorSystem.getSystemMessage();
-        String userMessage = String.format(
-            "Using the story blueprint provided, create %d compelling scenes for this story.\n" +
-            "Each scene should advance the plot and include character interactions.\n\n" +
-            "For each scene, provide:\n" +
-            "1. Scene title and setting\n" +
-            "2. Narrative description\n" +
-            "3. Character dialogue and actions\n\n" +
-            "Remember to stay true to the characters' personalities and the story's themes.\n" +
-            "Output each scene as a separate JSON object.",
-            numberOfScenes
-        );
+    public Flux<Scene> generateScenes(StoryBlueprint blueprint, int numberOfScenes) {
+        return sceneGenerationEngine.generate(blueprint, createCharacterSystems(blueprint), numberOfScenes);
+    }
 
-        return chatModelPort.askChatModel(narratorSystemMessage, userMessage + "\n\nStory Blueprint:\n" + blueprintJson);
+    public Flux<StoryRecord> streamScenes(StoryBlueprint blueprint, int numberOfScenes) {
+        return sceneGenerationEngine.stream(blueprint, createCharacterSystems(blueprint), numberOfScenes);
     }
-}
\ No newline at end of file
+}
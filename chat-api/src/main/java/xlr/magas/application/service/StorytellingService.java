@@ -0,0 +1,156 @@
+package xlr.magas.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.SceneOutline;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryEvent;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.ports.in.NarrateStoryUseCase;
+import xlr.magas.domain.ports.out.ImageModelPort;
+import xlr.magas.domain.ports.out.StoryStorePort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs blueprint -> scenes as one event stream. Images are generated speculatively: the cover
+ * (scene 0) as soon as the blueprint's world setting is parsed, and each scene's picture as soon
+ * as its outline is, so image latency overlaps text generation. Cancelling the stream stops
+ * waiting for any image still in flight; an image failure only drops that image, with a warning. Finished stories are saved
+ * to the {@link StoryStorePort} and announced with a {@code stored} event carrying their id, just
+ * before {@code done}; a failed save only drops that event, with a warning.
+ */
+@Service
+public class StorytellingService implements NarrateStoryUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(StorytellingService.class);
+
+    static final int COVER = 0;
+
+    private final StorytellingOrchestrator storytellingOrchestrator;
+    private final ImageModelPort imageModelPort;
+    private final ScenePromptAssembler scenePromptAssembler;
+    private final StoryStorePort storyStorePort;
+    private final boolean imagesEnabled;
+    private final int imageParallelism;
+    private final boolean storeEnabled;
+
+    public StorytellingService(StorytellingOrchestrator storytellingOrchestrator,
+                               ImageModelPort imageModelPort,
+                               ScenePromptAssembler scenePromptAssembler,
+                               StoryStorePort storyStorePort,
+                               @Value("${story.images.enabled:true}") boolean imagesEnabled,
+                               @Value("${story.images.parallelism:2}") int imageParallelism,
+                               @Value("${story.store.enabled:true}") boolean storeEnabled) {
+        this.storytellingOrchestrator = storytellingOrchestrator;
+        this.imageModelPort = imageModelPort;
+        this.scenePromptAssembler = scenePromptAssembler;
+        this.storyStorePort = storyStorePort;
+        this.imagesEnabled = imagesEnabled;
+        this.imageParallelism = imageParallelism;
+        this.storeEnabled = storeEnabled;
+    }
+
+    @Override
+    public Flux<StoryEvent> narrateStory(String topic, String language, int numberOfScenes) {
+        return Flux.defer(() -> {
+            List<Scene> scenes = new CopyOnWriteArrayList<>();
+            Map<Integer, String> images = new ConcurrentHashMap<>();
+            AtomicReference<StoryBlueprint> storyBlueprint = new AtomicReference<>();
+
+            return storytellingOrchestrator.streamStoryBlueprint(topic, language)
+                    .publish(records -> Flux.merge(
+                            records.ofType(StoryBlueprint.WorldSetting.class).next().flatMapMany(this::cover),
+                            records.ofType(StoryBlueprint.class)
+                                    .next()
+                                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("The model did not return a story blueprint")))
+                                    .flatMapMany(blueprint -> Flux.just(StoryEvent.blueprint(blueprint))
+                                            .concatWith(scenes(blueprint, numberOfScenes, scenes, images)))))
+                    .doOnNext(event -> {
+                        if (event.data() instanceof StoryEvent.SceneImage image) {
+                            images.put(image.scene(), image.url());
+                        } else if (event.data() instanceof StoryBlueprint parsed) {
+                            storyBlueprint.set(parsed);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> {
+                        Story story = story(scenes, images);
+                        return store(new StoredStory(UUID.randomUUID().toString(), topic, language, Instant.now(),
+                                storyBlueprint.get(), images.get(COVER), story))
+                                .concatWith(Mono.just(StoryEvent.done(story)));
+                    }));
+        });
+    }
+
+    private Mono<StoryEvent> store(StoredStory story) {
+        if (!storeEnabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> storyStorePort.save(story))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(StoryEvent.stored(story.id()))
+                .onErrorResume(error -> {
+                    log.warn("Failed to store story {}", story.id(), error);
+                    return Mono.empty();
+                });
+    }
+
+    private Flux<StoryEvent> scenes(StoryBlueprint blueprint, int numberOfScenes,
+                                    List<Scene> scenes, Map<Integer, String> images) {
+        return storytellingOrchestrator.streamScenes(blueprint, numberOfScenes)
+                .publish(records -> Flux.merge(
+                        records.ofType(SceneOutline.class)
+                                .flatMap(outline -> image(outline.order(), scenePromptAssembler.sceneImage(outline)),
+                                        imageParallelism),
+                        records.ofType(Scene.class)
+                                .doOnNext(scenes::add)
+                                .concatMapIterable(scene -> sceneEvents(scene, images.get(scene.order())))));
+    }
+
+    private Flux<StoryEvent> cover(StoryBlueprint.WorldSetting worldSetting) {
+        return image(COVER, scenePromptAssembler.coverImage(worldSetting));
+    }
+
+    private Flux<StoryEvent> image(int scene, String prompt) {
+        if (!imagesEnabled) {
+            return Flux.empty();
+        }
+        return imageModelPort.generateImageAsync(prompt)
+                .map(url -> StoryEvent.image(scene, url))
+                .onErrorResume(error -> {
+                    log.warn("Failed to generate the image for scene {}", scene, error);
+                    return Mono.empty();
+                })
+                .flux();
+    }
+
+    // The scene header goes first so clients can lay it out before its texts arrive.
+    static List<StoryEvent> sceneEvents(Scene scene, String image) {
+        List<StoryEvent> events = new ArrayList<>();
+        events.add(StoryEvent.scene(new Scene(scene.order(), scene.title(), scene.setting(), List.of(), image)));
+        scene.texts().forEach(text -> events.add(StoryEvent.text(scene.order(), text)));
+        return events;
+    }
+
+    private static Story story(List<Scene> scenes, Map<Integer, String> images) {
+        return new Story(scenes.stream()
+                .sorted(Comparator.comparingInt(Scene::order))
+                .map(scene -> scene.withImage(images.get(scene.order())))
+                .toList());
+    }
+}
@@ -0,0 +1,54 @@
+package xlr.magas.application.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for model streams: concurrent requests with the same key share one upstream call.
+ * Late joiners get the already emitted prefix replayed before the live tail. Only worth enabling
+ * when the model runs deterministic or low-temperature, otherwise every caller gets the same answer.
+ */
+@Component
+public class StreamCoalescer {
+
+    private final boolean enabled;
+    private final String modelOptions;
+    private final Map<Key, Flux<String>> inFlight = new ConcurrentHashMap<>();
+
+    public StreamCoalescer(@Value("${chat.coalescing.enabled:false}") boolean enabled,
+                           @Value("${spring.ai.openai.chat.options.temperature:}") String modelOptions) {
+        this.enabled = enabled;
+        this.modelOptions = modelOptions;
+    }
+
+    public Flux<String> coalesce(Object request, Supplier<Flux<String>> upstream) {
+        if (!enabled) {
+            return upstream.get();
+        }
+        Key key = new Key(request, modelOptions);
+        return Flux.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, upstream.get())));
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Flux<String> share(Key key, Flux<String> upstream) {
+        AtomicReference<Flux<String>> self = new AtomicReference<>();
+        // refCount(1): the upstream is cancelled as soon as the last subscriber goes away
+        Flux<String> shared = upstream
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .replay()
+                .refCount(1);
+        self.set(shared);
+        return shared;
+    }
+
+    private record Key(Object request, String modelOptions) {}
+}
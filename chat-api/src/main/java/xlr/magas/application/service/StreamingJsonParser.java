@@ -0,0 +1,229 @@
+package xlr.magas.application.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryRecord;
+import xlr.magas.domain.model.Text;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental JSON parsing of model output. Tokens are fed to Jackson's non-blocking parser as they
+ * arrive and every object whose path matches a target is emitted as a typed record the moment it
+ * closes, so nested records (a character, a scene setting) surface before their parent. Prose and
+ * code fences around top-level values are skipped; array indices in paths match {@code *}. Malformed
+ * JSON and objects that do not fit their record are logged and skipped, and parsing carries on.
+ */
+@Component
+public class StreamingJsonParser {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingJsonParser.class);
+
+    static final Map<String, Class<? extends StoryRecord>> BLUEPRINT_TARGETS = Map.of(
+            "/characters/*", StoryBlueprint.CharacterProfile.class,
+            "/worldSetting", StoryBlueprint.WorldSetting.class,
+            "", StoryBlueprint.class);
+
+    static final Map<String, Class<? extends StoryRecord>> SCENE_TARGETS = Map.of(
+            "/setting", Setting.class,
+            "/texts/*", Text.class,
+            "", Scene.class);
+
+    private final ObjectMapper objectMapper;
+
+    public StreamingJsonParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Flux<StoryRecord> blueprint(Flux<String> tokens) {
+        return parse(tokens, BLUEPRINT_TARGETS);
+    }
+
+    public Flux<StoryRecord> scenes(Flux<String> tokens) {
+        return parse(tokens, SCENE_TARGETS);
+    }
+
+    public Flux<StoryRecord> parse(Flux<String> tokens, Map<String, Class<? extends StoryRecord>> targets) {
+        return Flux.defer(() -> {
+            Session session = new Session(targets);
+            return tokens.concatMapIterable(session::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(session.finish())))
+                    .doOnCancel(session::close);
+        });
+    }
+
+    private final class Session {
+
+        private final Map<String, Class<? extends StoryRecord>> targets;
+        private final List<Capture> captures = new ArrayList<>();
+        private JsonParser parser;
+        private int rootDepth;
+        private boolean skipping;
+        private boolean inString;
+        private boolean escaped;
+
+        Session(Map<String, Class<? extends StoryRecord>> targets) {
+            this.targets = targets;
+            this.parser = newParser();
+        }
+
+        List<StoryRecord> feed(String token) {
+            byte[] json = extractJson(token).getBytes(StandardCharsets.UTF_8);
+            if (json.length == 0) {
+                return List.of();
+            }
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(json, 0, json.length);
+                return drain();
+            } catch (IOException e) {
+                log.warn("Discarding malformed JSON in model output: {}", e.getMessage());
+                reset();
+                return List.of();
+            }
+        }
+
+        List<StoryRecord> finish() {
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                return drain();
+            } catch (IOException e) {
+                log.warn("Discarding incomplete JSON at the end of model output: {}", e.getMessage());
+                return List.of();
+            } finally {
+                close();
+            }
+        }
+
+        // Keeps only top-level JSON values, dropping prose and fences between them, and the rest of a
+        // value that failed to parse.
+        private String extractJson(String token) {
+            StringBuilder json = new StringBuilder(token.length());
+            for (int i = 0; i < token.length(); i++) {
+                char c = token.charAt(i);
+                if (rootDepth == 0 && c != '{' && c != '[') {
+                    continue;
+                }
+                if (!skipping) {
+                    json.append(c);
+                }
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    rootDepth++;
+                } else if ((c == '}' || c == ']') && --rootDepth == 0) {
+                    if (skipping) {
+                        skipping = false;
+                    } else {
+                        json.append('\n');
+                    }
+                }
+            }
+            return json.toString();
+        }
+
+        private List<StoryRecord> drain() throws IOException {
+            List<StoryRecord> records = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                for (Capture capture : captures) {
+                    capture.buffer.copyCurrentEvent(parser);
+                    capture.depth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    Class<? extends StoryRecord> type = targets.get(normalize(parser.getParsingContext().pathAsPointer().toString()));
+                    if (type != null) {
+                        Capture capture = new Capture(type, new TokenBuffer(parser));
+                        capture.buffer.copyCurrentEvent(parser);
+                        captures.add(capture);
+                    }
+                }
+                Iterator<Capture> iterator = captures.iterator();
+                while (iterator.hasNext()) {
+                    Capture capture = iterator.next();
+                    if (capture.depth == 0) {
+                        iterator.remove();
+                        read(capture, records);
+                    }
+                }
+            }
+            return records;
+        }
+
+        private void read(Capture capture, List<StoryRecord> records) {
+            try (JsonParser captured = capture.buffer.asParser(objectMapper)) {
+                records.add(objectMapper.readerFor(capture.type)
+                        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                        .readValue(captured));
+            } catch (IOException e) {
+                log.warn("Skipping {} that does not match its record: {}", capture.type.getSimpleName(),
+                        e.getMessage());
+            }
+        }
+
+        // The character scan has already seen the whole token, so its depth still tells where the broken
+        // top-level value ends; everything up to there is dropped rather than read as new values.
+        private void reset() {
+            close();
+            captures.clear();
+            skipping = rootDepth > 0;
+            parser = newParser();
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                log.debug("Failed to close JSON parser", e);
+            }
+        }
+
+        private JsonParser newParser() {
+            try {
+                return objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to create non-blocking JSON parser", e);
+            }
+        }
+    }
+
+    private static String normalize(String pointer) {
+        String path = pointer.replaceAll("/\\d+(?=/|$)", "/*");
+        return path.startsWith("/*") ? path.substring(2) : path;
+    }
+
+    private static final class Capture {
+
+        private final Class<? extends StoryRecord> type;
+        private final TokenBuffer buffer;
+        private int depth = 1;
+
+        Capture(Class<? extends StoryRecord> type, TokenBuffer buffer) {
+            this.type = type;
+            this.buffer = buffer;
+        }
+    }
+}
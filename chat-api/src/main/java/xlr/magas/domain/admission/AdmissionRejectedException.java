@@ -0,0 +1,17 @@
+package xlr.magas.domain.admission;
+
+import java.time.Duration;
+
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String name, Duration retryAfter) {
+        super("Rate limit for '" + name + "' reached; retry after " + Math.max(1, retryAfter.toSeconds()) + "s");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,19 @@
+package xlr.magas.domain.admission;
+
+import reactor.util.context.Context;
+
+/**
+ * Carries the calling client in the subscriber context, from the inbound adapters that identify it
+ * to the outbound ones that queue and charge its upstream calls.
+ */
+public final class ClientContext {
+
+    public static final String KEY = "admission.client";
+
+    private ClientContext() {
+    }
+
+    public static Context of(String client) {
+        return client == null ? Context.empty() : Context.of(KEY, client);
+    }
+}
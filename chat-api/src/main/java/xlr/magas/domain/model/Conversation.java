@@ -0,0 +1,14 @@
+package xlr.magas.domain.model;
+
+import java.util.List;
+
+public record Conversation(
+    String id,
+    String summary,
+    List<Turn> turns
+) {
+
+    public static Conversation empty(String id) {
+        return new Conversation(id, null, List.of());
+    }
+}
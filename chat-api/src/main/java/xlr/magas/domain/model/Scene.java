@@ -6,5 +6,15 @@ public record Scene(
     int order,
     String title,
     Setting setting,
-    List<Text> texts
-) {}
+    List<Text> texts,
+    String image
+) implements StoryRecord {
+
+    public Scene(int order, String title, Setting setting, List<Text> texts) {
+        this(order, title, setting, texts, null);
+    }
+
+    public Scene withImage(String image) {
+        return new Scene(order, title, setting, texts, image);
+    }
+}
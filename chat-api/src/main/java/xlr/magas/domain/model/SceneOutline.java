@@ -0,0 +1,11 @@
+package xlr.magas.domain.model;
+
+import java.util.List;
+
+public record SceneOutline(
+    int order,
+    String title,
+    Setting setting,
+    String summary,
+    List<String> characters
+) implements StoryRecord {}
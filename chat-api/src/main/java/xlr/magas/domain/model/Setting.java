@@ -4,4 +4,4 @@ public record Setting(
     String position,
     String location,
     String time
-) {}
+) implements StoryRecord {}
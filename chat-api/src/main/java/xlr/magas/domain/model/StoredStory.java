@@ -0,0 +1,18 @@
+package xlr.magas.domain.model;
+
+import java.time.Instant;
+
+public record StoredStory(
+    String id,
+    String topic,
+    String language,
+    Instant createdAt,
+    StoryBlueprint blueprint,
+    String cover,
+    Story story
+) {
+
+    public StorySummary summary() {
+        return new StorySummary(id, topic, language, blueprint.title(), createdAt);
+    }
+}
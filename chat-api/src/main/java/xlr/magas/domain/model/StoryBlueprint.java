@@ -11,7 +11,7 @@ public record StoryBlueprint(
     StoryArc storyArc,
     WorldSetting worldSetting,
     List<String> keyPlotPoints
-) {
+) implements StoryRecord {
 
     public record CharacterProfile(
         String name,
@@ -20,7 +20,7 @@ public record StoryBlueprint(
         String motivations,
         String relationships,
         String developmentArc
-    ) {}
+    ) implements StoryRecord {}
 
     public record StoryArc(
         String openingHook,
@@ -35,5 +35,5 @@ public record StoryBlueprint(
         String culturalContext,
         String rulesAndMagic,
         String atmosphere
-    ) {}
+    ) implements StoryRecord {}
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package xlr.magas.domain.model;
+
+public record StoryEvent(String name, Object data) {
+
+    public static StoryEvent blueprint(StoryBlueprint blueprint) {
+        return new StoryEvent("blueprint", blueprint);
+    }
+
+    public static StoryEvent scene(Scene scene) {
+        return new StoryEvent("scene", scene);
+    }
+
+    public static StoryEvent text(int scene, Text text) {
+        return new StoryEvent("text", new SceneText(scene, text));
+    }
+
+    public static StoryEvent image(int scene, String url) {
+        return new StoryEvent("image", new SceneImage(scene, url));
+    }
+
+    public static StoryEvent stored(String id) {
+        return new StoryEvent("stored", new StoredId(id));
+    }
+
+    public static StoryEvent done(Story story) {
+        return new StoryEvent("done", story);
+    }
+
+    public record SceneText(int scene, Text text) {}
+
+    public record SceneImage(int scene, String url) {}
+
+    public record StoredId(String id) {}
+}
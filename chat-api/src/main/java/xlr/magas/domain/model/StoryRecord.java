@@ -0,0 +1,9 @@
+package xlr.magas.domain.model;
+
+/**
+ * A record parsed out of streamed model output: a whole blueprint or scene, or one of the parts
+ * that surface before it closes.
+ */
+public sealed interface StoryRecord
+        permits StoryBlueprint, StoryBlueprint.CharacterProfile, StoryBlueprint.WorldSetting,
+                SceneOutline, Scene, Setting, Text {}
@@ -0,0 +1,11 @@
+package xlr.magas.domain.model;
+
+import java.time.Instant;
+
+public record StorySummary(
+    String id,
+    String topic,
+    String language,
+    String title,
+    Instant createdAt
+) {}
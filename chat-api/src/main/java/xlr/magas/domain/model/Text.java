@@ -5,4 +5,4 @@ public record Text(
     String character,
     String tone,
     String text
-) {}
+) implements StoryRecord {}
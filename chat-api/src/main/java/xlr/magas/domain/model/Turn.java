@@ -0,0 +1,6 @@
+package xlr.magas.domain.model;
+
+public record Turn(
+    String question,
+    String answer
+) {}
@@ -0,0 +1,9 @@
+package xlr.magas.domain.ports.in;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ContinueConversationUseCase {
+    Mono<String> startConversation();
+    Flux<String> continueConversation(String conversationId, String question, String language);
+}
@@ -1,5 +1,8 @@
 package xlr.magas.domain.ports.in;
 
+import reactor.core.publisher.Mono;
+
 public interface GenerateImageUseCase {
     String generateImage(String prompt);
+    Mono<String> generateImageAsync(String prompt);
 }
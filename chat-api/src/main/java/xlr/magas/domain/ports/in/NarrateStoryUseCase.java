@@ -0,0 +1,8 @@
+package xlr.magas.domain.ports.in;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.model.StoryEvent;
+
+public interface NarrateStoryUseCase {
+    Flux<StoryEvent> narrateStory(String topic, String language, int numberOfScenes);
+}
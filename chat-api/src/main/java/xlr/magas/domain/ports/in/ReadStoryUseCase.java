@@ -0,0 +1,12 @@
+package xlr.magas.domain.ports.in;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.model.StoryEvent;
+import xlr.magas.domain.model.StorySummary;
+
+import java.util.List;
+
+public interface ReadStoryUseCase {
+    Flux<StoryEvent> replayStory(String id);
+    List<StorySummary> findStories(String topic);
+}
@@ -4,4 +4,6 @@ import reactor.core.publisher.Flux;
 
 public interface ChatModelPort {
     Flux<String> askChatModel(String system, String user);
+
+    Flux<String> askChatModel(String system, String user, int maxTokens);
 }
@@ -0,0 +1,11 @@
+package xlr.magas.domain.ports.out;
+
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.model.Conversation;
+import xlr.magas.domain.model.Turn;
+
+public interface ConversationMemoryPort {
+    Mono<String> start();
+    Mono<Conversation> recall(String conversationId);
+    Mono<Void> remember(String conversationId, Turn turn);
+}
@@ -1,5 +1,8 @@
 package xlr.magas.domain.ports.out;
 
+import reactor.core.publisher.Mono;
+
 public interface ImageModelPort {
     String generateImage(String prompt);
+    Mono<String> generateImageAsync(String prompt);
 }
@@ -0,0 +1,13 @@
+package xlr.magas.domain.ports.out;
+
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.StorySummary;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StoryStorePort {
+    void save(StoredStory story);
+    Optional<StoredStory> findById(String id);
+    List<StorySummary> findByTopic(String topic);
+}
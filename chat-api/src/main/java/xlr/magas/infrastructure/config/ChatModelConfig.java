@@ -0,0 +1,151 @@
+package xlr.magas.infrastructure.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.scheduler.Schedulers;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.infrastructure.out.admission.AdmissionChatModelAdapter;
+import xlr.magas.infrastructure.out.admission.AdmissionController;
+import xlr.magas.infrastructure.out.cache.CachingChatModelAdapter;
+import xlr.magas.infrastructure.out.cache.OffHeapTokenStore;
+import xlr.magas.infrastructure.out.cache.SemanticIndex;
+import xlr.magas.infrastructure.out.metrics.MeteredChatModelAdapter;
+import xlr.magas.infrastructure.out.metrics.StreamMeter;
+import xlr.magas.infrastructure.out.openai.OpenAIChatAdapter;
+import xlr.magas.infrastructure.out.ratelimit.TokenBucket;
+import xlr.magas.infrastructure.out.resilience.CircuitBreaker;
+import xlr.magas.infrastructure.out.resilience.ResiliencePolicy;
+import xlr.magas.infrastructure.out.resilience.ResilientChatModelAdapter;
+import xlr.magas.infrastructure.out.routing.RoutingChatModelAdapter;
+import xlr.magas.infrastructure.out.tokens.CancellationTrackingChatModelAdapter;
+import xlr.magas.infrastructure.out.tokens.TokenBudgetingChatModelAdapter;
+import xlr.magas.infrastructure.out.tokens.TokenCounter;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class ChatModelConfig {
+
+    @Bean
+    public ResilientChatModelAdapter resilientChatModelAdapter(
+            OpenAIChatAdapter openAIChatAdapter,
+            ObjectProvider<RoutingChatModelAdapter> routingChatModelAdapter,
+            MeterRegistry meterRegistry,
+            @Value("${chat.resilience.first-token-timeout:20s}") Duration firstTokenTimeout,
+            @Value("${chat.resilience.deadline:45s}") Duration deadline,
+            @Value("${chat.resilience.max-attempts:3}") int maxAttempts,
+            @Value("${chat.resilience.backoff:500ms}") Duration backoff,
+            @Value("${chat.resilience.hedge-delay:0s}") Duration hedgeDelay,
+            @Value("${chat.resilience.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${chat.resilience.circuit.open-duration:30s}") Duration openDuration) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("chat", failureThreshold, openDuration,
+                Clock.systemUTC(), ResiliencePolicy::isTransient);
+        RoutingChatModelAdapter routing = routingChatModelAdapter.getIfAvailable();
+        ChatModelPort upstream = new MeteredChatModelAdapter(routing != null ? routing : openAIChatAdapter,
+                new StreamMeter(meterRegistry, "chat.upstream"));
+        return new ResilientChatModelAdapter(upstream, new ResiliencePolicy(
+                firstTokenTimeout, deadline, maxAttempts, backoff, hedgeDelay, circuitBreaker,
+                error -> meterRegistry.counter("chat.upstream.retries", "cause", StreamMeter.cause(error)).increment()));
+    }
+
+    @Bean
+    public CancellationTrackingChatModelAdapter cancellationTrackingChatModelAdapter(
+            ResilientChatModelAdapter resilientChatModelAdapter,
+            MeterRegistry meterRegistry,
+            @Value("${chat.tokens.max-completion:4000}") int maxCompletionTokens) {
+        CancellationTrackingChatModelAdapter adapter =
+                new CancellationTrackingChatModelAdapter(resilientChatModelAdapter, maxCompletionTokens);
+        FunctionCounter.builder("chat.cancelled.streams", adapter, CancellationTrackingChatModelAdapter::cancelledStreams)
+                .description("Chat streams cancelled by the client before they completed")
+                .register(meterRegistry);
+        FunctionCounter.builder("chat.cancelled.tokens.saved", adapter, CancellationTrackingChatModelAdapter::tokensSaved)
+                .description("Completion tokens estimated to be saved by cancelling streams early")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        FunctionCounter.builder("chat.cancelled.tokens.avoided.max", adapter, CancellationTrackingChatModelAdapter::maxTokensAvoided)
+                .description("Upper bound of the completion tokens avoided by cancelling streams early")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        return adapter;
+    }
+
+    @Bean
+    public AdmissionController chatAdmissionController(
+            @Value("${chat.tokens.model:gpt-4o}") String model,
+            @Value("${chat.admission.tokens-per-minute:0}") long tokensPerMinute,
+            @Value("${chat.admission.requests-per-minute:0}") long requestsPerMinute,
+            @Value("${chat.admission.max-queued:64}") int maxQueued,
+            @Value("${chat.admission.max-wait:10s}") Duration maxWait) {
+        Clock clock = Clock.systemUTC();
+        return new AdmissionController("chat:" + model,
+                new TokenBucket(tokensPerMinute, Duration.ofMinutes(1), clock),
+                new TokenBucket(requestsPerMinute, Duration.ofMinutes(1), clock),
+                maxQueued, maxWait, Schedulers.parallel());
+    }
+
+    @Bean
+    public AdmissionChatModelAdapter admissionChatModelAdapter(
+            CancellationTrackingChatModelAdapter cancellationTrackingChatModelAdapter,
+            TokenCounter tokenCounter,
+            AdmissionController chatAdmissionController,
+            @Value("${chat.tokens.max-completion:4000}") int maxCompletionTokens) {
+        return new AdmissionChatModelAdapter(cancellationTrackingChatModelAdapter, tokenCounter,
+                chatAdmissionController, maxCompletionTokens);
+    }
+
+    // Summaries go straight to the cheaper model, under the same admission quota as the answers they summarize.
+    @Bean
+    public ChatModelPort summaryChatModelPort(ChatModelPort chatModelPort,
+                                              ChatClient.Builder chatClientBuilder,
+                                              AdmissionController chatAdmissionController,
+                                              TokenCounter tokenCounter,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${chat.memory.summary-model:gpt-4o-mini}") String summaryModel,
+                                              @Value("${chat.memory.summary-max-tokens:300}") int summaryMaxTokens) {
+        if (!StringUtils.hasText(summaryModel)) {
+            return chatModelPort;
+        }
+        ChatModelPort upstream = new MeteredChatModelAdapter(new OpenAIChatAdapter(chatClientBuilder, summaryModel),
+                new StreamMeter(meterRegistry, "chat.summary"));
+        return new AdmissionChatModelAdapter(upstream, tokenCounter, chatAdmissionController, summaryMaxTokens);
+    }
+
+    @Bean
+    @Primary
+    public ChatModelPort chatModelPort(AdmissionChatModelAdapter upstream,
+                                       TokenCounter tokenCounter,
+                                       ObjectProvider<EmbeddingModel> embeddingModel,
+                                       @Value("${chat.tokens.max-completion:4000}") int maxCompletionTokens,
+                                       @Value("${chat.tokens.min-completion:256}") int minCompletionTokens,
+                                       @Value("${chat.tokens.trim-overflow:false}") boolean trimOverflow,
+                                       @Value("${chat.cache.enabled:false}") boolean cacheEnabled,
+                                       @Value("${chat.cache.max-size:64MB}") DataSize maxSize,
+                                       @Value("${chat.cache.ttl:6h}") Duration ttl,
+                                       @Value("${chat.cache.replay-delay:0ms}") Duration replayDelay,
+                                       @Value("${chat.cache.semantic.enabled:false}") boolean semanticEnabled,
+                                       @Value("${chat.cache.semantic.threshold:0.97}") double semanticThreshold,
+                                       @Value("${chat.cache.semantic.max-entries:10000}") int semanticMaxEntries) {
+        ChatModelPort port = new TokenBudgetingChatModelAdapter(upstream, tokenCounter,
+                maxCompletionTokens, minCompletionTokens, trimOverflow);
+        if (!cacheEnabled) {
+            return port;
+        }
+        OffHeapTokenStore store = new OffHeapTokenStore(maxSize.toBytes(), ttl, Clock.systemUTC());
+        EmbeddingModel embeddings = semanticEnabled ? embeddingModel.getIfAvailable() : null;
+        if (embeddings == null) {
+            return new CachingChatModelAdapter(port, store, replayDelay);
+        }
+        return new CachingChatModelAdapter(port, store, replayDelay,
+                embeddings, new SemanticIndex(semanticMaxEntries, semanticThreshold));
+    }
+}
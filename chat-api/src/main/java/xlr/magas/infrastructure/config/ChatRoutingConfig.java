@@ -0,0 +1,59 @@
+package xlr.magas.infrastructure.config;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import xlr.magas.infrastructure.out.openai.OpenAIChatAdapter;
+import xlr.magas.infrastructure.out.routing.ChatBackend;
+import xlr.magas.infrastructure.out.routing.RoutingChatModelAdapter;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ChatRoutingProperties.class)
+public class ChatRoutingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.routing.enabled", havingValue = "true")
+    public RoutingChatModelAdapter routingChatModelAdapter(ChatRoutingProperties properties,
+                                                           ClientHttpRequestFactory upstreamRequestFactory,
+                                                           ClientHttpConnector upstreamConnector,
+                                                           @Value("${spring.ai.openai.chat.options.temperature:1.0}") float temperature) {
+        if (properties.backends().isEmpty()) {
+            throw new IllegalStateException("chat.routing.enabled is set but no chat.routing.backends are configured");
+        }
+        Clock clock = Clock.systemUTC();
+        return new RoutingChatModelAdapter(properties.backends().stream()
+                .map(backend -> new ChatBackend(backend.name(),
+                        adapter(backend, upstreamRequestFactory, upstreamConnector, temperature), backend.weight(),
+                        backend.requestsPerMinute(), properties.failureCooldown(), clock))
+                .toList());
+    }
+
+    // Each backend gets its own builders, since OpenAiApi sets its base URL and key on them, but they
+    // all run on the shared pooled clients and their timeouts.
+    private static OpenAIChatAdapter adapter(ChatRoutingProperties.Backend backend,
+                                             ClientHttpRequestFactory requestFactory,
+                                             ClientHttpConnector connector,
+                                             float temperature) {
+        OpenAiChatOptions options = OpenAiChatOptions.builder()
+                .withModel(backend.model())
+                .withTemperature(temperature)
+                .build();
+        OpenAiApi api = new OpenAiApi(backend.baseUrl(), backend.apiKey(),
+                RestClient.builder().requestFactory(requestFactory),
+                WebClient.builder().clientConnector(connector));
+        OpenAiChatModel chatModel = new OpenAiChatModel(api, options);
+        return new OpenAIChatAdapter(ChatClient.builder(chatModel));
+    }
+}
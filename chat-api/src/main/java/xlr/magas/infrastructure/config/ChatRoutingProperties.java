@@ -0,0 +1,28 @@
+package xlr.magas.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "chat.routing")
+public record ChatRoutingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("10s") Duration failureCooldown,
+    @DefaultValue List<Backend> backends
+) {
+
+    /**
+     * An OpenAI-compatible endpoint. {@code requestsPerMinute} of 0 means unlimited; a local server
+     * usually needs no {@code apiKey} beyond a placeholder.
+     */
+    public record Backend(
+        String name,
+        String baseUrl,
+        @DefaultValue("none") String apiKey,
+        String model,
+        @DefaultValue("1") int weight,
+        @DefaultValue("0") int requestsPerMinute
+    ) {}
+}
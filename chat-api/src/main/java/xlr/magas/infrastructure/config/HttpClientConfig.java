@@ -0,0 +1,77 @@
+package xlr.magas.infrastructure.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Upstream HTTP clients. The blocking and reactive clients each sit on one pooled connection set-up
+ * with the configured timeouts, exposed as beans so every upstream client, including the OpenAI APIs
+ * built by hand, shares them.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final int maxConnections;
+    private final Duration maxIdleTime;
+
+    public HttpClientConfig(@Value("${http.client.connect-timeout:10s}") Duration connectTimeout,
+                            @Value("${http.client.read-timeout:120s}") Duration readTimeout,
+                            @Value("${http.client.max-connections:200}") int maxConnections,
+                            @Value("${http.client.max-idle-time:60s}") Duration maxIdleTime) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxConnections = maxConnections;
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    @Bean
+    public ClientHttpRequestFactory upstreamRequestFactory() {
+        // The JDK client keeps connections alive and pools them per host
+        java.net.http.HttpClient httpClient = java.net.http.HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+
+    @Bean
+    public ClientHttpConnector upstreamConnector() {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("upstream")
+                .maxConnections(maxConnections)
+                .maxIdleTime(maxIdleTime)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .keepAlive(true)
+                .responseTimeout(readTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(ClientHttpRequestFactory upstreamRequestFactory) {
+        return new RestTemplate(upstreamRequestFactory);
+    }
+
+    @Bean
+    public WebClient webClient(ClientHttpConnector upstreamConnector) {
+        return WebClient.builder()
+                .clientConnector(upstreamConnector)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+    }
+}
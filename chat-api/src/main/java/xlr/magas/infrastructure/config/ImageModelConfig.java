@@ -0,0 +1,67 @@
+package xlr.magas.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+import xlr.magas.domain.ports.out.ImageModelPort;
+import xlr.magas.infrastructure.out.admission.AdmissionController;
+import xlr.magas.infrastructure.out.admission.AdmissionImageModelAdapter;
+import xlr.magas.infrastructure.out.cache.AttemptReportingImageModelAdapter;
+import xlr.magas.infrastructure.out.cache.CachingImageModelAdapter;
+import xlr.magas.infrastructure.out.cache.FileImageStore;
+import xlr.magas.infrastructure.out.metrics.MeteredImageModelAdapter;
+import xlr.magas.infrastructure.out.metrics.StreamMeter;
+import xlr.magas.infrastructure.out.openai.OpenAIImageAdapter;
+import xlr.magas.infrastructure.out.ratelimit.TokenBucket;
+import xlr.magas.infrastructure.out.resilience.CircuitBreaker;
+import xlr.magas.infrastructure.out.resilience.ResiliencePolicy;
+import xlr.magas.infrastructure.out.resilience.ResilientImageModelAdapter;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class ImageModelConfig {
+
+    @Bean
+    @Primary
+    public ImageModelPort imageModelPort(OpenAIImageAdapter openAIImageAdapter,
+                                         FileImageStore fileImageStore,
+                                         WebClient webClient,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${picture.cache.enabled:true}") boolean cacheEnabled,
+                                         @Value("${spring.ai.openai.image.options.model:dall-e-3}") String model,
+                                         @Value("${picture.size:1024x1024}") String size,
+                                         @Value("${picture.cache.public-path:/api/v1/images}") String publicPath,
+                                         @Value("${picture.resilience.timeout:90s}") Duration timeout,
+                                         @Value("${picture.resilience.deadline:150s}") Duration deadline,
+                                         @Value("${picture.resilience.max-attempts:2}") int maxAttempts,
+                                         @Value("${picture.resilience.backoff:1s}") Duration backoff,
+                                         @Value("${picture.resilience.circuit.failure-threshold:5}") int failureThreshold,
+                                         @Value("${picture.resilience.circuit.open-duration:60s}") Duration openDuration,
+                                         @Value("${picture.admission.images-per-minute:0}") long imagesPerMinute,
+                                         @Value("${picture.admission.max-queued:16}") int maxQueued,
+                                         @Value("${picture.admission.max-wait:30s}") Duration maxWait) {
+        Clock clock = Clock.systemUTC();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("picture", failureThreshold, openDuration,
+                clock, ResiliencePolicy::isTransient);
+        // Images are too expensive to hedge; a slow one is retried only after it times out.
+        ImageModelPort metered = new MeteredImageModelAdapter(new AttemptReportingImageModelAdapter(openAIImageAdapter),
+                meterRegistry, "picture.upstream");
+        ImageModelPort resilient = new ResilientImageModelAdapter(metered, new ResiliencePolicy(
+                timeout, deadline, maxAttempts, backoff, Duration.ZERO, circuitBreaker,
+                error -> meterRegistry.counter("picture.upstream.retries", "cause", StreamMeter.cause(error)).increment()));
+        ImageModelPort admitted = new AdmissionImageModelAdapter(resilient, new AdmissionController("picture:" + model,
+                new TokenBucket(0, Duration.ofMinutes(1), clock),
+                new TokenBucket(imagesPerMinute, Duration.ofMinutes(1), clock),
+                maxQueued, maxWait, Schedulers.parallel()));
+        if (!cacheEnabled) {
+            return admitted;
+        }
+        return new CachingImageModelAdapter(admitted, fileImageStore, webClient, model, size, publicPath);
+    }
+}
@@ -0,0 +1,31 @@
+package xlr.magas.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Rejects picture generation calls once {@code picture.execution.max-concurrency} are already in
+ * flight. Calls are non-blocking and run where they are subscribed.
+ */
+@Component
+public class PictureCallExecutor {
+
+    private final Semaphore permits;
+
+    public PictureCallExecutor(@Value("${picture.execution.max-concurrency:8}") int maxConcurrency) {
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public <T> Mono<T> run(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!permits.tryAcquire()) {
+                return Mono.error(new RejectedExecutionException("Too many picture requests in progress, try again later"));
+            }
+            return call.doFinally(signal -> permits.release());
+        });
+    }
+}
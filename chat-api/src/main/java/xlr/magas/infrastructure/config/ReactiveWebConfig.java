@@ -0,0 +1,53 @@
+package xlr.magas.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.WebFilter;
+import xlr.magas.infrastructure.in.web.ClientIdentityFilter;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+/**
+ * Runtime wiring for the "reactive" profile, where /chat and /picture are served by Netty end to end.
+ * Both web starters are on the classpath, so Boot would otherwise pick Tomcat as the reactive server too.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public CorsWebFilter corsWebFilter() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", OpenApiConfig.corsConfiguration());
+        return new CorsWebFilter(source);
+    }
+
+    // Reactive counterpart of ClientIdentityFilter; exchange attributes back @RequestAttribute here.
+    @Bean
+    public WebFilter clientIdentityWebFilter(@Value("${client.identity.trust-header:false}") boolean trustHeader) {
+        return (exchange, chain) -> exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(principal -> {
+                    InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+                    String client = ClientIdentityFilter.resolve(principal,
+                            exchange.getRequest().getHeaders().getFirst(ClientIdentityFilter.HEADER),
+                            remote == null ? null : remote.getHostString(), trustHeader);
+                    if (client != null) {
+                        exchange.getAttributes().put(ClientIdentityFilter.ATTRIBUTE, client);
+                    }
+                    return chain.filter(exchange);
+                });
+    }
+}
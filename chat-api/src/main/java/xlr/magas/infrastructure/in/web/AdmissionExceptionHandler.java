@@ -0,0 +1,24 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+
+/**
+ * Turns admission rejections into 429 with {@code Retry-After}. Streaming endpoints only get here
+ * when the rejection comes before their first event; once the stream has started it is already 200.
+ * The response has no body so it suits both JSON and event-stream requests.
+ */
+@RestControllerAdvice
+public class AdmissionExceptionHandler {
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Void> rejected(AdmissionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.retryAfter().toSeconds())))
+                .build();
+    }
+}
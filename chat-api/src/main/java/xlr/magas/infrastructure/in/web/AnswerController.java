@@ -1,28 +1,93 @@
 package xlr.magas.infrastructure.in.web;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.admission.ClientContext;
+import xlr.magas.domain.ports.in.ContinueConversationUseCase;
 import xlr.magas.domain.ports.in.GenerateStoryUseCase;
+import xlr.magas.infrastructure.out.metrics.StreamMeter;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams an answer token by token. Each token event carries an id, so a client that reconnects with
+ * {@code Last-Event-ID} resumes where it left off (see {@link ResumableStreams}). With a
+ * {@code conversation} id, as returned by {@code POST /chat/conversations}, the question continues that
+ * conversation instead of starting afresh; an unknown or expired id is answered with 404. The id is
+ * minted by the server and is the only key, so it follows the client across networks.
+ * Streams are measured as the client sees them under {@code chat.stream}.
+ */
 @RestController
 @RequestMapping("/chat")
 @CrossOrigin(origins = "*")
 public class AnswerController {
 
+    static final ServerSentEvent<String> DONE = ServerSentEvent.builder(" [DONE]").build();
+
     private final GenerateStoryUseCase generateStoryUseCase;
+    private final ContinueConversationUseCase continueConversationUseCase;
+    private final ResumableStreams resumableStreams;
+    private final Duration heartbeatInterval;
+    private final StreamMeter streamMeter;
 
-    public AnswerController(GenerateStoryUseCase generateStoryUseCase) {
+    public AnswerController(GenerateStoryUseCase generateStoryUseCase,
+                            ContinueConversationUseCase continueConversationUseCase,
+                            ResumableStreams resumableStreams,
+                            MeterRegistry meterRegistry,
+                            @Value("${sse.heartbeat-interval:15s}") Duration heartbeatInterval) {
         this.generateStoryUseCase = generateStoryUseCase;
+        this.continueConversationUseCase = continueConversationUseCase;
+        this.resumableStreams = resumableStreams;
+        this.heartbeatInterval = heartbeatInterval;
+        this.streamMeter = new StreamMeter(meterRegistry, "chat.stream");
     }
 
     @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<String> answer(@RequestParam(value = "question", defaultValue = "Tell me a joke") String question,
-                               @RequestParam(value = "language", defaultValue = "English") String language) {
-        return generateStoryUseCase.generateStory(question, language);
+    public Flux<ServerSentEvent<String>> answer(@RequestParam(value = "question", defaultValue = "Tell me a joke") String question,
+                                                @RequestParam(value = "language", defaultValue = "English") String language,
+                                                @RequestParam(value = "conversation", required = false) String conversation,
+                                                @RequestAttribute(name = ClientIdentityFilter.ATTRIBUTE, required = false) String client,
+                                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return SseHeartbeat.withHeartbeat(streamMeter.measure(resumableStreams.open(lastEventId,
+                        () -> conversation == null
+                                ? generateStoryUseCase.generateStory(question, language)
+                                : continueConversationUseCase.continueConversation(conversation, question, language)
+                                        .onErrorMap(NoSuchElementException.class,
+                                                error -> new ResponseStatusException(HttpStatus.NOT_FOUND, error.getMessage()))))
+                .map(chunk -> tokenEvent(chunk.id(), chunk.text()))
+                .concatWith(Flux.just(DONE)), heartbeatInterval)
+                .contextWrite(ClientContext.of(client));
+    }
+
+    @PostMapping("/conversations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Map<String, String>> startConversation() {
+        return continueConversationUseCase.startConversation().map(id -> Map.of("id", id));
+    }
+
+    // Spring writes "data:" with no separator and clients strip exactly one leading space,
+    // so the token is prefixed once here to keep its own leading whitespace intact.
+    // Framing is left to Spring's SSE writer rather than hand-built pooled DataBuffers: on the
+    // default servlet stack only event streams are flushed incrementally, and the heartbeat,
+    // resume ids and stream metrics all work on events. That leaves one String and one event per token.
+    static ServerSentEvent<String> tokenEvent(String id, String token) {
+        return ServerSentEvent.builder(" " + token).id(id).build();
     }
 }
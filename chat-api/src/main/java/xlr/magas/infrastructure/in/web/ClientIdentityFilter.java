@@ -0,0 +1,51 @@
+package xlr.magas.infrastructure.in.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * Records who is calling as a request attribute, so admission control can queue each client
+ * separately: the authenticated principal when there is one, otherwise the peer address. Behind a proxy,
+ * set {@code server.forward-headers-strategy} so the peer address is the original client's. The
+ * {@code X-Client-Id} header is only honoured with {@code client.identity.trust-header}, for a proxy
+ * that sets it itself; taken from clients as sent, a new id per call would get a fresh queue each time.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClientIdentityFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Client-Id";
+    public static final String ATTRIBUTE = "xlr.magas.client";
+
+    private final boolean trustHeader;
+
+    public ClientIdentityFilter(@Value("${client.identity.trust-header:false}") boolean trustHeader) {
+        this.trustHeader = trustHeader;
+    }
+
+    public static String resolve(String principal, String header, String remoteAddress, boolean trustHeader) {
+        if (StringUtils.hasText(principal)) {
+            return principal;
+        }
+        return trustHeader && StringUtils.hasText(header) ? header.trim() : remoteAddress;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Principal principal = request.getUserPrincipal();
+        request.setAttribute(ATTRIBUTE, resolve(principal == null ? null : principal.getName(),
+                request.getHeader(HEADER), request.getRemoteAddr(), trustHeader));
+        chain.doFilter(request, response);
+    }
+}
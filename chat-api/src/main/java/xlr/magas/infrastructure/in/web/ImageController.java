@@ -0,0 +1,46 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import xlr.magas.infrastructure.out.cache.FileImageStore;
+
+import java.time.Duration;
+
+/**
+ * Serves images from {@link FileImageStore}. Blobs are content-addressed, so the hash doubles as a
+ * strong ETag and responses never change: clients and CDNs may cache them for good. Conditional
+ * (If-None-Match) and Range requests are answered by Spring's resource handling, which streams the
+ * file with zero-copy transfer on the reactive (Netty) runtime.
+ */
+@RestController
+@RequestMapping("/images")
+@CrossOrigin(origins = "*")
+public class ImageController {
+
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final FileImageStore fileImageStore;
+
+    public ImageController(FileImageStore fileImageStore) {
+        this.fileImageStore = fileImageStore;
+    }
+
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> image(@PathVariable("hash") String hash) {
+        return fileImageStore.find(hash)
+                .<ResponseEntity<Resource>>map(path -> ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_PNG)
+                        .eTag(hash)
+                        .cacheControl(IMMUTABLE)
+                        .body(new FileSystemResource(path)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -2,10 +2,15 @@ package xlr.magas.infrastructure.in.web;
 
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.domain.admission.ClientContext;
 import xlr.magas.domain.ports.in.GenerateImageUseCase;
+import xlr.magas.infrastructure.config.PictureCallExecutor;
 
 import java.util.Map;
 
@@ -15,18 +20,20 @@ import java.util.Map;
 public class PictureController {
 
     private final GenerateImageUseCase generateImageUseCase;
+    private final PictureCallExecutor pictureCallExecutor;
 
-    public PictureController(GenerateImageUseCase generateImageUseCase) {
+    public PictureController(GenerateImageUseCase generateImageUseCase, PictureCallExecutor pictureCallExecutor) {
         this.generateImageUseCase = generateImageUseCase;
+        this.pictureCallExecutor = pictureCallExecutor;
     }
 
     @GetMapping
-    public Map<String, String> generatePicture(@RequestParam("prompt") String prompt) {
-        try {
-            String url = generateImageUseCase.generateImage(prompt);
-            return Map.of("status", "ok", "url", url);
-        } catch (Exception e) {
-            return Map.of("status", "error", "message", e.getMessage());
-        }
+    public Mono<Map<String, String>> generatePicture(@RequestParam("prompt") String prompt,
+                                                     @RequestAttribute(name = ClientIdentityFilter.ATTRIBUTE, required = false) String client) {
+        return pictureCallExecutor.run(generateImageUseCase.generateImageAsync(prompt))
+                .map(url -> Map.of("status", "ok", "url", url))
+                .onErrorResume(e -> !(e instanceof AdmissionRejectedException),
+                        e -> Mono.just(Map.of("status", "error", "message", e.getMessage())))
+                .contextWrite(ClientContext.of(client));
     }
 }
@@ -0,0 +1,211 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps each streamed answer in a {@link StreamLog} so that a client that loses its connection can
+ * reconnect with {@code Last-Event-ID} and replay what it missed instead of paying for a new
+ * generation. Event ids are {@code <stream>:<sequence>}. The upstream keeps generating while no client is
+ * attached, but only for {@code grace}; after that it is cancelled as before. Finished streams stay
+ * replayable for {@code retention}, but at most {@code max-streams} are kept: beyond that, the finished
+ * stream nobody is reading that finished first is dropped early. Streams still generating are never
+ * dropped for room.
+ */
+@Component
+public class ResumableStreams {
+
+    record Chunk(String id, String text) {
+    }
+
+    private final Duration grace;
+    private final Duration retention;
+    private final int ringCapacity;
+    private final long spillBytes;
+    private final Path spillDirectory;
+    private final int maxStreams;
+    private final Scheduler scheduler;
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResumableStreams(@Value("${sse.resume.grace:10s}") Duration grace,
+                            @Value("${sse.resume.retention:2m}") Duration retention,
+                            @Value("${sse.resume.ring-capacity:4096}") int ringCapacity,
+                            @Value("${sse.resume.spill-size:0}") DataSize spillSize,
+                            @Value("${sse.resume.spill-directory:${java.io.tmpdir}/chat-api/streams}") Path spillDirectory,
+                            @Value("${sse.resume.max-streams:1000}") int maxStreams) {
+        this(grace, retention, ringCapacity, spillSize.toBytes(), spillDirectory, maxStreams, Schedulers.parallel());
+    }
+
+    ResumableStreams(Duration grace, Duration retention, int ringCapacity, long spillBytes, Path spillDirectory,
+                     int maxStreams, Scheduler scheduler) {
+        this.grace = grace;
+        this.retention = retention;
+        this.ringCapacity = ringCapacity;
+        this.spillBytes = spillBytes;
+        this.spillDirectory = spillDirectory;
+        this.maxStreams = maxStreams;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Resumes the stream named by {@code lastEventId} after that event. If it is unknown, expired
+     * or no longer replayable from there, starts a new stream from {@code upstream}.
+     */
+    Flux<Chunk> open(String lastEventId, Supplier<Flux<String>> upstream) {
+        return Flux.deferContextual(context -> {
+            if (lastEventId != null) {
+                int separator = lastEventId.lastIndexOf(':');
+                Stream stream = separator < 0 ? null : streams.get(lastEventId.substring(0, separator));
+                Long sequence = separator < 0 ? null : parse(lastEventId.substring(separator + 1));
+                if (stream != null && sequence != null && stream.attach(sequence + 1, context)) {
+                    return stream.follow(sequence + 1);
+                }
+            }
+            Stream stream = new Stream(UUID.randomUUID().toString(), upstream,
+                    new StreamLog(ringCapacity, spillBytes, spillDirectory));
+            streams.put(stream.id, stream);
+            stream.attach(0, context);
+            trim();
+            return stream.follow(0);
+        });
+    }
+
+    private void trim() {
+        while (streams.size() > maxStreams) {
+            Stream eldest = null;
+            for (Stream stream : streams.values()) {
+                if (stream.isRetainedOnly() && (eldest == null || stream.finishedAt < eldest.finishedAt)) {
+                    eldest = stream;
+                }
+            }
+            if (eldest == null || !eldest.evict()) {
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return streams.size();
+    }
+
+    private static Long parse(String sequence) {
+        try {
+            return Long.parseLong(sequence);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private final class Stream {
+        private final String id;
+        private final Supplier<Flux<String>> upstream;
+        private final StreamLog log;
+        private Disposable subscription;
+        private Disposable expiry;
+        private int clients;
+        private boolean expired;
+        private volatile long finishedAt;
+
+        Stream(String id, Supplier<Flux<String>> upstream, StreamLog log) {
+            this.id = id;
+            this.upstream = upstream;
+            this.log = log;
+        }
+
+        /**
+         * Registers a client reading from {@code sequence}, unless the stream has expired or can no
+         * longer replay from there. Every successful attach must be followed by {@link #follow(long)}.
+         */
+        synchronized boolean attach(long sequence, ContextView context) {
+            if (expired || !log.canReplayFrom(sequence)) {
+                return false;
+            }
+            clients++;
+            if (expiry != null) {
+                expiry.dispose();
+                expiry = null;
+            }
+            if (subscription == null) {
+                // The first client's context (its admission identity, for one) carries over to the upstream call.
+                subscription = Flux.defer(upstream)
+                        .contextWrite(context)
+                        .doOnTerminate(this::finished)
+                        .subscribe(log::append, log::fail, log::complete);
+            }
+            return true;
+        }
+
+        Flux<Chunk> follow(long sequence) {
+            return log.follow(sequence)
+                    .map(entry -> new Chunk(id + ":" + entry.sequence(), entry.chunk()))
+                    .doFinally(signal -> detached());
+        }
+
+        synchronized boolean isRetainedOnly() {
+            return !expired && clients == 0 && log.isDone();
+        }
+
+        private synchronized void detached() {
+            if (--clients == 0) {
+                schedule(log.isDone() ? retention : grace);
+            }
+        }
+
+        private synchronized void finished() {
+            finishedAt = System.nanoTime();
+            if (clients == 0) {
+                schedule(retention);
+            }
+        }
+
+        private void schedule(Duration delay) {
+            if (expiry != null) {
+                expiry.dispose();
+            }
+            expiry = scheduler.schedule(this::expire, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void expire() {
+            if (clients == 0) {
+                drop();
+            }
+        }
+
+        private synchronized boolean evict() {
+            if (!isRetainedOnly()) {
+                return false;
+            }
+            drop();
+            return true;
+        }
+
+        // Under the lock, so no client can attach between the check and the removal.
+        private void drop() {
+            expired = true;
+            streams.remove(id, this);
+            if (expiry != null) {
+                expiry.dispose();
+            }
+            if (subscription != null) {
+                subscription.dispose();
+            }
+            log.complete();
+        }
+    }
+}
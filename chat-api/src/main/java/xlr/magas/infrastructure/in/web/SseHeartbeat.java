@@ -0,0 +1,24 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * Interleaves SSE comment lines into otherwise idle streams. A dropped client is only noticed when a
+ * write fails, so the heartbeat bounds how long a disconnected stream keeps its upstream model call
+ * alive; the failed write cancels the subscription all the way to the upstream HTTP exchange.
+ */
+final class SseHeartbeat {
+
+    private SseHeartbeat() {
+    }
+
+    static <T> Flux<ServerSentEvent<T>> withHeartbeat(Flux<ServerSentEvent<T>> events, Duration interval) {
+        return events.publish(shared -> Flux.merge(shared,
+                Flux.interval(interval, interval)
+                        .map(tick -> ServerSentEvent.<T>builder().comment("heartbeat").build())
+                        .takeUntilOther(shared.then())));
+    }
+}
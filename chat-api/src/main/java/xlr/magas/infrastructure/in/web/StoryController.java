@@ -0,0 +1,94 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.domain.admission.ClientContext;
+import xlr.magas.domain.model.StoryEvent;
+import xlr.magas.domain.model.StorySummary;
+import xlr.magas.domain.ports.in.NarrateStoryUseCase;
+import xlr.magas.domain.ports.in.ReadStoryUseCase;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams a structured story as typed SSE events: {@code blueprint}, then per scene a {@code scene}
+ * header followed by its {@code text} events, {@code image} events as pictures become ready, and a
+ * final {@code done} carrying the whole {@code Story}. Failures end the stream with an {@code error} event,
+ * except a rate-limit rejection before the first event, which is answered with 429 instead.
+ * Idle periods carry heartbeat comments so a disconnect cancels generation promptly. Each scene costs
+ * several model calls and an image, so {@code scenes} outside 1..{@code story.scenes.max} is a 400.
+ * Finished stories are announced with a {@code stored} event; {@code /story/{id}} replays them from
+ * disk with the same events, and {@code /story/search} lists those stored for a topic.
+ */
+@RestController
+@RequestMapping("/story")
+@CrossOrigin(origins = "*")
+public class StoryController {
+
+    private final NarrateStoryUseCase narrateStoryUseCase;
+    private final ReadStoryUseCase readStoryUseCase;
+    private final Duration heartbeatInterval;
+    private final int maxScenes;
+
+    public StoryController(NarrateStoryUseCase narrateStoryUseCase,
+                           ReadStoryUseCase readStoryUseCase,
+                           @Value("${sse.heartbeat-interval:15s}") Duration heartbeatInterval,
+                           @Value("${story.scenes.max:10}") int maxScenes) {
+        this.narrateStoryUseCase = narrateStoryUseCase;
+        this.readStoryUseCase = readStoryUseCase;
+        this.heartbeatInterval = heartbeatInterval;
+        this.maxScenes = maxScenes;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> story(@RequestParam("topic") String topic,
+                                               @RequestParam(value = "language", defaultValue = "English") String language,
+                                               @RequestParam(value = "scenes", defaultValue = "${story.scenes.default:5}") int scenes,
+                                               @RequestAttribute(name = ClientIdentityFilter.ATTRIBUTE, required = false) String client) {
+        if (scenes < 1 || scenes > maxScenes) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "scenes must be between 1 and " + maxScenes);
+        }
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return SseHeartbeat.withHeartbeat(narrateStoryUseCase.narrateStory(topic, language, scenes)
+                    .map(StoryController::event)
+                    .doOnNext(event -> started.set(true))
+                    .onErrorResume(error -> started.get() || !(error instanceof AdmissionRejectedException),
+                            error -> Flux.just(ServerSentEvent.builder()
+                                    .event("error")
+                                    .data(Map.of("message", String.valueOf(error.getMessage())))
+                                    .build())), heartbeatInterval);
+        }).contextWrite(ClientContext.of(client));
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> storedStory(@PathVariable("id") String id) {
+        return readStoryUseCase.replayStory(id)
+                .switchIfEmpty(Flux.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No stored story " + id)))
+                .map(StoryController::event);
+    }
+
+    @GetMapping("/search")
+    public List<StorySummary> search(@RequestParam("topic") String topic) {
+        return readStoryUseCase.findStories(topic);
+    }
+
+    private static ServerSentEvent<Object> event(StoryEvent event) {
+        return ServerSentEvent.builder(event.data()).event(event.name()).build();
+    }
+}
@@ -0,0 +1,197 @@
+package xlr.magas.infrastructure.in.web;
+
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only log of one stream's chunks, numbered from zero. The newest {@code ringCapacity}
+ * chunks are kept on the heap. Older ones are copied to a memory-mapped spill file of
+ * {@code spillBytes}, when given, so a client that fell far behind can still replay from the start.
+ * If the spill fills up it is dropped, and only the ring is readable from then on.
+ * {@link #follow(long)} replays from any readable offset and then stays live until the log ends.
+ */
+final class StreamLog {
+
+    record Entry(long sequence, String chunk) {
+    }
+
+    private final int ringCapacity;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private String[] ring;
+    private long size;
+    private boolean done;
+    private Throwable error;
+
+    private MappedByteBuffer spill;
+    private int[] spillOffsets;
+    private int spilled;
+
+    StreamLog(int ringCapacity, long spillBytes, Path spillDirectory) {
+        this.ringCapacity = ringCapacity;
+        this.ring = new String[Math.min(ringCapacity, 64)];
+        if (spillBytes > 0) {
+            this.spill = map(spillDirectory, spillBytes);
+            this.spillOffsets = new int[64];
+        }
+    }
+
+    void append(String chunk) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            if (size >= ringCapacity) {
+                evict(ring[index(size)]);
+            } else if (size == ring.length) {
+                ring = Arrays.copyOf(ring, (int) Math.min(ringCapacity, size * 2));
+            }
+            ring[index(size)] = chunk;
+            size++;
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    void complete() {
+        terminate(null);
+    }
+
+    void fail(Throwable cause) {
+        terminate(cause);
+    }
+
+    synchronized boolean isDone() {
+        return done;
+    }
+
+    synchronized boolean canReplayFrom(long sequence) {
+        return sequence >= firstAvailable() && sequence <= size;
+    }
+
+    /**
+     * Replays from {@code sequence}, then follows new chunks until the log completes or fails.
+     */
+    Flux<Entry> follow(long sequence) {
+        return Flux.create(sink -> {
+            long[] next = {sequence};
+            AtomicInteger wip = new AtomicInteger();
+            Runnable drain = () -> {
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+                int missed = 1;
+                do {
+                    while (!sink.isCancelled()) {
+                        Entry entry;
+                        boolean finished;
+                        Throwable failure;
+                        synchronized (this) {
+                            if (next[0] < firstAvailable()) {
+                                sink.error(new IllegalStateException("Stream log no longer holds chunk " + next[0]));
+                                return;
+                            }
+                            entry = next[0] < size ? new Entry(next[0], read(next[0])) : null;
+                            finished = done;
+                            failure = error;
+                        }
+                        if (entry == null) {
+                            if (finished) {
+                                if (failure != null) {
+                                    sink.error(failure);
+                                } else {
+                                    sink.complete();
+                                }
+                            }
+                            break;
+                        }
+                        if (sink.requestedFromDownstream() == 0) {
+                            break;
+                        }
+                        next[0]++;
+                        sink.next(entry);
+                    }
+                    missed = wip.addAndGet(-missed);
+                } while (missed != 0);
+            };
+            listeners.add(drain);
+            sink.onRequest(requested -> drain.run());
+            sink.onDispose(() -> listeners.remove(drain));
+            drain.run();
+        });
+    }
+
+    private void terminate(Throwable cause) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            done = true;
+            error = cause;
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    private long firstAvailable() {
+        long ringStart = Math.max(0, size - ringCapacity);
+        return spilled >= ringStart ? 0 : ringStart;
+    }
+
+    private String read(long sequence) {
+        if (sequence >= size - Math.min(size, ringCapacity)) {
+            return ring[index(sequence)];
+        }
+        int offset = spillOffsets[(int) sequence];
+        int length = spill.getInt(offset);
+        byte[] bytes = new byte[length];
+        spill.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void evict(String chunk) {
+        if (spill == null) {
+            return;
+        }
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        int offset = spill.position();
+        if (spill.remaining() < Integer.BYTES + bytes.length) {
+            spill = null;
+            spillOffsets = null;
+            spilled = 0;
+            return;
+        }
+        spill.putInt(bytes.length).put(bytes);
+        if (spilled == spillOffsets.length) {
+            spillOffsets = Arrays.copyOf(spillOffsets, spilled * 2);
+        }
+        spillOffsets[spilled++] = offset;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % ringCapacity);
+    }
+
+    private static MappedByteBuffer map(Path directory, long bytes) {
+        try {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "stream-", ".log");
+            // The mapping outlives the channel, and the file is unlinked as soon as the channel closes.
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
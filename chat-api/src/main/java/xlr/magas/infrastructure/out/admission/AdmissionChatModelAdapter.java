@@ -0,0 +1,38 @@
+package xlr.magas.infrastructure.out.admission;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.infrastructure.out.tokens.TokenCounter;
+
+/**
+ * Charges each chat call its prompt tokens plus {@code max_tokens}, the same estimate the provider
+ * counts against its tokens-per-minute limit, and only dispatches once {@link AdmissionController}
+ * admits it.
+ */
+public class AdmissionChatModelAdapter implements ChatModelPort {
+
+    private final ChatModelPort delegate;
+    private final TokenCounter tokenCounter;
+    private final AdmissionController admissionController;
+    private final int defaultMaxTokens;
+
+    public AdmissionChatModelAdapter(ChatModelPort delegate, TokenCounter tokenCounter,
+                                     AdmissionController admissionController, int defaultMaxTokens) {
+        this.delegate = delegate;
+        this.tokenCounter = tokenCounter;
+        this.admissionController = admissionController;
+        this.defaultMaxTokens = defaultMaxTokens;
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user) {
+        return admissionController.admit(tokenCounter.countPrompt(system, user) + (long) defaultMaxTokens)
+                .thenMany(Flux.defer(() -> delegate.askChatModel(system, user)));
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user, int maxTokens) {
+        return admissionController.admit(tokenCounter.countPrompt(system, user) + (long) maxTokens)
+                .thenMany(Flux.defer(() -> delegate.askChatModel(system, user, maxTokens)));
+    }
+}
@@ -0,0 +1,154 @@
+package xlr.magas.infrastructure.out.admission;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.domain.admission.ClientContext;
+import xlr.magas.infrastructure.out.ratelimit.TokenBucket;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits upstream calls against local copies of the provider's per-minute quotas, so calls that
+ * would only come back rate limited are never sent. Each call costs one request permit plus its
+ * estimated tokens. When the buckets are short, callers wait in per-client queues served round-robin,
+ * so one client's burst cannot starve the others. Calls that could not be admitted within
+ * {@code maxWait}, or that find {@code maxQueued} calls already waiting, fail fast with
+ * {@link AdmissionRejectedException}. The client is read from the subscriber context under
+ * {@link ClientContext#KEY}.
+ */
+public class AdmissionController {
+
+    static final String ANONYMOUS = "anonymous";
+    private static final long MIN_DRAIN_DELAY_MILLIS = 10;
+
+    private final String name;
+    private final TokenBucket tokens;
+    private final TokenBucket requests;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final Scheduler scheduler;
+    private final Map<String, Deque<Waiter>> queues = new LinkedHashMap<>();
+    private int queued;
+    private long queuedTokens;
+    private Disposable drainTask;
+
+    public AdmissionController(String name, TokenBucket tokens, TokenBucket requests,
+                               int maxQueued, Duration maxWait, Scheduler scheduler) {
+        this.name = name;
+        this.tokens = tokens;
+        this.requests = requests;
+        this.maxQueued = maxQueued;
+        this.maxWait = maxWait;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<Void> admit(long estimatedTokens) {
+        return Mono.deferContextual(context -> {
+            String client = context.getOrDefault(ClientContext.KEY, ANONYMOUS);
+            Waiter waiter;
+            synchronized (this) {
+                if (queues.isEmpty() && tryAcquire(estimatedTokens)) {
+                    return Mono.empty();
+                }
+                Duration wait = estimatedWait(estimatedTokens);
+                if (queued >= maxQueued || wait.compareTo(maxWait) > 0
+                        || (tokens.capacity() > 0 && estimatedTokens > tokens.capacity())) {
+                    return Mono.error(new AdmissionRejectedException(name, wait));
+                }
+                waiter = new Waiter(estimatedTokens, Sinks.empty());
+                queues.computeIfAbsent(client, key -> new ArrayDeque<>()).add(waiter);
+                queued++;
+                queuedTokens += estimatedTokens;
+                scheduleDrain();
+            }
+            return waiter.granted().asMono()
+                    .timeout(maxWait, Mono.defer(() -> withdraw(client, waiter)
+                            ? Mono.error(new AdmissionRejectedException(name, maxWait))
+                            : Mono.empty()), scheduler)
+                    .doOnCancel(() -> withdraw(client, waiter));
+        });
+    }
+
+    public synchronized int queued() {
+        return queued;
+    }
+
+    private boolean tryAcquire(long estimatedTokens) {
+        if (tokens.availablePermits() < estimatedTokens || requests.availablePermits() < 1) {
+            return false;
+        }
+        tokens.tryConsume(estimatedTokens);
+        requests.tryConsume(1);
+        return true;
+    }
+
+    private Duration estimatedWait(long estimatedTokens) {
+        Duration forTokens = tokens.timeUntil(queuedTokens + estimatedTokens);
+        Duration forRequests = requests.timeUntil(queued + 1L);
+        return forTokens.compareTo(forRequests) > 0 ? forTokens : forRequests;
+    }
+
+    private synchronized boolean withdraw(String client, Waiter waiter) {
+        Deque<Waiter> queue = queues.get(client);
+        if (queue == null || !queue.remove(waiter)) {
+            return false;
+        }
+        if (queue.isEmpty()) {
+            queues.remove(client);
+        }
+        queued--;
+        queuedTokens -= waiter.tokens();
+        return true;
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            drainTask = null;
+            while (!queues.isEmpty()) {
+                Map.Entry<String, Deque<Waiter>> next = queues.entrySet().iterator().next();
+                Deque<Waiter> queue = next.getValue();
+                if (!tryAcquire(queue.peek().tokens())) {
+                    break;
+                }
+                Waiter waiter = queue.poll();
+                queued--;
+                queuedTokens -= waiter.tokens();
+                granted.add(waiter);
+                // Re-inserting moves the client to the back of the rotation.
+                queues.remove(next.getKey());
+                if (!queue.isEmpty()) {
+                    queues.put(next.getKey(), queue);
+                }
+            }
+            if (!queues.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+        granted.forEach(waiter -> waiter.granted().tryEmitEmpty());
+    }
+
+    private void scheduleDrain() {
+        if (drainTask != null) {
+            return;
+        }
+        long head = queues.values().iterator().next().peek().tokens();
+        Duration wait = tokens.timeUntil(head);
+        Duration forRequest = requests.timeUntil(1);
+        long delay = Math.max(MIN_DRAIN_DELAY_MILLIS, Math.max(wait.toMillis(), forRequest.toMillis()));
+        drainTask = scheduler.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private record Waiter(long tokens, Sinks.Empty<Void> granted) {
+    }
+}
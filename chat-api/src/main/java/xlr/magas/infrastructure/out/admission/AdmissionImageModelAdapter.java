@@ -0,0 +1,29 @@
+package xlr.magas.infrastructure.out.admission;
+
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.ports.out.ImageModelPort;
+
+/**
+ * Image quotas are counted in images per minute, so each call costs one request permit and no tokens.
+ */
+public class AdmissionImageModelAdapter implements ImageModelPort {
+
+    private final ImageModelPort delegate;
+    private final AdmissionController admissionController;
+
+    public AdmissionImageModelAdapter(ImageModelPort delegate, AdmissionController admissionController) {
+        this.delegate = delegate;
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public String generateImage(String prompt) {
+        return generateImageAsync(prompt).block();
+    }
+
+    @Override
+    public Mono<String> generateImageAsync(String prompt) {
+        return admissionController.admit(0)
+                .then(Mono.defer(() -> delegate.generateImageAsync(prompt)));
+    }
+}
@@ -0,0 +1,43 @@
+package xlr.magas.infrastructure.out.cache;
+
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.ports.out.ImageModelPort;
+
+/**
+ * Tells the {@link CachingImageModelAdapter} generation it runs for when an upstream request is on
+ * the wire, so that a generation nobody waits for any more is cancelled only while it is still queued
+ * for admission or backing off between retries. Wraps the upstream adapter, inside admission and retries.
+ */
+public class AttemptReportingImageModelAdapter implements ImageModelPort {
+
+    static final String LISTENER_KEY = AttemptReportingImageModelAdapter.class.getName() + ".listener";
+
+    private final ImageModelPort delegate;
+
+    public AttemptReportingImageModelAdapter(ImageModelPort delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String generateImage(String prompt) {
+        return delegate.generateImage(prompt);
+    }
+
+    @Override
+    public Mono<String> generateImageAsync(String prompt) {
+        return Mono.deferContextual(context -> context.<Listener>getOrEmpty(LISTENER_KEY)
+                .map(listener -> delegate.generateImageAsync(prompt)
+                        .doOnSubscribe(subscription -> listener.attemptStarted())
+                        .doOnSuccess(url -> listener.attemptEnded(true))
+                        .doOnError(error -> listener.attemptEnded(false))
+                        .doOnCancel(() -> listener.attemptEnded(false)))
+                .orElseGet(() -> delegate.generateImageAsync(prompt)));
+    }
+
+    interface Listener {
+
+        void attemptStarted();
+
+        void attemptEnded(boolean succeeded);
+    }
+}
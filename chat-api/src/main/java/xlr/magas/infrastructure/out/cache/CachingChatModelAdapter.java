@@ -0,0 +1,94 @@
+package xlr.magas.infrastructure.out.cache;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Replays completed answers for repeated prompts with their original chunking. Exact matches on
+ * (system, user, completion cap) come first; when an {@link EmbeddingModel} is configured, near-duplicate
+ * user messages under the same system message and cap are served from the closest cached answer.
+ * Only streams that complete normally are stored.
+ */
+public class CachingChatModelAdapter implements ChatModelPort {
+
+    private final ChatModelPort delegate;
+    private final OffHeapTokenStore store;
+    private final EmbeddingModel embeddingModel;
+    private final SemanticIndex semanticIndex;
+    private final Duration replayDelay;
+
+    public CachingChatModelAdapter(ChatModelPort delegate, OffHeapTokenStore store, Duration replayDelay) {
+        this(delegate, store, replayDelay, null, null);
+    }
+
+    public CachingChatModelAdapter(ChatModelPort delegate, OffHeapTokenStore store, Duration replayDelay,
+                                   EmbeddingModel embeddingModel, SemanticIndex semanticIndex) {
+        this.delegate = delegate;
+        this.store = store;
+        this.replayDelay = replayDelay;
+        this.embeddingModel = embeddingModel;
+        this.semanticIndex = semanticIndex;
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user) {
+        return cached(system, user, "", () -> delegate.askChatModel(system, user));
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user, int maxTokens) {
+        return cached(system, user, String.valueOf(maxTokens), () -> delegate.askChatModel(system, user, maxTokens));
+    }
+
+    private Flux<String> cached(String system, String user, String cap, Supplier<Flux<String>> call) {
+        String key = cacheKey(system, user, cap);
+        return Flux.defer(() -> {
+            Optional<List<String>> exact = store.get(key);
+            if (exact.isPresent()) {
+                return replay(exact.get());
+            }
+            if (semanticIndex == null) {
+                return record(key, call.get(), null);
+            }
+            String scope = FileImageStore.sha256((system + '\u0000' + cap).getBytes(StandardCharsets.UTF_8));
+            return Mono.fromCallable(() -> embeddingModel.embed(user))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(embedding -> semanticIndex.nearest(scope, embedding, store::contains)
+                            .flatMap(store::get)
+                            .map(this::replay)
+                            .orElseGet(() -> record(key, call.get(),
+                                    () -> semanticIndex.add(scope, embedding, key))));
+        });
+    }
+
+    static String cacheKey(String system, String user, String cap) {
+        return FileImageStore.sha256((system + '\u0000' + user + '\u0000' + cap).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Flux<String> replay(List<String> tokens) {
+        Flux<String> replay = Flux.fromIterable(tokens);
+        return replayDelay.isZero() ? replay : replay.delayElements(replayDelay);
+    }
+
+    private Flux<String> record(String key, Flux<String> upstream, Runnable onStored) {
+        List<String> tokens = new ArrayList<>();
+        return upstream
+                .doOnNext(tokens::add)
+                .doOnComplete(() -> {
+                    store.put(key, tokens);
+                    if (onStored != null) {
+                        onStored.run();
+                    }
+                });
+    }
+}
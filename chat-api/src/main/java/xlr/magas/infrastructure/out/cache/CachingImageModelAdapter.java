@@ -0,0 +1,165 @@
+package xlr.magas.infrastructure.out.cache;
+
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+import xlr.magas.domain.ports.out.ImageModelPort;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Serves repeated prompts from {@link FileImageStore} instead of paying for a new generation.
+ * A miss downloads the generated image once, so the returned URL stays valid after the
+ * upstream URL expires. Concurrent callers share one generation. When every caller has cancelled,
+ * a generation still queued for admission or backing off between retries is cancelled too; one whose
+ * request is already upstream is paid for, so it runs to completion and fills the cache. Knowing which
+ * is which takes an {@link AttemptReportingImageModelAdapter} around the upstream adapter.
+ */
+public class CachingImageModelAdapter implements ImageModelPort {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ImageModelPort delegate;
+    private final FileImageStore store;
+    private final WebClient webClient;
+    private final String model;
+    private final String size;
+    private final String publicPath;
+    private final Map<String, Generation> inFlight = new ConcurrentHashMap<>();
+
+    public CachingImageModelAdapter(ImageModelPort delegate, FileImageStore store, WebClient webClient,
+                                    String model, String size, String publicPath) {
+        this.delegate = delegate;
+        this.store = store;
+        this.webClient = webClient;
+        this.model = model;
+        this.size = size;
+        this.publicPath = publicPath;
+    }
+
+    @Override
+    public String generateImage(String prompt) {
+        return generateImageAsync(prompt).block();
+    }
+
+    @Override
+    public Mono<String> generateImageAsync(String prompt) {
+        String key = cacheKey(prompt);
+        return Mono.deferContextual(context -> store.lookup(key)
+                .map(hash -> Mono.just(localUrl(hash)))
+                .orElseGet(() -> {
+                    Generation created = new Generation(key);
+                    Generation shared = inFlight.computeIfAbsent(key, k -> created);
+                    if (!shared.join()) {
+                        // Abandoned between lookup and join; start over with a fresh generation.
+                        return generateImageAsync(prompt);
+                    }
+                    if (shared == created) {
+                        generateAndStore(prompt, created, context);
+                    }
+                    return shared.result.asMono().doOnCancel(shared::leave);
+                }));
+    }
+
+    String cacheKey(String prompt) {
+        String normalized = WHITESPACE.matcher(prompt.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return FileImageStore.sha256((model + '|' + size + '|' + normalized).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Subscribed on its own rather than by the callers, with the first caller's context (its admission identity).
+    private void generateAndStore(String prompt, Generation generation, ContextView context) {
+        generation.upstream = delegate.generateImageAsync(prompt)
+                .flatMap(this::download)
+                .publishOn(Schedulers.boundedElastic())
+                .map(bytes -> localUrl(store.put(generation.key, bytes)))
+                .doFinally(signal -> inFlight.remove(generation.key, generation))
+                .contextWrite(context)
+                .contextWrite(ctx -> ctx.put(AttemptReportingImageModelAdapter.LISTENER_KEY, generation))
+                .subscribe(generation.result::tryEmitValue, generation.result::tryEmitError,
+                        generation.result::tryEmitEmpty);
+    }
+
+    private Mono<byte[]> download(String url) {
+        // URI.create keeps the signed query string of the upstream URL exactly as issued
+        return webClient.get()
+                .uri(URI.create(url))
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty image download from " + url)));
+    }
+
+    private String localUrl(String hash) {
+        return publicPath + "/" + hash;
+    }
+
+    private final class Generation implements AttemptReportingImageModelAdapter.Listener {
+
+        private final String key;
+        private final Sinks.One<String> result = Sinks.one();
+        private volatile Disposable upstream;
+        private int waiters;
+        private boolean sent;
+        private boolean answered;
+        private boolean abandoned;
+
+        Generation(String key) {
+            this.key = key;
+        }
+
+        synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        void leave() {
+            synchronized (this) {
+                waiters--;
+                if (!abandonIfUnwanted()) {
+                    return;
+                }
+            }
+            cancel();
+        }
+
+        @Override
+        public synchronized void attemptStarted() {
+            sent = true;
+        }
+
+        @Override
+        public void attemptEnded(boolean succeeded) {
+            synchronized (this) {
+                sent = false;
+                answered = succeeded;
+                if (!abandonIfUnwanted()) {
+                    return;
+                }
+            }
+            cancel();
+        }
+
+        private boolean abandonIfUnwanted() {
+            abandoned = waiters == 0 && !sent && !answered;
+            return abandoned;
+        }
+
+        private void cancel() {
+            inFlight.remove(key, this);
+            Disposable subscription = upstream;
+            if (subscription != null) {
+                subscription.dispose();
+            }
+        }
+    }
+}
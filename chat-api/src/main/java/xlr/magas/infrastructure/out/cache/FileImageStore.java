@@ -0,0 +1,170 @@
+package xlr.magas.infrastructure.out.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed image storage: blobs are named by the SHA-256 of their bytes and cache keys
+ * only hold a reference to a blob, so identical images are stored once. Blobs are evicted in
+ * least-recently-used order once the store grows past {@code picture.cache.max-size}.
+ */
+@Component
+public class FileImageStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String BLOB_SUFFIX = ".png";
+
+    private final Path blobDirectory;
+    private final Path refDirectory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> blobs = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> refs = new ConcurrentHashMap<>();
+    private long totalBytes;
+
+    public FileImageStore(@Value("${picture.cache.directory:${java.io.tmpdir}/chat-api/images}") Path directory,
+                          @Value("${picture.cache.max-size:1GB}") DataSize maxSize) {
+        this.blobDirectory = directory.resolve("blobs");
+        this.refDirectory = directory.resolve("refs");
+        this.maxBytes = maxSize.toBytes();
+        load();
+    }
+
+    public Optional<String> lookup(String key) {
+        String hash = refs.get(key);
+        if (hash == null) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            if (blobs.get(hash) != null) {
+                return Optional.of(hash);
+            }
+        }
+        // The blob was evicted, the reference is stale
+        refs.remove(key, hash);
+        deleteQuietly(refDirectory.resolve(key));
+        return Optional.empty();
+    }
+
+    public Optional<Path> find(String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            return blobs.get(hash) == null ? Optional.empty() : Optional.of(blobPath(hash));
+        }
+    }
+
+    public String put(String key, byte[] bytes) {
+        String hash = sha256(bytes);
+        try {
+            Path blob = blobPath(hash);
+            if (!Files.exists(blob)) {
+                writeAtomically(blob, bytes);
+            }
+            writeAtomically(refDirectory.resolve(key), hash.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image " + hash, e);
+        }
+        synchronized (this) {
+            if (blobs.put(hash, (long) bytes.length) == null) {
+                totalBytes += bytes.length;
+            }
+            evict(hash);
+        }
+        refs.put(key, hash);
+        return hash;
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = blobs.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            deleteQuietly(blobPath(entry.getKey()));
+        }
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(blobDirectory);
+            Files.createDirectories(refDirectory);
+            List<Path> existing;
+            try (Stream<Path> files = Files.list(blobDirectory)) {
+                existing = files.filter(path -> path.getFileName().toString().endsWith(BLOB_SUFFIX))
+                        .sorted(Comparator.comparing(FileImageStore::lastModified))
+                        .toList();
+            }
+            for (Path blob : existing) {
+                String name = blob.getFileName().toString();
+                long size = Files.size(blob);
+                blobs.put(name.substring(0, name.length() - BLOB_SUFFIX.length()), size);
+                totalBytes += size;
+            }
+            try (Stream<Path> files = Files.list(refDirectory)) {
+                for (Path ref : files.toList()) {
+                    refs.put(ref.getFileName().toString(), Files.readString(ref, StandardCharsets.US_ASCII).trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open image store at " + blobDirectory.getParent(), e);
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return blobDirectory.resolve(hash + BLOB_SUFFIX);
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), "tmp-", ".part");
+        Files.write(tmp, bytes);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // a leftover file is re-indexed or overwritten on the next write
+        }
+    }
+}
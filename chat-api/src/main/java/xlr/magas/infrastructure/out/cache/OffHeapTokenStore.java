@@ -0,0 +1,114 @@
+package xlr.magas.infrastructure.out.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps completed token sequences in direct (off-heap) buffers so cached answers don't add to
+ * GC pressure. Entries expire after a TTL and are evicted in least-recently-used order once the
+ * encoded size passes the configured budget.
+ */
+public class OffHeapTokenStore {
+
+    private final long maxBytes;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public OffHeapTokenStore(long maxBytes, Duration ttl, Clock clock) {
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public synchronized Optional<List<String>> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(decode(entry.buffer()));
+    }
+
+    public synchronized boolean contains(String key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.expiresAt() > clock.millis();
+    }
+
+    public synchronized void put(String key, List<String> tokens) {
+        ByteBuffer buffer = encode(tokens);
+        if (buffer.capacity() > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(buffer, clock.millis() + ttl.toMillis()));
+        totalBytes += buffer.capacity();
+        evict();
+    }
+
+    public synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    private void evict() {
+        long now = clock.millis();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            if (totalBytes <= maxBytes && eldest.getValue().expiresAt() > now) {
+                break;
+            }
+            iterator.remove();
+            totalBytes -= eldest.getValue().buffer().capacity();
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.buffer().capacity();
+        }
+    }
+
+    private static ByteBuffer encode(List<String> tokens) {
+        List<byte[]> encoded = new ArrayList<>(tokens.size());
+        int size = Integer.BYTES;
+        for (String token : tokens) {
+            byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            size += Integer.BYTES + bytes.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        buffer.putInt(encoded.size());
+        for (byte[] bytes : encoded) {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        return buffer.flip();
+    }
+
+    private static List<String> decode(ByteBuffer stored) {
+        ByteBuffer buffer = stored.duplicate();
+        int count = buffer.getInt();
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            tokens.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return tokens;
+    }
+
+    private record Entry(ByteBuffer buffer, long expiresAt) {}
+}
@@ -0,0 +1,80 @@
+package xlr.magas.infrastructure.out.cache;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Near-duplicate lookup for the chat response cache: maps prompt embeddings to exact cache keys and
+ * answers with the closest key above a cosine-similarity threshold. Bounded to the most recent entries.
+ */
+public class SemanticIndex {
+
+    private final int maxEntries;
+    private final double threshold;
+    private final Deque<Vector> vectors = new ArrayDeque<>();
+
+    public SemanticIndex(int maxEntries, double threshold) {
+        this.maxEntries = maxEntries;
+        this.threshold = threshold;
+    }
+
+    public synchronized void add(String scope, List<Double> embedding, String key) {
+        vectors.addFirst(new Vector(scope, normalize(embedding), key));
+        while (vectors.size() > maxEntries) {
+            vectors.removeLast();
+        }
+    }
+
+    public synchronized Optional<String> nearest(String scope, List<Double> embedding, Predicate<String> alive) {
+        double[] query = normalize(embedding);
+        String best = null;
+        double bestScore = threshold;
+        Iterator<Vector> iterator = vectors.iterator();
+        while (iterator.hasNext()) {
+            Vector candidate = iterator.next();
+            if (!alive.test(candidate.key())) {
+                iterator.remove();
+                continue;
+            }
+            if (!candidate.scope().equals(scope) || candidate.values().length != query.length) {
+                continue;
+            }
+            double score = dot(candidate.values(), query);
+            if (score >= bestScore) {
+                bestScore = score;
+                best = candidate.key();
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static double[] normalize(List<Double> embedding) {
+        double[] values = new double[embedding.size()];
+        double norm = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = embedding.get(i);
+            norm += values[i] * values[i];
+        }
+        norm = Math.sqrt(norm);
+        if (norm > 0) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] /= norm;
+            }
+        }
+        return values;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private record Vector(String scope, double[] values, String key) {}
+}
@@ -0,0 +1,267 @@
+package xlr.magas.infrastructure.out.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+import xlr.magas.domain.model.Conversation;
+import xlr.magas.domain.model.Turn;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.domain.ports.out.ConversationMemoryPort;
+import xlr.magas.infrastructure.out.cache.FileImageStore;
+import xlr.magas.infrastructure.out.tokens.TokenCounter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps each conversation in its own file under {@code chat.memory.directory}: a rolling summary and
+ * the turns since. Conversations are started here under a random UUID, so an id cannot be guessed and
+ * an id this memory never handed out recalls nothing. Recall returns the newest turns that fit in {@code chat.memory.window-tokens}, so
+ * the prompt stops growing with the conversation. Once the stored turns overflow the window, the
+ * oldest are folded into the summary by a background call to {@code chat.memory.summary-model}, capped at
+ * {@code chat.memory.summary-max-tokens}; until it lands, recall just leaves them out. A conversation
+ * untouched for {@code chat.memory.ttl} is forgotten; expired files are swept at most once an hour.
+ */
+@Component
+public class FileConversationMemory implements ConversationMemoryPort {
+
+    private static final Logger log = LoggerFactory.getLogger(FileConversationMemory.class);
+
+    static final String SUMMARY_SYSTEM_MESSAGE = "You keep the running summary of a conversation. Merge the "
+            + "previous summary and the new turns into one concise summary that keeps names, facts, decisions and "
+            + "open threads. Reply with the summary only.";
+    private static final int LOCK_STRIPES = 64;
+    private static final Duration SWEEP_INTERVAL = Duration.ofHours(1);
+
+    private final Path directory;
+    private final ChatModelPort chatModelPort;
+    private final TokenCounter tokenCounter;
+    private final ObjectMapper objectMapper;
+    private final int windowTokens;
+    private final int summaryMaxTokens;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Scheduler scheduler;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Set<String> summarizing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    @Autowired
+    public FileConversationMemory(@Value("${chat.memory.directory:${java.io.tmpdir}/chat-api/conversations}") Path directory,
+                                  @Qualifier("summaryChatModelPort") ChatModelPort chatModelPort,
+                                  TokenCounter tokenCounter,
+                                  ObjectMapper objectMapper,
+                                  @Value("${chat.memory.window-tokens:1500}") int windowTokens,
+                                  @Value("${chat.memory.summary-max-tokens:300}") int summaryMaxTokens,
+                                  @Value("${chat.memory.ttl:7d}") Duration ttl) {
+        this(directory, chatModelPort, tokenCounter, objectMapper, windowTokens, summaryMaxTokens, ttl,
+                Clock.systemUTC(), Schedulers.boundedElastic());
+    }
+
+    FileConversationMemory(Path directory, ChatModelPort chatModelPort, TokenCounter tokenCounter,
+                           ObjectMapper objectMapper, int windowTokens, int summaryMaxTokens, Duration ttl,
+                           Clock clock, Scheduler scheduler) {
+        this.directory = directory;
+        this.chatModelPort = chatModelPort;
+        this.tokenCounter = tokenCounter;
+        this.objectMapper = objectMapper;
+        this.windowTokens = windowTokens;
+        this.summaryMaxTokens = summaryMaxTokens;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        Arrays.setAll(locks, index -> new Object());
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open conversation memory at " + directory, e);
+        }
+    }
+
+    @Override
+    public Mono<String> start() {
+        return Mono.fromCallable(() -> {
+                    sweepIfDue();
+                    Conversation conversation = Conversation.empty(UUID.randomUUID().toString());
+                    write(conversation);
+                    return conversation.id();
+                })
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Conversation> recall(String conversationId) {
+        return Mono.fromCallable(() -> find(conversationId).map(this::window).orElse(null)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> remember(String conversationId, Turn turn) {
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+                    sweepIfDue();
+                    synchronized (lock(conversationId)) {
+                        Conversation conversation = read(conversationId);
+                        List<Turn> turns = new ArrayList<>(conversation.turns());
+                        turns.add(turn);
+                        Conversation updated = new Conversation(conversationId, conversation.summary(), turns);
+                        write(updated);
+                        return updated;
+                    }
+                })
+                .subscribeOn(scheduler)
+                .doOnNext(conversation -> summarizeIfFull(conversation, context))
+                .then());
+    }
+
+    private Conversation window(Conversation conversation) {
+        List<Turn> turns = conversation.turns();
+        int budget = windowTokens;
+        int first = turns.size();
+        while (first > 0 && tokens(turns.get(first - 1)) <= budget) {
+            budget -= tokens(turns.get(--first));
+        }
+        return new Conversation(conversation.id(), conversation.summary(), List.copyOf(turns.subList(first, turns.size())));
+    }
+
+    // The summary is charged to the caller: their context carries the admission identity.
+    private void summarizeIfFull(Conversation conversation, ContextView context) {
+        List<Turn> turns = conversation.turns();
+        int remaining = turns.stream().mapToInt(this::tokens).sum();
+        if (remaining <= windowTokens || !summarizing.add(conversation.id())) {
+            return;
+        }
+        // Fold until what is left fills half the window, so the summary is not redone on every turn.
+        int folded = 0;
+        while (folded < turns.size() && remaining > windowTokens / 2) {
+            remaining -= tokens(turns.get(folded++));
+        }
+        int count = folded;
+        chatModelPort.askChatModel(SUMMARY_SYSTEM_MESSAGE, summaryRequest(conversation.summary(), turns.subList(0, count)),
+                        summaryMaxTokens)
+                .collect(Collectors.joining())
+                .publishOn(scheduler)
+                .filter(summary -> !summary.isBlank())
+                .doOnNext(summary -> fold(conversation.id(), summary.strip(), count))
+                .doFinally(signal -> summarizing.remove(conversation.id()))
+                .contextWrite(context)
+                // A failed summary is retried after the next turn; recall never depends on it.
+                .subscribe(summary -> { }, error -> log.debug("Failed to summarize conversation {}", conversation.id(), error));
+    }
+
+    private void fold(String conversationId, String summary, int count) {
+        synchronized (lock(conversationId)) {
+            // Turns are only ever appended in the meantime, so the folded ones are still the oldest.
+            List<Turn> turns = read(conversationId).turns();
+            write(new Conversation(conversationId, summary, List.copyOf(turns.subList(Math.min(count, turns.size()), turns.size()))));
+        }
+    }
+
+    private static String summaryRequest(String summary, List<Turn> turns) {
+        StringBuilder request = new StringBuilder("Previous summary:\n")
+                .append(summary == null ? "(none)" : summary)
+                .append("\n\nNew turns:");
+        turns.forEach(turn -> request.append('\n').append(transcript(turn)));
+        return request.toString();
+    }
+
+    private int tokens(Turn turn) {
+        return tokenCounter.count(transcript(turn));
+    }
+
+    private static String transcript(Turn turn) {
+        return "User: " + turn.question() + "\nAssistant: " + turn.answer();
+    }
+
+    private void sweepIfDue() {
+        long now = clock.millis();
+        long due = nextSweep.get();
+        if (now < due || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL.toMillis())) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".json") && isExpired(file))
+                    .forEach(FileConversationMemory::deleteQuietly);
+        } catch (IOException e) {
+            log.debug("Failed to sweep expired conversations in {}", directory, e);
+        }
+    }
+
+    private boolean isExpired(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis() < clock.millis() - ttl.toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Swept again next time.
+        }
+    }
+
+    private Conversation read(String conversationId) {
+        return find(conversationId).orElseGet(() -> Conversation.empty(conversationId));
+    }
+
+    private Optional<Conversation> find(String conversationId) {
+        Path file = file(conversationId);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        if (isExpired(file)) {
+            deleteQuietly(file);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), Conversation.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read conversation " + conversationId, e);
+        }
+    }
+
+    private void write(Conversation conversation) {
+        try {
+            Path target = file(conversation.id());
+            Path tmp = Files.createTempFile(directory, "tmp-", ".part");
+            Files.write(tmp, objectMapper.writeValueAsBytes(conversation));
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store conversation " + conversation.id(), e);
+        }
+    }
+
+    // Ids come from clients, so they are hashed rather than used as file names.
+    private Path file(String conversationId) {
+        return directory.resolve(FileImageStore.sha256(conversationId.getBytes(StandardCharsets.UTF_8)) + ".json");
+    }
+
+    private Object lock(String conversationId) {
+        return locks[Math.floorMod(conversationId.hashCode(), LOCK_STRIPES)];
+    }
+}
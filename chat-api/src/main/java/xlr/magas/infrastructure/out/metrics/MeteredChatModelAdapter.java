@@ -0,0 +1,29 @@
+package xlr.magas.infrastructure.out.metrics;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+/**
+ * Measures every chat stream that passes through with a {@link StreamMeter}. Placed directly
+ * over the provider, each retry or hedged attempt is measured on its own.
+ */
+public class MeteredChatModelAdapter implements ChatModelPort {
+
+    private final ChatModelPort delegate;
+    private final StreamMeter meter;
+
+    public MeteredChatModelAdapter(ChatModelPort delegate, StreamMeter meter) {
+        this.delegate = delegate;
+        this.meter = meter;
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user) {
+        return meter.measure(Flux.defer(() -> delegate.askChatModel(system, user)));
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user, int maxTokens) {
+        return meter.measure(Flux.defer(() -> delegate.askChatModel(system, user, maxTokens)));
+    }
+}
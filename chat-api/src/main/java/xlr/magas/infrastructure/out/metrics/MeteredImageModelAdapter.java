@@ -0,0 +1,67 @@
+package xlr.magas.infrastructure.out.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import xlr.magas.domain.ports.out.ImageModelPort;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records image generation latency ({@code <name>.latency}, tagged with its {@code outcome}),
+ * failures by {@code cause} ({@code <name>.errors}) and generations in flight ({@code <name>.active}).
+ */
+public class MeteredImageModelAdapter implements ImageModelPort {
+
+    private final ImageModelPort delegate;
+    private final MeterRegistry registry;
+    private final String name;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public MeteredImageModelAdapter(ImageModelPort delegate, MeterRegistry registry, String name) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.name = name;
+        registry.gauge(name + ".active", active);
+    }
+
+    @Override
+    public String generateImage(String prompt) {
+        long start = registry.config().clock().monotonicTime();
+        active.incrementAndGet();
+        SignalType outcome = SignalType.ON_ERROR;
+        try {
+            String url = delegate.generateImage(prompt);
+            outcome = SignalType.ON_COMPLETE;
+            return url;
+        } catch (RuntimeException e) {
+            StreamMeter.errors(registry, name, e).increment();
+            throw e;
+        } finally {
+            finished(start, outcome);
+        }
+    }
+
+    @Override
+    public Mono<String> generateImageAsync(String prompt) {
+        return Mono.defer(() -> {
+            long start = registry.config().clock().monotonicTime();
+            active.incrementAndGet();
+            return delegate.generateImageAsync(prompt)
+                    .doOnError(error -> StreamMeter.errors(registry, name, error).increment())
+                    .doFinally(signal -> finished(start, signal));
+        });
+    }
+
+    private void finished(long start, SignalType signal) {
+        active.decrementAndGet();
+        Timer.builder(name + ".latency")
+                .description("Image generation latency")
+                .tag("outcome", StreamMeter.outcome(signal))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,131 @@
+package xlr.magas.infrastructure.out.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.infrastructure.out.resilience.CircuitOpenException;
+import xlr.magas.infrastructure.out.routing.NoBackendAvailableException;
+import xlr.magas.infrastructure.out.tokens.PromptTooLargeException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how a token stream behaves, under a common name prefix:
+ * <ul>
+ *     <li>{@code .first.token}: time from subscription to the first element.</li>
+ *     <li>{@code .token.gap}: time between consecutive elements.</li>
+ *     <li>{@code .tokens}: elements per stream.</li>
+ *     <li>{@code .active}: streams currently open.</li>
+ *     <li>{@code .duration}: the whole stream, tagged with its {@code outcome}.</li>
+ *     <li>{@code .errors}: failures, tagged with their {@code cause}.</li>
+ * </ul>
+ * The timers publish histograms, so percentiles can be aggregated across instances.
+ */
+public class StreamMeter {
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final Clock clock;
+    private final Timer firstToken;
+    private final Timer tokenGap;
+    private final DistributionSummary tokens;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public StreamMeter(MeterRegistry registry, String name) {
+        this.registry = registry;
+        this.name = name;
+        this.clock = registry.config().clock();
+        this.firstToken = Timer.builder(name + ".first.token")
+                .description("Time to first token")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.tokenGap = Timer.builder(name + ".token.gap")
+                .description("Time between consecutive tokens")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.tokens = DistributionSummary.builder(name + ".tokens")
+                .description("Tokens per stream")
+                .baseUnit("tokens")
+                .publishPercentileHistogram()
+                .register(registry);
+        registry.gauge(name + ".active", active);
+    }
+
+    public <T> Flux<T> measure(Flux<T> stream) {
+        return Flux.defer(() -> {
+            long start = clock.monotonicTime();
+            long[] last = {start};
+            long[] count = {0};
+            active.incrementAndGet();
+            return stream
+                    .doOnNext(item -> {
+                        long now = clock.monotonicTime();
+                        (count[0]++ == 0 ? firstToken : tokenGap).record(now - last[0], TimeUnit.NANOSECONDS);
+                        last[0] = now;
+                    })
+                    .doOnError(error -> errors(registry, name, error).increment())
+                    .doFinally(signal -> {
+                        active.decrementAndGet();
+                        tokens.record(count[0]);
+                        Timer.builder(name + ".duration")
+                                .tag("outcome", outcome(signal))
+                                .publishPercentileHistogram()
+                                .register(registry)
+                                .record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+                    });
+        });
+    }
+
+    static Counter errors(MeterRegistry registry, String name, Throwable error) {
+        return registry.counter(name + ".errors", "cause", cause(error));
+    }
+
+    static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "completed";
+            case ON_ERROR -> "failed";
+            default -> "cancelled";
+        };
+    }
+
+    /**
+     * A low-cardinality name for why a model call failed, for tagging error and retry counters.
+     */
+    public static String cause(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AdmissionRejectedException) {
+                return "admission_rejected";
+            }
+            if (cause instanceof CircuitOpenException) {
+                return "circuit_open";
+            }
+            if (cause instanceof NoBackendAvailableException) {
+                return "no_backend";
+            }
+            if (cause instanceof PromptTooLargeException) {
+                return "prompt_too_large";
+            }
+            if (cause instanceof WebClientResponseException response) {
+                int status = response.getStatusCode().value();
+                return status == 429 ? "rate_limited" : status >= 500 ? "server_error" : "client_error";
+            }
+            if (cause instanceof TimeoutException) {
+                return "timeout";
+            }
+            if (cause instanceof WebClientRequestException || cause instanceof IOException) {
+                return "connection";
+            }
+        }
+        return "other";
+    }
+}
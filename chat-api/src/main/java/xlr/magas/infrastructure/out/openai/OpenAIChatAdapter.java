@@ -1,6 +1,8 @@
 package xlr.magas.infrastructure.out.openai;
 
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import xlr.magas.domain.ports.out.ChatModelPort;
@@ -9,22 +11,47 @@ import xlr.magas.domain.ports.out.ChatModelPort;
 public class OpenAIChatAdapter implements ChatModelPort {
 
     private final ChatClient chatClient;
+    private final String model;
 
+    @Autowired
     public OpenAIChatAdapter(ChatClient.Builder builder) {
+        this(builder, null);
+    }
+
+    /**
+     * Asks {@code model} instead of the configured {@code spring.ai.openai.chat.options.model}, when not null.
+     */
+    public OpenAIChatAdapter(ChatClient.Builder builder, String model) {
         this.chatClient = builder.build();
+        this.model = model;
     }
 
     @Override
     public Flux<String> askChatModel(String system, String user) {
+        var request = chatClient.prompt()
+                .system(system)
+                .user(user);
+        if (model != null) {
+            request = request.options(OpenAiChatOptions.builder().withModel(model).build());
+        }
+        // Raw tokens only: SSE framing is the web layer's job (see AnswerController)
+        return request.stream()
+                .content()
+                .filter(chunk -> !chunk.isEmpty());
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user, int maxTokens) {
+        OpenAiChatOptions.Builder options = OpenAiChatOptions.builder().withMaxTokens(maxTokens);
+        if (model != null) {
+            options.withModel(model);
+        }
         return chatClient.prompt()
                 .system(system)
                 .user(user)
+                .options(options.build())
                 .stream()
                 .content()
-                .map(chunk -> {
-                    if (chunk == null) return "";
-                    return "data: " + chunk.replace("\n", "\ndata: ") + "\n\n";
-                })
-                .concatWith(Flux.just("data: [DONE]\n\n"));
+                .filter(chunk -> !chunk.isEmpty());
     }
 }
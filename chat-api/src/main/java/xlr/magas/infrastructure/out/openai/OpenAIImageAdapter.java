@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import xlr.magas.domain.ports.out.ImageModelPort;
 
 import java.util.Map;
@@ -11,38 +13,65 @@ import java.util.Map;
 @Component
 public class OpenAIImageAdapter implements ImageModelPort {
 
+    private static final String IMAGES_URL = "https://api.openai.com/v1/images/generations";
+
     private final RestTemplate restTemplate;
+    private final WebClient webClient;
     private final String apiKey;
+    private final String model;
+    private final String size;
 
-    public OpenAIImageAdapter(RestTemplate restTemplate, @Value("${spring.ai.openai.api-key}") String apiKey) {
+    public OpenAIImageAdapter(RestTemplate restTemplate, WebClient webClient,
+                              @Value("${spring.ai.openai.api-key}") String apiKey,
+                              @Value("${spring.ai.openai.image.options.model:dall-e-3}") String model,
+                              @Value("${picture.size:1024x1024}") String size) {
         this.restTemplate = restTemplate;
+        this.webClient = webClient;
         this.apiKey = apiKey;
+        this.model = model;
+        this.size = size;
     }
 
     @Override
     public String generateImage(String prompt) {
-        String url = "https://api.openai.com/v1/images/generations";
-
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setBearerAuth(apiKey);
 
-        Map<String, Object> body = Map.of(
-                "model", "dall-e-3",
-                "prompt", prompt,
-                "size", "1024x1024"
-        );
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody(prompt), headers);
 
         ResponseEntity<Map> response = restTemplate.exchange(
-                url,
+                IMAGES_URL,
                 HttpMethod.POST,
                 request,
                 Map.class
         );
 
-        Map<String, Object> responseBody = response.getBody();
+        return extractUrl(response.getBody());
+    }
+
+    @Override
+    public Mono<String> generateImageAsync(String prompt) {
+        return webClient.post()
+                .uri(IMAGES_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.setBearerAuth(apiKey))
+                .bodyValue(requestBody(prompt))
+                .retrieve()
+                .bodyToMono(Map.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty response from image API")))
+                .map(this::extractUrl);
+    }
+
+    private Map<String, Object> requestBody(String prompt) {
+        return Map.of(
+                "model", model,
+                "prompt", prompt,
+                "size", size
+        );
+    }
+
+    private String extractUrl(Map<String, Object> responseBody) {
         if (responseBody == null) {
             throw new IllegalStateException("Empty response from image API");
         }
@@ -0,0 +1,64 @@
+package xlr.magas.infrastructure.out.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} permits and refills {@code capacity} of
+ * them every {@code period}, continuously rather than in steps. A capacity of zero means unlimited.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+    private final double refillPerMilli;
+    private final Clock clock;
+    private double available;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, Duration period, Clock clock) {
+        this.capacity = capacity;
+        this.refillPerMilli = (double) capacity / period.toMillis();
+        this.clock = clock;
+        this.available = capacity;
+        this.lastRefill = clock.millis();
+    }
+
+    public synchronized boolean tryConsume(long permits) {
+        if (capacity == 0) {
+            return true;
+        }
+        refill();
+        if (available < permits) {
+            return false;
+        }
+        available -= permits;
+        return true;
+    }
+
+    public synchronized long availablePermits() {
+        if (capacity == 0) {
+            return Long.MAX_VALUE;
+        }
+        refill();
+        return (long) available;
+    }
+
+    public synchronized Duration timeUntil(long permits) {
+        if (capacity == 0) {
+            return Duration.ZERO;
+        }
+        refill();
+        double missing = permits - available;
+        return missing <= 0 ? Duration.ZERO : Duration.ofMillis((long) Math.ceil(missing / refillPerMilli));
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    private void refill() {
+        long now = clock.millis();
+        available = Math.min(capacity, available + (now - lastRefill) * refillPerMilli);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,115 @@
+package xlr.magas.infrastructure.out.resilience;
+
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Opens after {@code failureThreshold} consecutive transient failures and rejects calls for
+ * {@code openDuration}; then lets a single trial call through and closes again if it succeeds.
+ * A call succeeds as soon as its first element arrives, so long streams are not held to account
+ * for their whole duration. Errors that are not transient, such as a rejected request, and
+ * cancellations leave the state untouched.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final Predicate<Throwable> countsAsFailure;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Clock clock,
+                          Predicate<Throwable> countsAsFailure) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.countsAsFailure = countsAsFailure;
+    }
+
+    public <T> Flux<T> protect(Flux<T> call) {
+        return Flux.defer(() -> {
+            if (!tryAcquire()) {
+                return Flux.error(new CircuitOpenException(name));
+            }
+            AtomicBoolean settled = new AtomicBoolean();
+            return call
+                    .doOnNext(item -> {
+                        if (settled.compareAndSet(false, true)) {
+                            onSuccess();
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (settled.compareAndSet(false, true)) {
+                            onSuccess();
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (settled.compareAndSet(false, true)) {
+                            if (countsAsFailure.test(error)) {
+                                onFailure();
+                            } else {
+                                release();
+                            }
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (settled.compareAndSet(false, true)) {
+                            release();
+                        }
+                    });
+        });
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    private synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+            trialInFlight = false;
+        }
+    }
+
+    private synchronized void release() {
+        trialInFlight = false;
+    }
+}
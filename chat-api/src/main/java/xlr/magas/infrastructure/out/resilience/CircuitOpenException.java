@@ -0,0 +1,8 @@
+package xlr.magas.infrastructure.out.resilience;
+
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String name) {
+        super("Circuit breaker '" + name + "' is open; failing fast");
+    }
+}
@@ -0,0 +1,101 @@
+package xlr.magas.infrastructure.out.resilience;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounds how long a call may take to produce its first element. Each attempt must start emitting
+ * within {@code firstElementTimeout}. Transient failures are retried with jittered exponential
+ * backoff, but only until the first element has been forwarded and only while the overall
+ * {@code deadline} has not passed. With a non-zero {@code hedgeDelay}, a second attempt is started
+ * if the first has not emitted by then, and whichever emits first wins. Every attempt goes
+ * through the {@link CircuitBreaker}. {@code onRetry} is told the failure behind each retry.
+ */
+public class ResiliencePolicy {
+
+    private final Duration firstElementTimeout;
+    private final Duration deadline;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration hedgeDelay;
+    private final CircuitBreaker circuitBreaker;
+    private final Consumer<Throwable> onRetry;
+
+    public ResiliencePolicy(Duration firstElementTimeout, Duration deadline, int maxAttempts,
+                            Duration backoff, Duration hedgeDelay, CircuitBreaker circuitBreaker) {
+        this(firstElementTimeout, deadline, maxAttempts, backoff, hedgeDelay, circuitBreaker, error -> { });
+    }
+
+    public ResiliencePolicy(Duration firstElementTimeout, Duration deadline, int maxAttempts,
+                            Duration backoff, Duration hedgeDelay, CircuitBreaker circuitBreaker,
+                            Consumer<Throwable> onRetry) {
+        this.firstElementTimeout = firstElementTimeout;
+        this.deadline = deadline;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.hedgeDelay = hedgeDelay;
+        this.circuitBreaker = circuitBreaker;
+        this.onRetry = onRetry;
+    }
+
+    public <T> Flux<T> apply(Supplier<Flux<T>> call) {
+        Flux<T> attempt = circuitBreaker.protect(Flux.defer(call)
+                .timeout(Mono.delay(firstElementTimeout), item -> Mono.never()));
+        Flux<T> hedged = hedgeDelay.isZero()
+                ? attempt
+                : Flux.firstWithValue(attempt, Mono.delay(hedgeDelay).thenMany(attempt));
+
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return hedged
+                    .doOnNext(item -> started.set(true))
+                    .retryWhen(Retry.backoff(maxAttempts - 1, backoff)
+                            .jitter(0.5)
+                            .filter(error -> !started.get() && isTransient(error))
+                            .doBeforeRetry(signal -> onRetry.accept(signal.failure()))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .timeout(Mono.delay(deadline), item -> Mono.never());
+        });
+    }
+
+    public <T> Mono<T> apply(Mono<T> call) {
+        return apply(call::flux).next();
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException) {
+                return false;
+            }
+            if (cause instanceof WebClientResponseException response) {
+                return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof TimeoutException
+                    || cause instanceof WebClientRequestException
+                    || cause instanceof IOException) {
+                return true;
+            }
+        }
+        // Flux.firstWithValue reports every hedged attempt's failure as suppressed
+        for (Throwable suppressed : error.getSuppressed()) {
+            if (isTransient(suppressed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,25 @@
+package xlr.magas.infrastructure.out.resilience;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+public class ResilientChatModelAdapter implements ChatModelPort {
+
+    private final ChatModelPort delegate;
+    private final ResiliencePolicy policy;
+
+    public ResilientChatModelAdapter(ChatModelPort delegate, ResiliencePolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user) {
+        return policy.apply(() -> delegate.askChatModel(system, user));
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user, int maxTokens) {
+        return policy.apply(() -> delegate.askChatModel(system, user, maxTokens));
+    }
+}
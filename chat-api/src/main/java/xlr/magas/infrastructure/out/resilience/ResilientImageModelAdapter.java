@@ -0,0 +1,25 @@
+package xlr.magas.infrastructure.out.resilience;
+
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.ports.out.ImageModelPort;
+
+public class ResilientImageModelAdapter implements ImageModelPort {
+
+    private final ImageModelPort delegate;
+    private final ResiliencePolicy policy;
+
+    public ResilientImageModelAdapter(ImageModelPort delegate, ResiliencePolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+    }
+
+    @Override
+    public String generateImage(String prompt) {
+        return generateImageAsync(prompt).block();
+    }
+
+    @Override
+    public Mono<String> generateImageAsync(String prompt) {
+        return policy.apply(Mono.defer(() -> delegate.generateImageAsync(prompt)));
+    }
+}
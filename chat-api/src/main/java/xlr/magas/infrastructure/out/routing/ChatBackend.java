@@ -0,0 +1,88 @@
+package xlr.magas.infrastructure.out.routing;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.infrastructure.out.ratelimit.TokenBucket;
+import xlr.magas.infrastructure.out.resilience.ResiliencePolicy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * One routable chat endpoint with its live load figures: outstanding requests, an EWMA of
+ * time-to-first-token, its own requests-per-minute bucket and a cooldown after transient failures.
+ * An error the request itself caused, such as a 400, says nothing about the backend.
+ */
+public class ChatBackend {
+
+    static final double TTFT_SMOOTHING = 0.2;
+    static final double INITIAL_TTFT_MILLIS = 1000;
+
+    private final String name;
+    private final ChatModelPort port;
+    private final int weight;
+    private final TokenBucket requestsPerMinute;
+    private final Duration failureCooldown;
+    private final Clock clock;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile double ttftMillis = INITIAL_TTFT_MILLIS;
+    private volatile long coolingDownUntil;
+
+    public ChatBackend(String name, ChatModelPort port, int weight, int requestsPerMinute,
+                       Duration failureCooldown, Clock clock) {
+        this.name = name;
+        this.port = port;
+        this.weight = Math.max(1, weight);
+        this.requestsPerMinute = new TokenBucket(requestsPerMinute, Duration.ofMinutes(1), clock);
+        this.failureCooldown = failureCooldown;
+        this.clock = clock;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public double ttftMillis() {
+        return ttftMillis;
+    }
+
+    boolean isCoolingDown() {
+        return clock.millis() < coolingDownUntil;
+    }
+
+    boolean tryAcquire() {
+        return requestsPerMinute.tryConsume(1);
+    }
+
+    // Lower is better: expected wait grows with queued work and observed latency, shrinks with weight.
+    double score() {
+        return (outstanding.get() + 1) * ttftMillis / weight;
+    }
+
+    Flux<String> call(Function<ChatModelPort, Flux<String>> request) {
+        return Flux.defer(() -> {
+            long start = clock.millis();
+            AtomicBoolean started = new AtomicBoolean();
+            outstanding.incrementAndGet();
+            return request.apply(port)
+                    .doOnNext(token -> {
+                        if (started.compareAndSet(false, true)) {
+                            ttftMillis += TTFT_SMOOTHING * ((clock.millis() - start) - ttftMillis);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (!started.get() && ResiliencePolicy.isTransient(error)) {
+                            coolingDownUntil = clock.millis() + failureCooldown.toMillis();
+                        }
+                    })
+                    .doFinally(signal -> outstanding.decrementAndGet());
+        });
+    }
+}
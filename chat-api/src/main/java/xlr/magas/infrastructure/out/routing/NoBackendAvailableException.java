@@ -0,0 +1,8 @@
+package xlr.magas.infrastructure.out.routing;
+
+public class NoBackendAvailableException extends RuntimeException {
+
+    public NoBackendAvailableException() {
+        super("No chat backend is available: all are rate limited or cooling down after failures");
+    }
+}
@@ -0,0 +1,71 @@
+package xlr.magas.infrastructure.out.routing;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.infrastructure.out.resilience.ResiliencePolicy;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Spreads chat calls over several backends by weighted least outstanding requests, scaled by each
+ * backend's observed time-to-first-token. Backends over their requests-per-minute budget or cooling
+ * down after a failure are skipped. A call that fails transiently before its first token fails over
+ * to the next best backend; other errors, and any error once tokens have been forwarded, surface
+ * to the caller.
+ */
+public class RoutingChatModelAdapter implements ChatModelPort {
+
+    private final List<ChatBackend> backends;
+
+    public RoutingChatModelAdapter(List<ChatBackend> backends) {
+        this.backends = List.copyOf(backends);
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user) {
+        return route(port -> port.askChatModel(system, user));
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user, int maxTokens) {
+        return route(port -> port.askChatModel(system, user, maxTokens));
+    }
+
+    public List<ChatBackend> backends() {
+        return backends;
+    }
+
+    private Flux<String> route(Function<ChatModelPort, Flux<String>> request) {
+        return Flux.defer(() -> attempt(request, new HashSet<>(), null));
+    }
+
+    private Flux<String> attempt(Function<ChatModelPort, Flux<String>> request, Set<ChatBackend> tried, Throwable lastError) {
+        ChatBackend backend = select(tried);
+        if (backend == null) {
+            return Flux.error(lastError != null ? lastError : new NoBackendAvailableException());
+        }
+        tried.add(backend);
+        AtomicBoolean started = new AtomicBoolean();
+        return backend.call(request)
+                .doOnNext(token -> started.set(true))
+                .onErrorResume(error -> !started.get() && ResiliencePolicy.isTransient(error), error -> attempt(request, tried, error));
+    }
+
+    private ChatBackend select(Set<ChatBackend> tried) {
+        List<ChatBackend> candidates = backends.stream()
+                .filter(backend -> !tried.contains(backend) && !backend.isCoolingDown())
+                .sorted(Comparator.comparingDouble(ChatBackend::score))
+                .toList();
+        for (ChatBackend candidate : candidates) {
+            if (candidate.tryAcquire()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,256 @@
+package xlr.magas.infrastructure.out.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.StorySummary;
+import xlr.magas.domain.ports.out.StoryStorePort;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only story storage. Each story is appended to the current segment file as one record:
+ * summary length, body length and CRC-32, then the summary and the full story in
+ * {@link StoryCodec}'s binary encoding. Records written as JSON by earlier versions are still read. Segments roll over
+ * at {@code story.store.segment-size} and are never rewritten; once the segments exceed
+ * {@code story.store.max-size}, the oldest are deleted whole, with their stories. An in-memory index maps ids to the
+ * offset of their body and topics to their summaries, so a lookup costs one positional read.
+ * The index is rebuilt on startup from the summaries alone; a record torn by a crash can only be
+ * at the end of the last segment, which is checked and truncated.
+ */
+@Component
+public class SegmentedStoryStore implements StoryStorePort, AutoCloseable {
+
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final Pattern SEGMENT = Pattern.compile("(\\d{20})\\.log");
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maxBytes;
+    private final StoryCodec storyCodec;
+    private final ObjectMapper objectMapper;
+    private final NavigableMap<Long, FileChannel> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final Map<String, List<StorySummary>> topics = new ConcurrentHashMap<>();
+    private FileChannel active;
+    private long activeSegment;
+
+    public SegmentedStoryStore(@Value("${story.store.directory:${java.io.tmpdir}/chat-api/stories}") Path directory,
+                               @Value("${story.store.segment-size:16MB}") DataSize segmentSize,
+                               @Value("${story.store.max-size:1GB}") DataSize maxSize,
+                               StoryCodec storyCodec,
+                               ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.segmentBytes = segmentSize.toBytes();
+        this.maxBytes = maxSize.toBytes();
+        this.storyCodec = storyCodec;
+        this.objectMapper = objectMapper;
+        open();
+    }
+
+    @Override
+    public void save(StoredStory story) {
+        byte[] summary = storyCodec.encodeSummary(story.summary());
+        byte[] body = storyCodec.encodeStory(story);
+        CRC32 crc = new CRC32();
+        crc.update(summary);
+        crc.update(body);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + summary.length + body.length)
+                .putInt(summary.length)
+                .putInt(body.length)
+                .putInt((int) crc.getValue())
+                .put(summary)
+                .put(body)
+                .flip();
+        synchronized (this) {
+            try {
+                if (active.size() > 0 && active.size() + record.remaining() > segmentBytes) {
+                    roll();
+                    trim();
+                }
+                long position = active.size();
+                while (record.hasRemaining()) {
+                    active.write(record, position + record.position());
+                }
+                active.force(false);
+                index(story.summary(), new Location(activeSegment, position + HEADER_BYTES + summary.length, body.length));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to store story " + story.id(), e);
+            }
+        }
+    }
+
+    @Override
+    public Optional<StoredStory> findById(String id) {
+        Location location = index.get(id);
+        FileChannel segment = location == null ? null : segments.get(location.segment());
+        if (segment == null) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer body = ByteBuffer.allocate(location.length());
+            readFully(segment, body, location.position());
+            byte[] bytes = body.array();
+            return Optional.of(isJson(bytes)
+                    ? objectMapper.readValue(bytes, StoredStory.class)
+                    : storyCodec.decodeStory(bytes, 0, bytes.length));
+        } catch (ClosedChannelException e) {
+            // Its segment was deleted by trim() while being read.
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read story " + id, e);
+        }
+    }
+
+    @Override
+    public List<StorySummary> findByTopic(String topic) {
+        return List.copyOf(topics.getOrDefault(normalize(topic), List.of()).reversed());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (FileChannel channel : segments.values()) {
+            channel.close();
+        }
+    }
+
+    private void index(StorySummary summary, Location location) {
+        if (index.put(summary.id(), location) != null) {
+            topics.values().forEach(summaries -> summaries.removeIf(existing -> existing.id().equals(summary.id())));
+        }
+        topics.computeIfAbsent(normalize(summary.topic()), key -> new CopyOnWriteArrayList<>()).add(summary);
+    }
+
+    // Deletes the oldest sealed segments, and their stories, until the store fits in maxBytes.
+    private void trim() throws IOException {
+        long total = 0;
+        for (FileChannel channel : segments.values()) {
+            total += channel.size();
+        }
+        while (total > maxBytes && segments.size() > 1) {
+            Map.Entry<Long, FileChannel> oldest = segments.pollFirstEntry();
+            total -= oldest.getValue().size();
+            oldest.getValue().close();
+            Files.deleteIfExists(segmentPath(oldest.getKey()));
+            index.values().removeIf(location -> location.segment() == oldest.getKey());
+            topics.values().forEach(summaries -> summaries.removeIf(summary -> !index.containsKey(summary.id())));
+            topics.values().removeIf(List::isEmpty);
+        }
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(path -> SEGMENT.matcher(path.getFileName().toString()).matches())
+                        .sorted()
+                        .toList();
+            }
+            for (Path file : files) {
+                long segment = Long.parseLong(file.getFileName().toString().substring(0, 20));
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                segments.put(segment, channel);
+                recover(segment, channel, file.equals(files.get(files.size() - 1)));
+            }
+            if (segments.isEmpty()) {
+                roll();
+            } else {
+                activeSegment = segments.lastKey();
+                active = segments.lastEntry().getValue();
+                trim();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open story store at " + directory, e);
+        }
+    }
+
+    private void recover(long segment, FileChannel channel, boolean last) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            readFully(channel, header.clear(), position);
+            int summaryLength = header.getInt(0);
+            int bodyLength = header.getInt(Integer.BYTES);
+            long end = position + HEADER_BYTES + summaryLength + bodyLength;
+            if (summaryLength < 0 || bodyLength < 0 || end > size) {
+                break;
+            }
+            // Sealed segments were forced before the next one was created, so only the last needs checking.
+            ByteBuffer payload = ByteBuffer.allocate(last ? summaryLength + bodyLength : summaryLength);
+            readFully(channel, payload, position + HEADER_BYTES);
+            if (last) {
+                CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != header.getInt(2 * Integer.BYTES)) {
+                    break;
+                }
+            }
+            StorySummary summary = isJson(payload.array())
+                    ? objectMapper.readValue(payload.array(), 0, summaryLength, StorySummary.class)
+                    : storyCodec.decodeSummary(payload.array(), 0, summaryLength);
+            index(summary, new Location(segment, position + HEADER_BYTES + summaryLength, bodyLength));
+            position = end;
+        }
+        if (last && position < size) {
+            channel.truncate(position);
+        }
+    }
+
+    private void roll() throws IOException {
+        long segment = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+        if (active != null) {
+            active.force(true);
+        }
+        FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.put(segment, channel);
+        active = channel;
+        activeSegment = segment;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d.log", segment));
+    }
+
+    private static boolean isJson(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == '{';
+    }
+
+    static String normalize(String topic) {
+        return topic.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of segment at " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private record Location(long segment, long position, int length) {
+    }
+}
@@ -0,0 +1,347 @@
+package xlr.magas.infrastructure.out.store;
+
+import org.springframework.stereotype.Component;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.StorySummary;
+import xlr.magas.domain.model.Text;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Compact binary encoding of the domain records, for storage and for moving them between nodes;
+ * prompts still use JSON. Numbers, lengths and counts are varints. Short strings that repeat
+ * within a message (character names, tones, text types, setting fields) go through a dictionary:
+ * the first occurrence is written inline, later ones as its index. Every message starts with a
+ * format byte, which never collides with the {@code '{'} of a JSON document.
+ */
+@Component
+public class StoryCodec {
+
+    static final byte VERSION = 1;
+
+    public byte[] encodeStory(StoredStory story) {
+        Writer writer = new Writer();
+        writer.storedStory(story);
+        return writer.toByteArray();
+    }
+
+    public StoredStory decodeStory(byte[] bytes, int offset, int length) {
+        return new Reader(bytes, offset, length).storedStory();
+    }
+
+    public byte[] encodeSummary(StorySummary summary) {
+        Writer writer = new Writer();
+        writer.summary(summary);
+        return writer.toByteArray();
+    }
+
+    public StorySummary decodeSummary(byte[] bytes, int offset, int length) {
+        return new Reader(bytes, offset, length).summary();
+    }
+
+    public byte[] encodeBlueprint(StoryBlueprint blueprint) {
+        Writer writer = new Writer();
+        writer.blueprint(blueprint);
+        return writer.toByteArray();
+    }
+
+    public StoryBlueprint decodeBlueprint(byte[] bytes) {
+        return new Reader(bytes, 0, bytes.length).blueprint();
+    }
+
+    public byte[] encodeScene(Scene scene) {
+        Writer writer = new Writer();
+        writer.scene(scene);
+        return writer.toByteArray();
+    }
+
+    public Scene decodeScene(byte[] bytes) {
+        return new Reader(bytes, 0, bytes.length).scene();
+    }
+
+    private static final class Writer {
+        private final Map<String, Integer> symbols = new HashMap<>();
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        Writer() {
+            put(VERSION);
+        }
+
+        void storedStory(StoredStory story) {
+            string(story.id());
+            string(story.topic());
+            symbol(story.language());
+            instant(story.createdAt());
+            optional(story.blueprint(), this::blueprint);
+            string(story.cover());
+            optional(story.story(), value -> list(value.scenes(), this::scene));
+        }
+
+        void summary(StorySummary summary) {
+            string(summary.id());
+            string(summary.topic());
+            symbol(summary.language());
+            string(summary.title());
+            instant(summary.createdAt());
+        }
+
+        void blueprint(StoryBlueprint blueprint) {
+            string(blueprint.title());
+            symbol(blueprint.genre());
+            symbol(blueprint.tone());
+            list(blueprint.themes(), this::symbol);
+            list(blueprint.characters(), character -> {
+                symbol(character.name());
+                string(character.background());
+                string(character.personality());
+                string(character.motivations());
+                string(character.relationships());
+                string(character.developmentArc());
+            });
+            optional(blueprint.storyArc(), arc -> {
+                string(arc.openingHook());
+                string(arc.risingAction());
+                string(arc.climax());
+                string(arc.resolution());
+            });
+            optional(blueprint.worldSetting(), world -> {
+                string(world.primaryLocations());
+                string(world.timePeriod());
+                string(world.culturalContext());
+                string(world.rulesAndMagic());
+                string(world.atmosphere());
+            });
+            list(blueprint.keyPlotPoints(), this::string);
+        }
+
+        void scene(Scene scene) {
+            varint(((scene.order() << 1) ^ (scene.order() >> 31)) & 0xFFFFFFFFL);
+            string(scene.title());
+            optional(scene.setting(), setting -> {
+                symbol(setting.position());
+                symbol(setting.location());
+                symbol(setting.time());
+            });
+            list(scene.texts(), text -> {
+                symbol(text.type());
+                symbol(text.character());
+                symbol(text.tone());
+                string(text.text());
+            });
+            string(scene.image());
+        }
+
+        // 0 is null, 1 a new symbol written inline, n > 1 the symbol at index n - 2.
+        private void symbol(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            Integer index = symbols.get(value);
+            if (index != null) {
+                varint(index + 2);
+                return;
+            }
+            symbols.put(value, symbols.size());
+            varint(1);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            raw(bytes);
+        }
+
+        // 0 is null, otherwise the UTF-8 length plus one.
+        private void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1L);
+            raw(bytes);
+        }
+
+        private void instant(Instant value) {
+            optional(value, instant -> {
+                long seconds = instant.getEpochSecond();
+                varint((seconds << 1) ^ (seconds >> 63));
+                varint(instant.getNano());
+            });
+        }
+
+        private <T> void list(List<T> values, Consumer<T> element) {
+            if (values == null) {
+                varint(0);
+                return;
+            }
+            varint(values.size() + 1L);
+            values.forEach(element);
+        }
+
+        private <T> void optional(T value, Consumer<T> present) {
+            put((byte) (value == null ? 0 : 1));
+            if (value != null) {
+                present.accept(value);
+            }
+        }
+
+        private void raw(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void put(byte value) {
+            ensure(1);
+            buffer[size++] = value;
+        }
+
+        private void ensure(int bytes) {
+            if (size + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Reader {
+        private final List<String> symbols = new ArrayList<>();
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+
+        Reader(byte[] buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = offset + length;
+            byte version = get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported story encoding " + version);
+            }
+        }
+
+        StoredStory storedStory() {
+            return new StoredStory(string(), string(), symbol(), instant(),
+                    optional(Reader::blueprint), string(), optional(reader -> new Story(reader.list(Reader::scene))));
+        }
+
+        StorySummary summary() {
+            return new StorySummary(string(), string(), symbol(), string(), instant());
+        }
+
+        StoryBlueprint blueprint() {
+            return new StoryBlueprint(string(), symbol(), symbol(),
+                    list(Reader::symbol),
+                    list(reader -> new StoryBlueprint.CharacterProfile(reader.symbol(), reader.string(),
+                            reader.string(), reader.string(), reader.string(), reader.string())),
+                    optional(reader -> new StoryBlueprint.StoryArc(reader.string(), reader.string(),
+                            reader.string(), reader.string())),
+                    optional(reader -> new StoryBlueprint.WorldSetting(reader.string(), reader.string(),
+                            reader.string(), reader.string(), reader.string())),
+                    list(Reader::string));
+        }
+
+        Scene scene() {
+            int zigzag = (int) varint();
+            return new Scene((zigzag >>> 1) ^ -(zigzag & 1), string(),
+                    optional(reader -> new Setting(reader.symbol(), reader.symbol(), reader.symbol())),
+                    list(reader -> new Text(reader.symbol(), reader.symbol(), reader.symbol(), reader.string())),
+                    string());
+        }
+
+        private String symbol() {
+            int tag = (int) varint();
+            if (tag == 0) {
+                return null;
+            }
+            if (tag > 1) {
+                return symbols.get(tag - 2);
+            }
+            String value = utf8((int) varint());
+            symbols.add(value);
+            return value;
+        }
+
+        private String string() {
+            int length = (int) varint();
+            return length == 0 ? null : utf8(length - 1);
+        }
+
+        private Instant instant() {
+            return optional(reader -> {
+                long zigzag = reader.varint();
+                return Instant.ofEpochSecond((zigzag >>> 1) ^ -(zigzag & 1), reader.varint());
+            });
+        }
+
+        private <T> List<T> list(Function<Reader, T> element) {
+            int count = (int) varint();
+            if (count == 0) {
+                return null;
+            }
+            List<T> values = new ArrayList<>(count - 1);
+            for (int i = 1; i < count; i++) {
+                values.add(element.apply(this));
+            }
+            return values;
+        }
+
+        private <T> T optional(Function<Reader, T> present) {
+            return get() == 0 ? null : present.apply(this);
+        }
+
+        private String utf8(int length) {
+            require(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte next = get();
+                value |= (long) (next & 0x7F) << shift;
+                if (next >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint at " + position);
+        }
+
+        private byte get() {
+            require(1);
+            return buffer[position++];
+        }
+
+        private void require(int bytes) {
+            if (bytes < 0 || position + bytes > limit) {
+                throw new IllegalArgumentException("Truncated story encoding at " + position);
+            }
+        }
+    }
+}
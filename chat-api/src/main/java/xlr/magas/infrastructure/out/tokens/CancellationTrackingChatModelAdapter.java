@@ -0,0 +1,75 @@
+package xlr.magas.infrastructure.out.tokens;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counts streams cancelled before completion, typically because the client disconnected. For each
+ * one it records the unused part of its {@code max_tokens}, an upper bound on what was saved, and
+ * estimates the tokens actually saved from the mean length of completed streams, capped at
+ * {@code max_tokens}. Until a stream has completed, nothing is estimated as saved.
+ * Streamed chunks are counted as tokens, which matches OpenAI's one-token-per-chunk streaming.
+ */
+public class CancellationTrackingChatModelAdapter implements ChatModelPort {
+
+    private final ChatModelPort delegate;
+    private final int defaultMaxTokens;
+    private final AtomicLong cancelledStreams = new AtomicLong();
+    private final AtomicLong maxTokensAvoided = new AtomicLong();
+    private final AtomicLong tokensSaved = new AtomicLong();
+    private final AtomicLong completedStreams = new AtomicLong();
+    private final AtomicLong completedTokens = new AtomicLong();
+
+    public CancellationTrackingChatModelAdapter(ChatModelPort delegate, int defaultMaxTokens) {
+        this.delegate = delegate;
+        this.defaultMaxTokens = defaultMaxTokens;
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user) {
+        return track(() -> delegate.askChatModel(system, user), defaultMaxTokens);
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user, int maxTokens) {
+        return track(() -> delegate.askChatModel(system, user, maxTokens), maxTokens);
+    }
+
+    public long cancelledStreams() {
+        return cancelledStreams.get();
+    }
+
+    public long maxTokensAvoided() {
+        return maxTokensAvoided.get();
+    }
+
+    public long tokensSaved() {
+        return tokensSaved.get();
+    }
+
+    private Flux<String> track(Supplier<Flux<String>> call, int maxTokens) {
+        return Flux.defer(() -> {
+            AtomicInteger received = new AtomicInteger();
+            return call.get()
+                    .doOnNext(token -> received.incrementAndGet())
+                    .doOnComplete(() -> {
+                        completedTokens.addAndGet(received.get());
+                        completedStreams.incrementAndGet();
+                    })
+                    .doOnCancel(() -> {
+                        cancelledStreams.incrementAndGet();
+                        maxTokensAvoided.addAndGet(Math.max(0, maxTokens - received.get()));
+                        tokensSaved.addAndGet(Math.max(0, Math.min(maxTokens, expectedTokens()) - received.get()));
+                    });
+        });
+    }
+
+    private long expectedTokens() {
+        long completed = completedStreams.get();
+        return completed == 0 ? 0 : completedTokens.get() / completed;
+    }
+}
@@ -0,0 +1,9 @@
+package xlr.magas.infrastructure.out.tokens;
+
+public class PromptTooLargeException extends RuntimeException {
+
+    public PromptTooLargeException(int promptTokens, int contextWindow, int minCompletionTokens) {
+        super(String.format("Prompt uses %d tokens, leaving less than %d of the %d-token context window for the answer",
+                promptTokens, minCompletionTokens, contextWindow));
+    }
+}
@@ -0,0 +1,51 @@
+package xlr.magas.infrastructure.out.tokens;
+
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+/**
+ * Counts prompt tokens before dispatch and sizes {@code max_tokens} from what is left of the
+ * context window. Prompts that leave less than {@code minCompletionTokens} are rejected up front,
+ * or have the user message trimmed when {@code trimOverflow} is set, instead of failing upstream.
+ */
+public class TokenBudgetingChatModelAdapter implements ChatModelPort {
+
+    private final ChatModelPort delegate;
+    private final TokenCounter tokenCounter;
+    private final int maxCompletionTokens;
+    private final int minCompletionTokens;
+    private final boolean trimOverflow;
+
+    public TokenBudgetingChatModelAdapter(ChatModelPort delegate, TokenCounter tokenCounter,
+                                          int maxCompletionTokens, int minCompletionTokens, boolean trimOverflow) {
+        this.delegate = delegate;
+        this.tokenCounter = tokenCounter;
+        this.maxCompletionTokens = maxCompletionTokens;
+        this.minCompletionTokens = minCompletionTokens;
+        this.trimOverflow = trimOverflow;
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user) {
+        return askChatModel(system, user, maxCompletionTokens);
+    }
+
+    @Override
+    public Flux<String> askChatModel(String system, String user, int maxTokens) {
+        return Flux.defer(() -> {
+            int contextWindow = tokenCounter.contextWindow();
+            int promptTokens = tokenCounter.countPrompt(system, user);
+            if (contextWindow - promptTokens >= minCompletionTokens) {
+                return delegate.askChatModel(system, user, Math.min(maxTokens, contextWindow - promptTokens));
+            }
+
+            int userBudget = contextWindow - minCompletionTokens - tokenCounter.countPrompt(system, "");
+            if (!trimOverflow || userBudget <= 0) {
+                return Flux.error(new PromptTooLargeException(promptTokens, contextWindow, minCompletionTokens));
+            }
+            String trimmed = tokenCounter.truncate(user, userBudget);
+            int available = contextWindow - tokenCounter.countPrompt(system, trimmed);
+            return delegate.askChatModel(system, trimmed, Math.min(maxTokens, available));
+        });
+    }
+}
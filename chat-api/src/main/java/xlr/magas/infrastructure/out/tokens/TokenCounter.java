@@ -0,0 +1,51 @@
+package xlr.magas.infrastructure.out.tokens;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.ModelType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts prompt tokens with the tokenizer of the configured chat model. The {@link Encoding} is
+ * resolved once and shared, building it is far more expensive than encoding a prompt.
+ */
+@Component
+public class TokenCounter {
+
+    // Chat format framing: every message costs a few tokens on top of its content,
+    // and the reply is primed with an assistant header.
+    static final int TOKENS_PER_MESSAGE = 4;
+    static final int REPLY_PRIMING_TOKENS = 3;
+
+    private static final EncodingRegistry REGISTRY = Encodings.newLazyEncodingRegistry();
+
+    private final Encoding encoding;
+    private final int contextWindow;
+
+    public TokenCounter(@Value("${chat.tokens.model:gpt-4o}") String model) {
+        ModelType modelType = ModelType.fromName(model)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown tokenizer model: " + model));
+        this.encoding = REGISTRY.getEncoding(modelType.getEncodingType());
+        this.contextWindow = modelType.getMaxContextLength();
+    }
+
+    public int count(String text) {
+        return encoding.countTokens(text);
+    }
+
+    public int countPrompt(String system, String user) {
+        return count(system) + count(user) + 2 * TOKENS_PER_MESSAGE + REPLY_PRIMING_TOKENS;
+    }
+
+    public String truncate(String text, int maxTokens) {
+        EncodingResult result = encoding.encode(text, maxTokens);
+        return result.isTruncated() ? encoding.decode(result.getTokens()) : text;
+    }
+
+    public int contextWindow() {
+        return contextWindow;
+    }
+}
@@ -0,0 +1,107 @@
+package xlr.magas.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.model.Conversation;
+import xlr.magas.domain.model.Turn;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.domain.ports.out.ConversationMemoryPort;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationServiceTest {
+
+    @Mock
+    private ChatModelPort chatModelPort;
+
+    @Mock
+    private ConversationMemoryPort conversationMemoryPort;
+
+    @InjectMocks
+    private ConversationService conversationService;
+
+    @Test
+    void shouldAskWithRecalledSummaryAndTurnsAndRememberTheAnswer() {
+        // Given
+        var conversation = new Conversation("c-1", "Mira lit the first lantern.",
+                List.of(new Turn("What did Oren find?", "A hidden archive.")));
+        when(conversationMemoryPort.recall("c-1")).thenReturn(Mono.just(conversation));
+        when(chatModelPort.askChatModel(contains("Mira lit the first lantern."), eq("And then? In English language.")))
+                .thenReturn(Flux.just("The tide", " turned."));
+        when(conversationMemoryPort.remember(anyString(), any())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(conversationService.continueConversation("c-1", "And then?", "English"))
+                .expectNext("The tide", " turned.")
+                .verifyComplete();
+        verify(conversationMemoryPort).remember("c-1", new Turn("And then?", "The tide turned."));
+    }
+
+    @Test
+    void shouldNotRememberAnUnfinishedAnswer() {
+        // Given
+        when(conversationMemoryPort.recall("c-1")).thenReturn(Mono.just(Conversation.empty("c-1")));
+        when(chatModelPort.askChatModel(anyString(), anyString()))
+                .thenReturn(Flux.concat(Flux.just("The tide"), Flux.error(new IllegalStateException("upstream"))));
+
+        // When & Then
+        StepVerifier.create(conversationService.continueConversation("c-1", "And then?", "English"))
+                .expectNext("The tide")
+                .verifyErrorMessage("upstream");
+        verify(conversationMemoryPort, never()).remember(anyString(), any());
+    }
+
+    @Test
+    void shouldCompleteAnswerWhenRememberingFails() {
+        // Given
+        when(conversationMemoryPort.recall("c-1")).thenReturn(Mono.just(Conversation.empty("c-1")));
+        when(chatModelPort.askChatModel(anyString(), anyString())).thenReturn(Flux.just("Hi"));
+        when(conversationMemoryPort.remember(anyString(), any())).thenReturn(Mono.error(new IllegalStateException("disk full")));
+
+        // When & Then
+        StepVerifier.create(conversationService.continueConversation("c-1", "Hello", "English"))
+                .expectNext("Hi")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWithoutAskingForUnknownConversation() {
+        // Given
+        when(conversationMemoryPort.recall("guessed")).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(conversationService.continueConversation("guessed", "Hello", "English"))
+                .verifyError(NoSuchElementException.class);
+        verify(chatModelPort, never()).askChatModel(anyString(), anyString());
+    }
+
+    @Test
+    void shouldPutSummaryThenRecentTurnsInSystemMessage() {
+        var conversation = new Conversation("c-1", "Earlier things.",
+                List.of(new Turn("Q1", "A1"), new Turn("Q2", "A2")));
+
+        String system = ConversationService.systemMessage(conversation);
+
+        assertThat(system).startsWith(ConversationService.SYSTEM_MESSAGE)
+                .endsWith("Summary of the conversation so far:\nEarlier things.\n\n"
+                        + "Most recent turns:\nUser: Q1\nAssistant: A1\nUser: Q2\nAssistant: A2");
+        assertThat(ConversationService.systemMessage(Conversation.empty("c-2"))).isEqualTo(ConversationService.SYSTEM_MESSAGE);
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 import xlr.magas.domain.ports.out.ImageModelPort;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -32,4 +34,16 @@ class PictureServiceTest {
         assertEquals(expectedUrl, result);
         verify(imageModelPort).generateImage(prompt);
     }
+
+    @Test
+    void shouldGenerateImageAsync() {
+        String prompt = "A magical forest";
+        String expectedUrl = "http://image.url";
+
+        when(imageModelPort.generateImageAsync(prompt)).thenReturn(Mono.just(expectedUrl));
+
+        StepVerifier.create(pictureService.generateImageAsync(prompt))
+                .expectNext(expectedUrl)
+                .verifyComplete();
+    }
 }
@@ -0,0 +1,148 @@
+package xlr.magas.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.SceneOutline;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.Text;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.domain.system.CharacterSystemProvider;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SceneGenerationEngineTest {
+
+    private static final String OUTLINE_1 =
+            "{\"o\":1,\"t\":\"Arrival\",\"p\":\"Exterior\",\"l\":\"Gate\",\"tm\":\"Dawn\",\"s\":\"Hero arrives.\",\"c\":[\"Hero\"]}";
+    private static final String OUTLINE_2 =
+            "{\"o\":2,\"t\":\"Duel\",\"p\":\"Interior\",\"l\":\"Hall\",\"tm\":\"Night\",\"s\":\"They fight.\",\"c\":[\"hero\",\"Villain\"]}";
+
+    @Mock
+    private ChatModelPort chatModelPort;
+
+    private final ScenePromptAssembler scenePromptAssembler = new ScenePromptAssembler(new ObjectMapper());
+    private final CharacterSystemProvider hero = new CharacterSystemProvider("Hero", "Brave", "Quest");
+    private final CharacterSystemProvider villain = new CharacterSystemProvider("Villain", "Cruel", "Quest");
+    private SceneGenerationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SceneGenerationEngine(chatModelPort, scenePromptAssembler, new ObjectMapper(), 4, 4);
+    }
+
+    @Test
+    void shouldParseOutlineLinesSplitAcrossTokens() {
+        Flux<String> tokens = Flux.just("```json\n", OUTLINE_1.substring(0, 20), OUTLINE_1.substring(20) + "\n" + OUTLINE_2.substring(0, 5),
+                OUTLINE_2.substring(5), "\n```");
+
+        StepVerifier.create(engine.outlines(tokens))
+                .expectNext(new SceneOutline(1, "Arrival", new Setting("Exterior", "Gate", "Dawn"), "Hero arrives.", List.of("Hero")))
+                .expectNext(new SceneOutline(2, "Duel", new Setting("Interior", "Hall", "Night"), "They fight.", List.of("hero", "Villain")))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldMergeNarrationAndCharacterDialogueInOrder() {
+        // Given
+        stubOutline(Flux.just(OUTLINE_1 + "\n", OUTLINE_2));
+        when(chatModelPort.askChatModel(anyString(), startsWith("Narrate scene 1"))).thenReturn(Flux.just("The gate ", "opens."));
+        when(chatModelPort.askChatModel(anyString(), startsWith("Narrate scene 2"))).thenReturn(Flux.just("Steel rings."));
+        when(chatModelPort.askChatModel(eq(hero.getSystemMessage()), startsWith("Scene 1"))).thenReturn(Flux.just("I am home."));
+        when(chatModelPort.askChatModel(eq(hero.getSystemMessage()), startsWith("Scene 2"))).thenReturn(Flux.just("Yield!"));
+        when(chatModelPort.askChatModel(eq(villain.getSystemMessage()), startsWith("Scene 2"))).thenReturn(Flux.just("Never."));
+
+        // When
+        Flux<Scene> result = engine.generate(blueprint(), new CharacterSystemProvider[]{hero, villain}, 2);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext(new Scene(1, "Arrival", new Setting("Exterior", "Gate", "Dawn"), List.of(
+                        new Text("narration", null, null, "The gate opens."),
+                        new Text("dialogue", "Hero", null, "I am home."))))
+                .expectNext(new Scene(2, "Duel", new Setting("Interior", "Hall", "Night"), List.of(
+                        new Text("narration", null, null, "Steel rings."),
+                        new Text("dialogue", "Hero", null, "Yield!"),
+                        new Text("dialogue", "Villain", null, "Never."))))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldEmitOutlinesAheadOfFinishedScenes() {
+        // Given
+        Sinks.One<String> slowNarration = Sinks.one();
+        stubOutline(Flux.just(OUTLINE_1 + "\n"));
+        when(chatModelPort.askChatModel(anyString(), startsWith("Narrate scene 1"))).thenReturn(slowNarration.asMono().flux());
+
+        // When & Then
+        StepVerifier.create(engine.stream(blueprint(), new CharacterSystemProvider[0], 1))
+                .assertNext(record -> assertThat(record).isInstanceOf(SceneOutline.class))
+                .then(() -> slowNarration.tryEmitValue("The gate opens."))
+                .assertNext(record -> assertThat(record).isInstanceOf(Scene.class))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStartNextSceneBeforePreviousSceneCompletes() {
+        // Given
+        Sinks.One<String> slowNarration = Sinks.one();
+        stubOutline(Flux.just(OUTLINE_1 + "\n" + OUTLINE_2 + "\n"));
+        when(chatModelPort.askChatModel(anyString(), startsWith("Narrate scene 1"))).thenReturn(slowNarration.asMono().flux());
+        when(chatModelPort.askChatModel(anyString(), startsWith("Narrate scene 2"))).thenReturn(Flux.just("Steel rings."));
+
+        // When & Then
+        StepVerifier.create(engine.generate(blueprint(), new CharacterSystemProvider[0], 2))
+                .then(() -> {
+                    verify(chatModelPort).askChatModel(anyString(), startsWith("Narrate scene 2"));
+                    slowNarration.tryEmitValue("The gate opens.");
+                })
+                .assertNext(scene -> assertThat(scene.order()).isEqualTo(1))
+                .assertNext(scene -> assertThat(scene.order()).isEqualTo(2))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStopOutlineOnceRequestedScenesArrive() {
+        // Given
+        Sinks.Many<String> outline = Sinks.many().unicast().onBackpressureBuffer();
+        outline.tryEmitNext(OUTLINE_1 + "\n");
+        stubOutline(outline.asFlux());
+        when(chatModelPort.askChatModel(anyString(), startsWith("Narrate scene 1"))).thenReturn(Flux.just("The gate opens."));
+
+        // When & Then
+        StepVerifier.create(engine.generate(blueprint(), new CharacterSystemProvider[0], 1))
+                .assertNext(scene -> assertThat(scene.title()).isEqualTo("Arrival"))
+                .verifyComplete();
+        assertThat(outline.currentSubscriberCount()).isZero();
+    }
+
+    private void stubOutline(Flux<String> outline) {
+        when(chatModelPort.askChatModel(anyString(), startsWith("Using the story blueprint"))).thenReturn(outline);
+    }
+
+    private static String startsWith(String prefix) {
+        return argThat(message -> message != null && message.startsWith(prefix));
+    }
+
+    private static StoryBlueprint blueprint() {
+        return new StoryBlueprint("Quest", "Fantasy", "Epic", List.of("Courage"), List.of(),
+                new StoryBlueprint.StoryArc("", "", "", ""),
+                new StoryBlueprint.WorldSetting("", "", "", "", ""), List.of());
+    }
+}
@@ -0,0 +1,127 @@
+package xlr.magas.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import xlr.magas.domain.model.SceneOutline;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.infrastructure.out.tokens.TokenCounter;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScenePromptAssemblerTest {
+
+    // Measured for blueprint(); raise deliberately when the narrator prompts grow.
+    private static final int OUTLINE_TOKEN_BUDGET = 620;
+    private static final int NARRATION_TOKEN_BUDGET = 580;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final ScenePromptAssembler assembler = new ScenePromptAssembler(objectMapper);
+    private final TokenCounter tokenCounter = new TokenCounter("gpt-4o");
+
+    @Test
+    void shouldEmbedBlueprintOnceInSystemMessage() {
+        // When
+        ScenePromptAssembler.ScenePrompt prompt = assembler.outline(blueprint(), 5);
+
+        // Then
+        assertThat(prompt.systemMessage())
+                .contains(ScenePromptAssembler.BLUEPRINT_LEGEND)
+                .containsOnlyOnce("\"t\":\"Dragon Quest\"");
+        assertThat(prompt.userMessage())
+                .startsWith("Using the story blueprint in your instructions, outline 5 compelling scenes for this story.")
+                .contains("one JSON object per line")
+                .doesNotContain("Dragon Quest");
+    }
+
+    @Test
+    void shouldBuildPerScenePromptsFromOutlineOnly() {
+        // When
+        String narration = assembler.narration(outline());
+        String dialogue = assembler.dialogue(outline(), "Aria");
+
+        // Then
+        assertThat(narration)
+                .startsWith("Narrate scene 2 \"The Fall\" (Sky citadels, Dusk): Ember crashes into the market.")
+                .contains("Characters present: Aria, Malrec.");
+        assertThat(dialogue)
+                .startsWith("Scene 2 \"The Fall\" (Sky citadels, Dusk): Ember crashes into the market.")
+                .endsWith("Give Aria's dialogue and actions in this scene.");
+    }
+
+    @Test
+    void shouldSerializeCompactlyWithShortKeysAndNoBlankFields() {
+        // When
+        String compact = assembler.compact(blueprint());
+
+        // Then
+        assertThat(compact)
+                .doesNotContain("\n", ": ", "\"title\"", "\"climax\"")
+                .startsWith("{\"t\":\"Dragon Quest\",\"g\":\"Fantasy\",\"tn\":\"Epic\",\"th\":[\"Courage\",\"Friendship\"]")
+                .contains("\"c\":[{\"n\":\"Aria\",\"bg\":\"Orphaned dragon rider\"")
+                .contains("\"w\":{\"l\":\"Sky citadels\",\"tp\":\"Age of embers\"}")
+                .doesNotContain("\"cc\"", "\"rm\"", "\"at\"");
+    }
+
+    @Test
+    void shouldFallBackToToStringWhenSerializationFails() throws Exception {
+        // Given
+        ObjectMapper failing = new ObjectMapper() {
+            @Override
+            public com.fasterxml.jackson.databind.ObjectWriter writer() {
+                throw new IllegalStateException("Serialization failed");
+            }
+        };
+        StoryBlueprint blueprint = blueprint();
+
+        // When
+        String compact = new ScenePromptAssembler(failing).compact(blueprint);
+
+        // Then
+        assertThat(compact).isEqualTo(blueprint.toString());
+    }
+
+    @Test
+    void shouldKeepScenePromptsWithinTokenBudget() throws Exception {
+        // Given
+        StoryBlueprint blueprint = blueprint();
+        String verboseBlueprint = new ObjectMapper().writeValueAsString(blueprint);
+
+        // When
+        ScenePromptAssembler.ScenePrompt outline = assembler.outline(blueprint, 5);
+        int outlineTokens = tokenCounter.countPrompt(outline.systemMessage(), outline.userMessage());
+        int narrationTokens = tokenCounter.countPrompt(outline.systemMessage(), assembler.narration(outline()));
+
+        // Then
+        assertThat(tokenCounter.count(assembler.compact(blueprint)))
+                .isLessThan(tokenCounter.count(verboseBlueprint));
+        assertThat(outlineTokens).isLessThanOrEqualTo(OUTLINE_TOKEN_BUDGET);
+        assertThat(narrationTokens).isLessThanOrEqualTo(NARRATION_TOKEN_BUDGET);
+    }
+
+    private static SceneOutline outline() {
+        return new SceneOutline(2, "The Fall", new Setting("Exterior", "Sky citadels", "Dusk"),
+                "Ember crashes into the market.", List.of("Aria", "Malrec"));
+    }
+
+    private static StoryBlueprint blueprint() {
+        return new StoryBlueprint(
+                "Dragon Quest",
+                "Fantasy",
+                "Epic",
+                List.of("Courage", "Friendship"),
+                List.of(
+                        new StoryBlueprint.CharacterProfile("Aria", "Orphaned dragon rider", "Fierce and loyal",
+                                "Avenge her clan", "Bonded to the dragon Ember", "Learns to trust others"),
+                        new StoryBlueprint.CharacterProfile("Malrec", "Exiled court mage", "Cunning",
+                                "Reclaim the throne", "Former mentor of Aria", "Redeemed in the final battle")),
+                new StoryBlueprint.StoryArc("A dragon falls from the sky", "The clans gather",
+                        "Battle above the citadel", "Peace between riders and mages"),
+                new StoryBlueprint.WorldSetting("Sky citadels", "Age of embers", "", "", ""),
+                List.of("Ember is wounded", "Malrec's betrayal is revealed")
+        );
+    }
+}
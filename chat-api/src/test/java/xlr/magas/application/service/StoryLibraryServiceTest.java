@@ -0,0 +1,92 @@
+package xlr.magas.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryEvent;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.StorySummary;
+import xlr.magas.domain.model.Text;
+import xlr.magas.domain.ports.out.StoryStorePort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StoryLibraryServiceTest {
+
+    private static final Setting SETTING = new Setting("Exterior", "Gate", "Dawn");
+    private static final Text NARRATION = new Text("narration", null, null, "The gate opens.");
+
+    @Mock
+    private StoryStorePort storyStorePort;
+
+    @InjectMocks
+    private StoryLibraryService storyLibraryService;
+
+    @Test
+    void shouldReplayStoredStoryAsTheOriginalEvents() {
+        // Given
+        var blueprint = new StoryBlueprint("Quest", "Fantasy", "Epic", List.of(), List.of(), null, null, List.of());
+        var first = new Scene(1, "Arrival", SETTING, List.of(NARRATION), "/api/v1/images/scene-1");
+        var second = new Scene(2, "Departure", SETTING, List.of());
+        var story = new Story(List.of(first, second));
+        when(storyStorePort.findById("42")).thenReturn(Optional.of(
+                new StoredStory("42", "dragons", "English", Instant.EPOCH, blueprint, "/api/v1/images/cover", story)));
+
+        // When & Then
+        StepVerifier.create(storyLibraryService.replayStory("42"))
+                .expectNext(StoryEvent.blueprint(blueprint))
+                .expectNext(StoryEvent.image(StorytellingService.COVER, "/api/v1/images/cover"))
+                .expectNext(StoryEvent.scene(new Scene(1, "Arrival", SETTING, List.of(), "/api/v1/images/scene-1")))
+                .expectNext(StoryEvent.text(1, NARRATION))
+                .expectNext(StoryEvent.image(1, "/api/v1/images/scene-1"))
+                .expectNext(StoryEvent.scene(second))
+                .expectNext(StoryEvent.done(story))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReplayWhatIsStoredWhenBlueprintAndScenesAreMissing() {
+        // Given
+        when(storyStorePort.findById("42")).thenReturn(Optional.of(
+                new StoredStory("42", "dragons", "English", Instant.EPOCH, null, "/api/v1/images/cover", null)));
+
+        // When & Then
+        StepVerifier.create(storyLibraryService.replayStory("42"))
+                .expectNext(StoryEvent.image(StorytellingService.COVER, "/api/v1/images/cover"))
+                .expectNext(StoryEvent.done(new Story(List.of())))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReplayNothingForUnknownStory() {
+        // Given
+        when(storyStorePort.findById("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        StepVerifier.create(storyLibraryService.replayStory("missing"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldListStoriesByTopic() {
+        // Given
+        var summary = new StorySummary("42", "dragons", "English", "Quest", Instant.EPOCH);
+        when(storyStorePort.findByTopic("dragons")).thenReturn(List.of(summary));
+
+        // When & Then
+        assertThat(storyLibraryService.findStories("dragons")).containsExactly(summary);
+    }
+}
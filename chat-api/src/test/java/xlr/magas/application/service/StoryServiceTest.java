@@ -4,12 +4,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 import xlr.magas.domain.ports.out.ChatModelPort;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -19,6 +22,9 @@ class StoryServiceTest {
     @Mock
     private ChatModelPort chatModelPort;
 
+    @Spy
+    private StreamCoalescer streamCoalescer = new StreamCoalescer(false, "1.0");
+
     @InjectMocks
     private StoryService storyService;
 
@@ -50,7 +56,7 @@ class StoryServiceTest {
         when(chatModelPort.askChatModel(anyString(), anyString()))
                 .thenReturn(Flux.error(new RuntimeException("AI service error")));
 
-        Flux<String> result = storyService.generateStory("dragons");
+        Flux<String> result = storyService.generateStory("dragons", "English");
 
         StepVerifier.create(result)
                 .expectError(RuntimeException.class)
@@ -58,4 +64,22 @@ class StoryServiceTest {
 
         verify(chatModelPort).askChatModel(anyString(), anyString());
     }
+
+    @Test
+    void shouldShareUpstreamStreamForIdenticalConcurrentRequestsWhenCoalescing() {
+        StoryService coalescingService = new StoryService(chatModelPort, new StreamCoalescer(true, "0.0"));
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        when(chatModelPort.askChatModel(anyString(), anyString())).thenReturn(upstream.asFlux());
+
+        Flux<String> first = coalescingService.generateStory("dragons", "English");
+        Flux<String> second = coalescingService.generateStory("dragons", "English");
+
+        StepVerifier.create(Flux.merge(first, second))
+                .then(() -> upstream.tryEmitNext("Once"))
+                .expectNext("Once", "Once")
+                .then(upstream::tryEmitComplete)
+                .verifyComplete();
+
+        verify(chatModelPort, times(1)).askChatModel(anyString(), anyString());
+    }
 }
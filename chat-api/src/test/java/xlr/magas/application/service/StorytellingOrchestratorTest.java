@@ -8,7 +8,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.SceneOutline;
+import xlr.magas.domain.model.Setting;
 import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryRecord;
 import xlr.magas.domain.ports.out.ChatModelPort;
 import xlr.magas.domain.system.CharacterSystemProvider;
 import xlr.magas.domain.system.GodSystemProvider;
@@ -17,7 +21,9 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,6 +40,12 @@ class StorytellingOrchestratorTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private SceneGenerationEngine sceneGenerationEngine;
+
+    @Mock
+    private StreamingJsonParser streamingJsonParser;
+
     @InjectMocks
     private StorytellingOrchestrator storytellingOrchestrator;
 
@@ -61,6 +73,25 @@ class StorytellingOrchestratorTest {
         verify(chatModelPort).askChatModel(systemMessage, expectedUserMessage);
     }
 
+    @Test
+    void shouldStreamTypedBlueprintRecords() {
+        // Given
+        var character = new StoryBlueprint.CharacterProfile("Hero", "", "", "", "", "");
+        Flux<String> tokens = Flux.just("{\"characters\":[{\"name\":\"Hero\"}]}");
+
+        when(godSystemProvider.getSystemMessage()).thenReturn("god");
+        when(chatModelPort.askChatModel(eq("god"), anyString())).thenReturn(tokens);
+        when(streamingJsonParser.blueprint(tokens)).thenReturn(Flux.just(character));
+
+        // When
+        Flux<StoryRecord> result = storytellingOrchestrator.streamStoryBlueprint("dragons", "English");
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext(character)
+                .verifyComplete();
+    }
+
     @Test
     void shouldParseStoryBlueprintSuccessfully() throws Exception {
         // Given
@@ -183,103 +214,52 @@ class StorytellingOrchestratorTest {
     }
 
     @Test
-    void shouldGenerateScenes() throws Exception {
+    void shouldGenerateScenesWithCharacterSystems() {
         // Given
-        var blueprint = new StoryBlueprint(
-                "Test Story",
-                "Fantasy",
-                "Epic",
-                List.of("Adventure"),
-                List.of(),
-                new StoryBlueprint.StoryArc("", "", "", ""),
-                new StoryBlueprint.WorldSetting("", "", "", "", ""),
-                List.of()
+        var hero = new StoryBlueprint.CharacterProfile(
+                "Hero", "Brave warrior", "Courageous", "Save kingdom", "Friends with wizard", "Peasant to king"
         );
-
-        String blueprintJson = "{\"title\":\"Test Story\"}";
-        int numberOfScenes = 3;
-        Flux<String> expectedFlux = Flux.just("scene1", "scene2", "scene3");
-
-        when(objectMapper.writeValueAsString(blueprint)).thenReturn(blueprintJson);
-        when(chatModelPort.askChatModel(anyString(), anyString())).thenReturn(expectedFlux);
-
-        // When
-        Flux<String> result = storytellingOrchestrator.generateScenes(blueprint, numberOfScenes);
-
-        // Then
-        StepVerifier.create(result)
-                .expectNext("scene1")
-                .expectNext("scene2")
-                .expectNext("scene3")
-                .verifyComplete();
-
-        verify(objectMapper).writeValueAsString(blueprint);
-        verify(chatModelPort).askChatModel(anyString(), anyString());
-    }
-
-    @Test
-    void shouldFallbackToToStringWhenJsonSerializationFails() throws Exception {
-        // Given
         var blueprint = new StoryBlueprint(
                 "Test Story",
                 "Fantasy",
                 "Epic",
                 List.of("Adventure"),
-                List.of(),
+                List.of(hero),
                 new StoryBlueprint.StoryArc("", "", "", ""),
                 new StoryBlueprint.WorldSetting("", "", "", "", ""),
                 List.of()
         );
+        var scene = new Scene(1, "Opening", new Setting("Exterior", "Castle", "Night"), List.of());
 
-        when(objectMapper.writeValueAsString(blueprint)).thenThrow(new RuntimeException("Serialization failed"));
-        when(chatModelPort.askChatModel(anyString(), anyString())).thenReturn(Flux.just("scene data"));
+        when(sceneGenerationEngine.generate(eq(blueprint), any(CharacterSystemProvider[].class), eq(3)))
+                .thenReturn(Flux.just(scene));
 
         // When
-        Flux<String> result = storytellingOrchestrator.generateScenes(blueprint, 2);
+        Flux<Scene> result = storytellingOrchestrator.generateScenes(blueprint, 3);
 
         // Then
         StepVerifier.create(result)
-                .expectNext("scene data")
+                .expectNext(scene)
                 .verifyComplete();
 
-        verify(objectMapper).writeValueAsString(blueprint);
-        verify(chatModelPort).askChatModel(anyString(), anyString());
+        verify(sceneGenerationEngine).generate(eq(blueprint),
+                argThat(systems -> systems.length == 1 && systems[0].getCharacterName().equals("Hero")), eq(3));
     }
 
     @Test
-    void shouldGenerateScenesWithCorrectUserMessage() throws Exception {
+    void shouldStreamSceneRecordsWithCharacterSystems() {
         // Given
-        var blueprint = new StoryBlueprint(
-                "Dragon Quest",
-                "Fantasy",
-                "Epic",
-                List.of("Courage", "Friendship"),
-                List.of(),
+        var blueprint = new StoryBlueprint("Test Story", "Fantasy", "Epic", List.of(), List.of(),
                 new StoryBlueprint.StoryArc("", "", "", ""),
-                new StoryBlueprint.WorldSetting("", "", "", "", ""),
-                List.of()
-        );
-
-        String blueprintJson = "{\"title\":\"Dragon Quest\"}";
-        int numberOfScenes = 5;
+                new StoryBlueprint.WorldSetting("", "", "", "", ""), List.of());
+        var outline = new SceneOutline(1, "Opening", new Setting("Exterior", "Castle", "Night"), "Hero arrives.", List.of());
 
-        when(objectMapper.writeValueAsString(blueprint)).thenReturn(blueprintJson);
-        when(chatModelPort.askChatModel(anyString(), anyString())).thenReturn(Flux.just("response"));
+        when(sceneGenerationEngine.stream(eq(blueprint), any(CharacterSystemProvider[].class), eq(2)))
+                .thenReturn(Flux.just(outline));
 
-        // When
-        storytellingOrchestrator.generateScenes(blueprint, numberOfScenes);
-
-        // Then
-        verify(chatModelPort).askChatModel(
-                anyString(), // narrator system message
-                eq("Using the story blueprint provided, create 5 compelling scenes for this story.\n" +
-                   "Each scene should advance the plot and include character interactions.\n\n" +
-                   "For each scene, provide:\n" +
-                   "1. Scene title and setting\n" +
-                   "2. Narrative description\n" +
-                   "3. Character dialogue and actions\n\n" +
-                   "Remember to stay true to the characters' personalities and the story's themes.\n" +
-                   "Output each scene as a separate JSON object.\n\nStory Blueprint:\n" + blueprintJson)
-        );
+        // When & Then
+        StepVerifier.create(storytellingOrchestrator.streamScenes(blueprint, 2))
+                .expectNext(outline)
+                .verifyComplete();
     }
-}
\ No newline at end of file
+}
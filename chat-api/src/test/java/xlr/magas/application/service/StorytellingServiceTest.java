@@ -0,0 +1,220 @@
+package xlr.magas.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.SceneOutline;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryEvent;
+import xlr.magas.domain.model.StoryRecord;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.Text;
+import xlr.magas.domain.ports.out.ImageModelPort;
+import xlr.magas.domain.ports.out.StoryStorePort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StorytellingServiceTest {
+
+    private static final Setting SETTING = new Setting("Exterior", "Gate", "Dawn");
+    private static final SceneOutline OUTLINE = new SceneOutline(1, "Arrival", SETTING, "Hero arrives.", List.of("Hero"));
+    private static final Text NARRATION = new Text("narration", null, null, "The gate opens.");
+    private static final Text DIALOGUE = new Text("dialogue", "Hero", null, "Home.");
+    private static final Scene SCENE = new Scene(1, "Arrival", SETTING, List.of(NARRATION, DIALOGUE));
+
+    @Mock
+    private StorytellingOrchestrator storytellingOrchestrator;
+
+    @Mock
+    private ImageModelPort imageModelPort;
+
+    @Mock
+    private StoryStorePort storyStorePort;
+
+    private final ScenePromptAssembler scenePromptAssembler = new ScenePromptAssembler(new ObjectMapper());
+    private StorytellingService storytellingService;
+
+    @BeforeEach
+    void setUp() {
+        storytellingService = new StorytellingService(storytellingOrchestrator, imageModelPort, scenePromptAssembler, storyStorePort, true, 2, false);
+    }
+
+    @Test
+    void shouldStreamBlueprintScenesTextsAndDone() {
+        // Given
+        var blueprint = blueprint();
+        var character = new StoryBlueprint.CharacterProfile("Hero", "", "", "", "", "");
+        storytellingService = new StorytellingService(storytellingOrchestrator, imageModelPort, scenePromptAssembler, storyStorePort, false, 2, false);
+
+        when(storytellingOrchestrator.streamStoryBlueprint("dragons", "English"))
+                .thenReturn(Flux.just(character, blueprint.worldSetting(), blueprint));
+        when(storytellingOrchestrator.streamScenes(blueprint, 3)).thenReturn(Flux.just(OUTLINE, SCENE));
+
+        // When & Then
+        StepVerifier.create(storytellingService.narrateStory("dragons", "English", 3))
+                .expectNext(StoryEvent.blueprint(blueprint))
+                .expectNext(StoryEvent.scene(new Scene(1, "Arrival", SETTING, List.of())))
+                .expectNext(StoryEvent.text(1, NARRATION))
+                .expectNext(StoryEvent.text(1, DIALOGUE))
+                .expectNext(StoryEvent.done(new Story(List.of(SCENE))))
+                .verifyComplete();
+        verifyNoInteractions(imageModelPort);
+    }
+
+    @Test
+    void shouldGenerateImagesFromParsedSettingsAndAttachThem() {
+        // Given
+        var blueprint = blueprint();
+        Sinks.One<String> sceneImage = Sinks.one();
+        Sinks.Many<StoryRecord> sceneRecords = Sinks.many().unicast().onBackpressureBuffer();
+
+        when(storytellingOrchestrator.streamStoryBlueprint("dragons", "English"))
+                .thenReturn(Flux.just(blueprint.worldSetting(), blueprint));
+        when(storytellingOrchestrator.streamScenes(blueprint, 1)).thenReturn(sceneRecords.asFlux());
+        when(imageModelPort.generateImageAsync(startsWith("Illustration of Citadels")))
+                .thenReturn(Mono.just("/api/v1/images/cover"));
+        when(imageModelPort.generateImageAsync(scenePromptAssembler.sceneImage(OUTLINE)))
+                .thenReturn(sceneImage.asMono());
+
+        // When & Then
+        StepVerifier.create(storytellingService.narrateStory("dragons", "English", 1))
+                .expectNext(StoryEvent.image(StorytellingService.COVER, "/api/v1/images/cover"))
+                .expectNext(StoryEvent.blueprint(blueprint))
+                .then(() -> {
+                    sceneRecords.tryEmitNext(OUTLINE);
+                    assertThat(sceneImage.currentSubscriberCount()).isEqualTo(1);
+                    sceneRecords.tryEmitNext(SCENE);
+                })
+                .expectNext(StoryEvent.scene(new Scene(1, "Arrival", SETTING, List.of())))
+                .expectNextCount(2)
+                .then(() -> {
+                    sceneRecords.tryEmitComplete();
+                    sceneImage.tryEmitValue("/api/v1/images/scene-1");
+                })
+                .expectNext(StoryEvent.image(1, "/api/v1/images/scene-1"))
+                .expectNext(StoryEvent.done(new Story(List.of(SCENE.withImage("/api/v1/images/scene-1")))))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCancelPendingImagesWhenClientDisconnects() {
+        // Given
+        var blueprint = blueprint();
+        Sinks.One<String> sceneImage = Sinks.one();
+
+        when(storytellingOrchestrator.streamStoryBlueprint("dragons", "English")).thenReturn(Flux.just(blueprint));
+        when(storytellingOrchestrator.streamScenes(blueprint, 1)).thenReturn(Flux.concat(Flux.just(OUTLINE), Flux.never()));
+        when(imageModelPort.generateImageAsync(anyString())).thenReturn(sceneImage.asMono());
+
+        // When
+        StepVerifier.create(storytellingService.narrateStory("dragons", "English", 1))
+                .expectNext(StoryEvent.blueprint(blueprint))
+                .then(() -> assertThat(sceneImage.currentSubscriberCount()).isEqualTo(1))
+                .thenCancel()
+                .verify();
+
+        // Then
+        assertThat(sceneImage.currentSubscriberCount()).isZero();
+    }
+
+    @Test
+    void shouldKeepStoryWhenImageGenerationFails() {
+        // Given
+        var blueprint = blueprint();
+
+        when(storytellingOrchestrator.streamStoryBlueprint("dragons", "English")).thenReturn(Flux.just(blueprint));
+        when(storytellingOrchestrator.streamScenes(blueprint, 1)).thenReturn(Flux.just(OUTLINE, SCENE));
+        when(imageModelPort.generateImageAsync(anyString())).thenReturn(Mono.error(new IllegalStateException("quota")));
+
+        // When & Then
+        StepVerifier.create(storytellingService.narrateStory("dragons", "English", 1))
+                .expectNext(StoryEvent.blueprint(blueprint))
+                .expectNextCount(3)
+                .expectNext(StoryEvent.done(new Story(List.of(SCENE))))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSaveFinishedStoryAndAnnounceItsId() {
+        // Given
+        var blueprint = blueprint();
+        storytellingService = new StorytellingService(storytellingOrchestrator, imageModelPort, scenePromptAssembler, storyStorePort, false, 2, true);
+        ArgumentCaptor<StoredStory> stored = ArgumentCaptor.forClass(StoredStory.class);
+
+        when(storytellingOrchestrator.streamStoryBlueprint("dragons", "English")).thenReturn(Flux.just(blueprint));
+        when(storytellingOrchestrator.streamScenes(blueprint, 1)).thenReturn(Flux.just(OUTLINE, SCENE));
+
+        // When & Then
+        StepVerifier.create(storytellingService.narrateStory("dragons", "English", 1))
+                .expectNext(StoryEvent.blueprint(blueprint))
+                .expectNextCount(3)
+                .assertNext(event -> {
+                    verify(storyStorePort).save(stored.capture());
+                    assertThat(event).isEqualTo(StoryEvent.stored(stored.getValue().id()));
+                })
+                .expectNext(StoryEvent.done(new Story(List.of(SCENE))))
+                .verifyComplete();
+        assertThat(stored.getValue().topic()).isEqualTo("dragons");
+        assertThat(stored.getValue().language()).isEqualTo("English");
+        assertThat(stored.getValue().blueprint()).isEqualTo(blueprint);
+        assertThat(stored.getValue().story()).isEqualTo(new Story(List.of(SCENE)));
+    }
+
+    @Test
+    void shouldFinishStoryWhenSavingFails() {
+        // Given
+        var blueprint = blueprint();
+        storytellingService = new StorytellingService(storytellingOrchestrator, imageModelPort, scenePromptAssembler, storyStorePort, false, 2, true);
+
+        when(storytellingOrchestrator.streamStoryBlueprint("dragons", "English")).thenReturn(Flux.just(blueprint));
+        when(storytellingOrchestrator.streamScenes(blueprint, 1)).thenReturn(Flux.just(OUTLINE, SCENE));
+        doThrow(new IllegalStateException("disk full")).when(storyStorePort).save(any());
+
+        // When & Then
+        StepVerifier.create(storytellingService.narrateStory("dragons", "English", 1))
+                .expectNext(StoryEvent.blueprint(blueprint))
+                .expectNextCount(3)
+                .expectNext(StoryEvent.done(new Story(List.of(SCENE))))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWhenNoBlueprintIsReturned() {
+        // Given
+        when(storytellingOrchestrator.streamStoryBlueprint("dragons", "English")).thenReturn(Flux.empty());
+
+        // When & Then
+        StepVerifier.create(storytellingService.narrateStory("dragons", "English", 3))
+                .expectErrorMessage("The model did not return a story blueprint")
+                .verify();
+        verifyNoMoreInteractions(storytellingOrchestrator);
+    }
+
+    private static StoryBlueprint blueprint() {
+        return new StoryBlueprint("Quest", "Fantasy", "Epic", List.of(), List.of(),
+                new StoryBlueprint.StoryArc("", "", "", ""),
+                new StoryBlueprint.WorldSetting("Citadels", "Embers", "", "", "Smoky"), List.of());
+    }
+}
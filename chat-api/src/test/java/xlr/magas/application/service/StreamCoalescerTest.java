@@ -0,0 +1,86 @@
+package xlr.magas.application.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamCoalescerTest {
+
+    @Test
+    void shouldCallUpstreamPerRequestWhenDisabled() {
+        StreamCoalescer coalescer = new StreamCoalescer(false, "0.0");
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.coalesce("same", () -> counted(calls, Flux.just("a"))).blockLast();
+        coalescer.coalesce("same", () -> counted(calls, Flux.just("a"))).blockLast();
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldShareOneUpstreamAndReplayPrefixToLateJoiners() {
+        StreamCoalescer coalescer = new StreamCoalescer(true, "0.0");
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+
+        Flux<String> first = coalescer.coalesce("topic", () -> counted(calls, upstream.asFlux()));
+        StepVerifier.create(first)
+                .then(() -> upstream.tryEmitNext("Once"))
+                .expectNext("Once")
+                .then(() -> StepVerifier.create(coalescer.coalesce("topic", () -> counted(calls, Flux.just("never"))))
+                        .expectNext("Once")
+                        .then(() -> upstream.tryEmitNext(" upon"))
+                        .expectNext(" upon")
+                        .then(upstream::tryEmitComplete)
+                        .verifyComplete())
+                .expectNext(" upon")
+                .verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    @Test
+    void shouldNotShareAcrossDifferentKeys() {
+        StreamCoalescer coalescer = new StreamCoalescer(true, "0.0");
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.coalesce("dragons", () -> counted(calls, Flux.just("a"))).blockLast();
+        coalescer.coalesce("castles", () -> counted(calls, Flux.just("b"))).blockLast();
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStartFreshCallAfterPreviousCompleted() {
+        StreamCoalescer coalescer = new StreamCoalescer(true, "0.0");
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.coalesce("topic", () -> counted(calls, Flux.just("a"))).blockLast();
+        coalescer.coalesce("topic", () -> counted(calls, Flux.just("a"))).blockLast();
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCancelUpstreamWhenAllSubscribersLeave() {
+        StreamCoalescer coalescer = new StreamCoalescer(true, "0.0");
+        AtomicInteger cancellations = new AtomicInteger();
+        Flux<String> upstream = Flux.<String>never().doOnCancel(cancellations::incrementAndGet);
+
+        coalescer.coalesce("topic", () -> upstream).subscribe().dispose();
+
+        assertThat(cancellations.get()).isEqualTo(1);
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    private static Flux<String> counted(AtomicInteger calls, Flux<String> flux) {
+        calls.incrementAndGet();
+        return flux;
+    }
+}
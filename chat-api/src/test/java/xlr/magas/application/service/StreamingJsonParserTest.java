@@ -0,0 +1,135 @@
+package xlr.magas.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryRecord;
+import xlr.magas.domain.model.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingJsonParserTest {
+
+    private static final String BLUEPRINT = """
+            {"title":"Quest","genre":"Fantasy","tone":"Epic","themes":["Courage"],
+             "characters":[{"name":"Aria","background":"Rider","personality":"Fierce","motivations":"Avenge",
+                            "relationships":"Ember","developmentArc":"Trust","age":17}],
+             "storyArc":{"openingHook":"Fall","risingAction":"Gather","climax":"Battle","resolution":"Peace"},
+             "worldSetting":{"primaryLocations":"Citadels","timePeriod":"Embers","culturalContext":"Clans",
+                             "rulesAndMagic":"Bonds","atmosphere":"Smoky"},
+             "keyPlotPoints":["Wound"]}""";
+
+    private final StreamingJsonParser parser = new StreamingJsonParser(new ObjectMapper());
+
+    @Test
+    void shouldEmitNestedRecordsBeforeTheirParent() {
+        StepVerifier.create(parser.blueprint(chunked(BLUEPRINT, 7)))
+                .assertNext(record -> assertThat(record).isEqualTo(new StoryBlueprint.CharacterProfile(
+                        "Aria", "Rider", "Fierce", "Avenge", "Ember", "Trust")))
+                .assertNext(record -> assertThat(record).isEqualTo(new StoryBlueprint.WorldSetting(
+                        "Citadels", "Embers", "Clans", "Bonds", "Smoky")))
+                .assertNext(record -> assertThat(record).isInstanceOfSatisfying(StoryBlueprint.class,
+                        blueprint -> assertThat(blueprint.title()).isEqualTo("Quest")))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldEmitCharacterAsSoonAsItsObjectCloses() {
+        Sinks.Many<String> tokens = Sinks.many().unicast().onBackpressureBuffer();
+        int characterEnd = BLUEPRINT.indexOf("}]") + 1;
+
+        StepVerifier.create(parser.blueprint(tokens.asFlux()))
+                .then(() -> tokens.tryEmitNext(BLUEPRINT.substring(0, characterEnd)))
+                .assertNext(record -> assertThat(record).isInstanceOf(StoryBlueprint.CharacterProfile.class))
+                .then(() -> {
+                    tokens.tryEmitNext(BLUEPRINT.substring(characterEnd));
+                    tokens.tryEmitComplete();
+                })
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldParseSeparateSceneObjectsSurroundedByProse() {
+        String output = """
+                Here are your scenes:
+                ```json
+                {"order":1,"title":"Arrival","setting":{"position":"Exterior","location":"Gate","time":"Dawn"},
+                 "texts":[{"type":"narration","text":"The gate opens {slowly}."},
+                          {"type":"dialogue","character":"Aria","tone":"warm","text":"Home."}]}
+                ```
+                {"order":2,"title":"Duel","setting":{"position":"Interior","location":"Hall","time":"Night"},"texts":[]}
+                Enjoy!""";
+
+        List<StoryRecord> records = new ArrayList<>();
+        StepVerifier.create(parser.scenes(chunked(output, 5)))
+                .recordWith(() -> records)
+                .expectNextCount(6)
+                .verifyComplete();
+
+        assertThat(records).containsExactly(
+                new Setting("Exterior", "Gate", "Dawn"),
+                new Text("narration", null, null, "The gate opens {slowly}."),
+                new Text("dialogue", "Aria", "warm", "Home."),
+                new Scene(1, "Arrival", new Setting("Exterior", "Gate", "Dawn"), List.of(
+                        new Text("narration", null, null, "The gate opens {slowly}."),
+                        new Text("dialogue", "Aria", "warm", "Home."))),
+                new Setting("Interior", "Hall", "Night"),
+                new Scene(2, "Duel", new Setting("Interior", "Hall", "Night"), List.of()));
+    }
+
+    @Test
+    void shouldParseScenesWrappedInArray() {
+        String output = "[{\"order\":1,\"title\":\"A\",\"texts\":[]},{\"order\":2,\"title\":\"B\",\"texts\":[]}]";
+
+        StepVerifier.create(parser.scenes(chunked(output, 3)))
+                .expectNext(new Scene(1, "A", null, List.of()))
+                .expectNext(new Scene(2, "B", null, List.of()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRecoverFromMalformedObject() {
+        String output = "{\"order\":1,,}\n{\"order\":2,\"title\":\"B\",\"texts\":[]}";
+
+        StepVerifier.create(parser.scenes(Flux.just(output.substring(0, 13), output.substring(13))))
+                .expectNext(new Scene(2, "B", null, List.of()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSkipRestOfMalformedSceneBeforeResuming() {
+        String output = "{\"order\":1,\"title\":\"A\",,\"setting\":{\"position\":\"Exterior\",\"location\":\"Gate\","
+                + "\"time\":\"Dawn\"},\"texts\":[{\"type\":\"narration\",\"text\":\"The {gate} opens.\"}]}\n"
+                + "{\"order\":2,\"title\":\"B\",\"texts\":[]}";
+
+        StepVerifier.create(parser.scenes(chunked(output, 5)))
+                .expectNext(new Scene(2, "B", null, List.of()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSkipObjectThatDoesNotMatchItsRecord() {
+        String output = "{\"order\":\"first\",\"texts\":[]}\n{\"order\":2,\"title\":\"B\",\"texts\":[]}";
+
+        StepVerifier.create(parser.scenes(chunked(output, 7)))
+                .expectNext(new Scene(2, "B", null, List.of()))
+                .verifyComplete();
+    }
+
+    private static Flux<String> chunked(String text, int size) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += size) {
+            chunks.add(text.substring(i, Math.min(text.length(), i + size)));
+        }
+        return Flux.fromIterable(chunks);
+    }
+}
@@ -0,0 +1,147 @@
+package xlr.magas.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import xlr.magas.application.service.SceneGenerationEngine;
+import xlr.magas.application.service.ScenePromptAssembler;
+import xlr.magas.application.service.StorytellingOrchestrator;
+import xlr.magas.application.service.StreamingJsonParser;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.Text;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.domain.system.GodSystemProvider;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inputs sized like real model output: a four-character blueprint, a five-scene story built on it,
+ * and a chat stream with the empty role and finish chunks OpenAI sends around the content. Services
+ * are wired as in the application, with the model replaced by a plain {@link Flux} of canned chunks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static StoryBlueprint blueprint() {
+        return new StoryBlueprint(
+                "The Lantern Keepers",
+                "Fantasy",
+                "Wistful, hopeful",
+                List.of("Memory", "Sacrifice", "Belonging"),
+                List.of(
+                        character("Mira", "An apprentice lamplighter raised in the harbour district"),
+                        character("Oren", "A disgraced cartographer who mapped the drowned quarter"),
+                        character("Sefa", "The last speaker of the tide-language"),
+                        character("Captain Ilse Varn", "Commander of the lantern guard, loyal to a fault")),
+                new StoryBlueprint.StoryArc(
+                        "Every lantern in the harbour goes dark on the same night",
+                        "Mira and Oren search the drowned quarter for the source of the failure",
+                        "Sefa must trade her own memories to calm the tide",
+                        "The city chooses which memories to keep alight"),
+                new StoryBlueprint.WorldSetting(
+                        "Harbour district, the drowned quarter, the lighthouse archive",
+                        "An age of failing magic after the great flood",
+                        "Guilds keep the city's memory in lanterns lit each night",
+                        "A lantern left dark erases the memory it holds",
+                        "Fog, salt, lamplight on wet stone"),
+                List.of("The lanterns begin to fail", "Oren's map reveals a hidden archive",
+                        "Sefa bargains with the tide", "Mira relights the first lantern"));
+    }
+
+    static StoredStory storedStory() {
+        StoryBlueprint blueprint = blueprint();
+        String[] speakers = {"Mira", "Oren", "Sefa", "Captain Ilse Varn"};
+        String[] tones = {"urgent", "wry", "hushed", "resolute"};
+        List<Scene> scenes = new ArrayList<>();
+        for (int order = 1; order <= 5; order++) {
+            List<Text> texts = new ArrayList<>();
+            texts.add(new Text("narration", null, "hushed",
+                    "Fog rolled in over the harbour as the lanterns along the sea wall guttered one by one."));
+            for (int line = 0; line < 12; line++) {
+                texts.add(new Text("dialogue", speakers[line % speakers.length], tones[(line + order) % tones.length],
+                        "If the lanterns go dark tonight, the city forgets everything it promised to remember."));
+            }
+            scenes.add(new Scene(order, blueprint.keyPlotPoints().get(order % 4),
+                    new Setting("Exterior", "Harbour district", "Night"), texts, "/api/v1/images/scene-" + order));
+        }
+        return new StoredStory("3f1c2b8e-5d4a-4f7e-9b1a-2c3d4e5f6a7b", "lanterns", "English",
+                Instant.parse("2024-01-01T12:30:00Z"), blueprint, "/api/v1/images/cover", new Story(scenes));
+    }
+
+    static String[] chatChunks(int count) {
+        List<String> chunks = new ArrayList<>(count + 2);
+        chunks.add("");
+        String[] words = {"The", " fog", " rolled", " in", " over", " the", " harbour", ",", " and", " Mira"};
+        for (int i = 0; i < count; i++) {
+            chunks.add(words[i % words.length]);
+        }
+        chunks.add("");
+        return chunks.toArray(String[]::new);
+    }
+
+    static List<String> chunked(String text, int size) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += size) {
+            chunks.add(text.substring(i, Math.min(text.length(), i + size)));
+        }
+        return chunks;
+    }
+
+    static ChatModelPort chatModelPort(List<String> chunks) {
+        return new ChatModelPort() {
+            @Override
+            public Flux<String> askChatModel(String system, String user) {
+                return Flux.fromIterable(chunks);
+            }
+
+            @Override
+            public Flux<String> askChatModel(String system, String user, int maxTokens) {
+                return Flux.fromIterable(chunks);
+            }
+        };
+    }
+
+    static ChatModel chatModel(String[] chunks) {
+        List<ChatResponse> responses = new ArrayList<>(chunks.length);
+        for (String chunk : chunks) {
+            responses.add(new ChatResponse(List.of(new Generation(chunk))));
+        }
+        return new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                throw new UnsupportedOperationException("Benchmarks only stream");
+            }
+
+            @Override
+            public Flux<ChatResponse> stream(Prompt prompt) {
+                return Flux.fromIterable(responses);
+            }
+        };
+    }
+
+    static StorytellingOrchestrator orchestrator(ChatModelPort chatModelPort, ObjectMapper objectMapper) {
+        SceneGenerationEngine sceneGenerationEngine = new SceneGenerationEngine(chatModelPort,
+                new ScenePromptAssembler(objectMapper), objectMapper, 4, 4);
+        return new StorytellingOrchestrator(chatModelPort, new GodSystemProvider(), objectMapper,
+                sceneGenerationEngine, new StreamingJsonParser(objectMapper));
+    }
+
+    private static StoryBlueprint.CharacterProfile character(String name, String background) {
+        return new StoryBlueprint.CharacterProfile(name, background,
+                "Curious, stubborn and quietly kind",
+                "To keep the city from forgetting itself",
+                "Bound to the others by an old debt to the lighthouse",
+                "Learns that letting some memories go is its own kind of keeping");
+    }
+}
@@ -0,0 +1,62 @@
+package xlr.magas.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xlr.magas.application.service.StorytellingOrchestrator;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoryRecord;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blueprint round trip through the shared {@link ObjectMapper}: parsing the model's JSON once per
+ * story and writing it back out in the blueprint event. {@code stream} parses the same JSON as it
+ * arrives from the model in token-sized chunks, the way stories are narrated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlueprintJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private StorytellingOrchestrator orchestrator;
+    private StoryBlueprint blueprint;
+    private String json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        blueprint = BenchmarkFixtures.blueprint();
+        json = objectMapper.writeValueAsString(blueprint);
+        orchestrator = BenchmarkFixtures.orchestrator(
+                BenchmarkFixtures.chatModelPort(BenchmarkFixtures.chunked(json, 4)), objectMapper);
+    }
+
+    @Benchmark
+    public StoryBlueprint parse() {
+        return orchestrator.parseStoryBlueprint(json);
+    }
+
+    @Benchmark
+    public StoryRecord stream() {
+        return orchestrator.streamStoryBlueprint("lanterns", "English").blockLast();
+    }
+
+    @Benchmark
+    public String write() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(blueprint);
+    }
+}
@@ -0,0 +1,55 @@
+package xlr.magas.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.ai.chat.client.ChatClient;
+import xlr.magas.infrastructure.out.openai.OpenAIChatAdapter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-chunk cost of {@link OpenAIChatAdapter#askChatModel}, from the chat model's responses through
+ * the real {@link ChatClient} to the filtered token flux. The client is built as in
+ * {@code ChatRoutingConfig}, over a model that replays a plain flux of canned responses. Building
+ * the prompt is a fixed cost per call; compare the two chunk counts to see the per-chunk cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatStreamBenchmark {
+
+    // Up to a full completion at the default chat.tokens.max-completion of 4000.
+    @Param({"256", "4096"})
+    int chunks;
+
+    private OpenAIChatAdapter adapter;
+
+    @Setup
+    public void setUp() {
+        adapter = new OpenAIChatAdapter(ChatClient.builder(
+                BenchmarkFixtures.chatModel(BenchmarkFixtures.chatChunks(chunks))));
+    }
+
+    @Benchmark
+    public void stream(Blackhole blackhole) {
+        adapter.askChatModel("system", "user").subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamWithMaxTokens(Blackhole blackhole) {
+        adapter.askChatModel("system", "user", 1024).subscribe(blackhole::consume);
+    }
+}
@@ -0,0 +1,69 @@
+package xlr.magas.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xlr.magas.application.service.ScenePromptAssembler;
+import xlr.magas.application.service.StorytellingOrchestrator;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.system.CharacterSystemProvider;
+import xlr.magas.domain.system.NarratorSystemProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * System prompt building done for every story: one narrator prompt and one prompt per character.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptAssemblyBenchmark {
+
+    private StoryBlueprint blueprint;
+    private StorytellingOrchestrator orchestrator;
+    private ScenePromptAssembler assembler;
+    private CharacterSystemProvider character;
+    private NarratorSystemProvider narrator;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        blueprint = BenchmarkFixtures.blueprint();
+        orchestrator = BenchmarkFixtures.orchestrator(BenchmarkFixtures.chatModelPort(List.of()), objectMapper);
+        assembler = new ScenePromptAssembler(objectMapper);
+        character = orchestrator.createCharacterSystems(blueprint)[0];
+        narrator = new NarratorSystemProvider(blueprint.toString());
+    }
+
+    @Benchmark
+    public CharacterSystemProvider[] createCharacterSystems() {
+        return orchestrator.createCharacterSystems(blueprint);
+    }
+
+    @Benchmark
+    public String characterSystemMessage() {
+        return character.getSystemMessage();
+    }
+
+    @Benchmark
+    public String narratorSystemMessage() {
+        return narrator.getSystemMessage();
+    }
+
+    @Benchmark
+    public String compactNarratorSystemMessage() {
+        return assembler.narratorSystemMessage(blueprint);
+    }
+}
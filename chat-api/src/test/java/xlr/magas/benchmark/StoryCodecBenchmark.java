@@ -0,0 +1,72 @@
+package xlr.magas.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.infrastructure.out.store.StoryCodec;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A stored five-scene story through {@link StoryCodec} and through Jackson, as the story store
+ * would write and read it. The encoded size of each is logged when the benchmark starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoryCodecBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(StoryCodecBenchmark.class);
+
+    private StoryCodec codec;
+    private ObjectMapper objectMapper;
+    private StoredStory story;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = new StoryCodec();
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        story = BenchmarkFixtures.storedStory();
+        binary = codec.encodeStory(story);
+        json = objectMapper.writeValueAsBytes(story);
+        log.info("Encoded story: {} bytes binary, {} bytes JSON", binary.length, json.length);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return codec.encodeStory(story);
+    }
+
+    @Benchmark
+    public StoredStory binaryDecode() {
+        return codec.decodeStory(binary, 0, binary.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return objectMapper.writeValueAsBytes(story);
+    }
+
+    @Benchmark
+    public StoredStory jsonDecode() throws IOException {
+        return objectMapper.readValue(json, StoredStory.class);
+    }
+}
@@ -19,4 +19,15 @@ class SceneTest {
         assertThat(scene.setting()).isEqualTo(setting);
         assertThat(scene.texts()).isEqualTo(texts);
     }
+
+    @Test
+    void shouldAttachImageWithoutChangingContent() {
+        Scene scene = new Scene(1, "Chapter 1", new Setting("Day", "Forest", "Noon"), List.of());
+
+        Scene illustrated = scene.withImage("/api/v1/images/abc");
+
+        assertThat(scene.image()).isNull();
+        assertThat(illustrated.image()).isEqualTo("/api/v1/images/abc");
+        assertThat(illustrated.withImage(null)).isEqualTo(scene);
+    }
 }
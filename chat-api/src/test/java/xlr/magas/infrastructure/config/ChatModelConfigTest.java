@@ -0,0 +1,97 @@
+package xlr.magas.infrastructure.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.unit.DataSize;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.infrastructure.out.admission.AdmissionChatModelAdapter;
+import xlr.magas.infrastructure.out.admission.AdmissionController;
+import xlr.magas.infrastructure.out.cache.CachingChatModelAdapter;
+import xlr.magas.infrastructure.out.openai.OpenAIChatAdapter;
+import xlr.magas.infrastructure.out.resilience.ResilientChatModelAdapter;
+import xlr.magas.infrastructure.out.routing.RoutingChatModelAdapter;
+import xlr.magas.infrastructure.out.tokens.CancellationTrackingChatModelAdapter;
+import xlr.magas.infrastructure.out.tokens.TokenBudgetingChatModelAdapter;
+import xlr.magas.infrastructure.out.tokens.TokenCounter;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ChatModelConfigTest {
+
+    private final ChatModelConfig config = new ChatModelConfig();
+    private final TokenCounter tokenCounter = new TokenCounter("gpt-4o");
+    private final AdmissionController admissionController = config.chatAdmissionController(
+            "gpt-4o", 30_000, 500, 64, Duration.ofSeconds(10));
+    private final AdmissionChatModelAdapter upstream = config.admissionChatModelAdapter(
+            new CancellationTrackingChatModelAdapter(mock(OpenAIChatAdapter.class), 4000), tokenCounter,
+            admissionController, 4000);
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<EmbeddingModel> embeddingModel = mock(ObjectProvider.class);
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<RoutingChatModelAdapter> routing = mock(ObjectProvider.class);
+
+    @Test
+    void shouldBudgetTokensWhenCacheDisabled() {
+        ChatModelPort port = chatModelPort(false);
+
+        assertThat(port).isInstanceOf(TokenBudgetingChatModelAdapter.class);
+    }
+
+    @Test
+    void shouldWrapAdapterWithCacheWhenEnabled() {
+        ChatModelPort port = chatModelPort(true);
+
+        assertThat(port).isInstanceOf(CachingChatModelAdapter.class);
+    }
+
+    @Test
+    void shouldWrapOpenAiAdapterWithResilienceThenCancellationTracking() {
+        ResilientChatModelAdapter resilient = config.resilientChatModelAdapter(mock(OpenAIChatAdapter.class), routing, new SimpleMeterRegistry(),
+                Duration.ofSeconds(20), Duration.ofSeconds(45), 3, Duration.ofMillis(500), Duration.ZERO, 5, Duration.ofSeconds(30));
+
+        assertThat(config.cancellationTrackingChatModelAdapter(resilient, new SimpleMeterRegistry(), 4000))
+                .isInstanceOf(CancellationTrackingChatModelAdapter.class);
+    }
+
+    @Test
+    void shouldPublishCancellationSavingsAsCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        config.cancellationTrackingChatModelAdapter(mock(ResilientChatModelAdapter.class), registry, 4000);
+
+        assertThat(registry.get("chat.cancelled.streams").functionCounter().count()).isZero();
+        assertThat(registry.get("chat.cancelled.tokens.saved").functionCounter().count()).isZero();
+        assertThat(registry.get("chat.cancelled.tokens.avoided.max").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void shouldSummarizeWithSeparateModelUnderChatAdmission() {
+        ChatModelPort primary = chatModelPort(false);
+
+        ChatModelPort summary = config.summaryChatModelPort(primary, mock(ChatClient.Builder.class), admissionController,
+                tokenCounter, new SimpleMeterRegistry(), "gpt-4o-mini", 300);
+
+        assertThat(summary).isInstanceOf(AdmissionChatModelAdapter.class).isNotSameAs(upstream);
+    }
+
+    @Test
+    void shouldSummarizeWithPrimaryPortWhenNoSummaryModelIsSet() {
+        ChatModelPort primary = chatModelPort(false);
+
+        assertThat(config.summaryChatModelPort(primary, mock(ChatClient.Builder.class), admissionController,
+                tokenCounter, new SimpleMeterRegistry(), "", 300)).isSameAs(primary);
+    }
+
+    private ChatModelPort chatModelPort(boolean cacheEnabled) {
+        return config.chatModelPort(upstream, tokenCounter, embeddingModel, 4000, 256, false,
+                cacheEnabled, DataSize.ofMegabytes(1), Duration.ofHours(1), Duration.ZERO, true, 0.97, 100);
+    }
+}
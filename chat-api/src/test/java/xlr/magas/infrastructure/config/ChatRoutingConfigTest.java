@@ -0,0 +1,54 @@
+package xlr.magas.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import xlr.magas.infrastructure.out.routing.ChatBackend;
+import xlr.magas.infrastructure.out.routing.RoutingChatModelAdapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatRoutingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ChatRoutingConfig.class)
+            .withBean(ClientHttpRequestFactory.class, SimpleClientHttpRequestFactory::new)
+            .withBean(ClientHttpConnector.class, ReactorClientHttpConnector::new);
+
+    @Test
+    void shouldNotRouteByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(RoutingChatModelAdapter.class));
+    }
+
+    @Test
+    void shouldBuildOneBackendPerConfiguredEndpoint() {
+        contextRunner
+                .withPropertyValues(
+                        "chat.routing.enabled=true",
+                        "chat.routing.backends[0].name=primary",
+                        "chat.routing.backends[0].base-url=https://api.openai.com",
+                        "chat.routing.backends[0].api-key=sk-primary",
+                        "chat.routing.backends[0].model=gpt-4o",
+                        "chat.routing.backends[0].weight=3",
+                        "chat.routing.backends[0].requests-per-minute=500",
+                        "chat.routing.backends[1].name=local",
+                        "chat.routing.backends[1].base-url=http://localhost:11434",
+                        "chat.routing.backends[1].model=llama3")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(RoutingChatModelAdapter.class);
+                    assertThat(context.getBean(RoutingChatModelAdapter.class).backends())
+                            .extracting(ChatBackend::name)
+                            .containsExactly("primary", "local");
+                });
+    }
+
+    @Test
+    void shouldFailWhenEnabledWithoutBackends() {
+        contextRunner
+                .withPropertyValues("chat.routing.enabled=true")
+                .run(context -> assertThat(context).hasFailed());
+    }
+}
@@ -0,0 +1,37 @@
+package xlr.magas.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientConfigTest {
+
+    private final HttpClientConfig config = new HttpClientConfig(
+            Duration.ofSeconds(5), Duration.ofSeconds(30), 50, Duration.ofSeconds(60));
+
+    @Test
+    void shouldCreateRestTemplate() {
+        ClientHttpRequestFactory requestFactory = config.upstreamRequestFactory();
+        RestTemplate restTemplate = config.restTemplate(requestFactory);
+
+        assertThat(requestFactory).isInstanceOf(JdkClientHttpRequestFactory.class);
+        assertThat(restTemplate.getRequestFactory()).isSameAs(requestFactory);
+    }
+
+    @Test
+    void shouldCreatePooledWebClient() {
+        ClientHttpConnector connector = config.upstreamConnector();
+        WebClient webClient = config.webClient(connector);
+
+        assertThat(connector).isInstanceOf(ReactorClientHttpConnector.class);
+        assertThat(webClient).isNotNull();
+    }
+}
@@ -0,0 +1,51 @@
+package xlr.magas.infrastructure.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import xlr.magas.domain.ports.out.ImageModelPort;
+import xlr.magas.infrastructure.out.admission.AdmissionImageModelAdapter;
+import xlr.magas.infrastructure.out.cache.CachingImageModelAdapter;
+import xlr.magas.infrastructure.out.cache.FileImageStore;
+import xlr.magas.infrastructure.out.openai.OpenAIImageAdapter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageModelConfigTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(90);
+    private static final Duration DEADLINE = Duration.ofSeconds(150);
+
+    @TempDir
+    Path directory;
+
+    private final ImageModelConfig config = new ImageModelConfig();
+    private final OpenAIImageAdapter openAIImageAdapter =
+            new OpenAIImageAdapter(new RestTemplate(), WebClient.create(), "test-key", "dall-e-3", "1024x1024");
+
+    @Test
+    void shouldWrapAdapterWithCacheWhenEnabled() {
+        ImageModelPort port = config.imageModelPort(openAIImageAdapter, store(), WebClient.create(), new SimpleMeterRegistry(),
+                true, "dall-e-3", "1024x1024", "/api/v1/images", TIMEOUT, DEADLINE, 2, Duration.ofSeconds(1), 5, DEADLINE, 5, 16, DEADLINE);
+
+        assertThat(port).isInstanceOf(CachingImageModelAdapter.class);
+    }
+
+    @Test
+    void shouldApplyAdmissionOverResilienceWhenCacheDisabled() {
+        ImageModelPort port = config.imageModelPort(openAIImageAdapter, store(), WebClient.create(), new SimpleMeterRegistry(),
+                false, "dall-e-3", "1024x1024", "/api/v1/images", TIMEOUT, DEADLINE, 2, Duration.ofSeconds(1), 5, DEADLINE, 5, 16, DEADLINE);
+
+        assertThat(port).isInstanceOf(AdmissionImageModelAdapter.class);
+    }
+
+    private FileImageStore store() {
+        return new FileImageStore(directory, DataSize.ofMegabytes(1));
+    }
+}
@@ -20,4 +20,14 @@ class OpenApiConfigTest {
         assertThat(openAPI.getInfo().getLicense()).isNotNull();
         assertThat(openAPI.getInfo().getLicense().getName()).isEqualTo("Apache 2.0");
     }
+
+    @Test
+    void shouldShareCorsConfigurationAcrossStacks() {
+        OpenApiConfig config = new OpenApiConfig();
+
+        assertThat(config.corsConfigurationSource()).isNotNull();
+        assertThat(OpenApiConfig.corsConfiguration().getAllowedOriginPatterns()).containsExactly("*");
+        assertThat(OpenApiConfig.corsConfiguration().getAllowedMethods()).contains("GET", "OPTIONS");
+        assertThat(OpenApiConfig.corsConfiguration().getAllowCredentials()).isTrue();
+    }
 }
@@ -0,0 +1,55 @@
+package xlr.magas.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PictureCallExecutorTest {
+
+    @Test
+    void shouldSubscribeNonBlockingCallsWhereTheyAreSubscribed() {
+        PictureCallExecutor executor = new PictureCallExecutor(2);
+
+        Thread thread = executor.run(Mono.fromCallable(Thread::currentThread)).block();
+
+        assertThat(thread).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondMaxConcurrency() {
+        PictureCallExecutor executor = new PictureCallExecutor(1);
+        Sinks.One<String> pending = Sinks.one();
+
+        StepVerifier.create(executor.run(pending.asMono()))
+                .then(() -> StepVerifier.create(executor.run(Mono.just("second")))
+                        .expectError(RejectedExecutionException.class)
+                        .verify())
+                .then(() -> pending.tryEmitValue("first"))
+                .expectNext("first")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReleasePermitWhenCallCompletes() {
+        PictureCallExecutor executor = new PictureCallExecutor(1);
+
+        StepVerifier.create(executor.run(Mono.just("first"))).expectNext("first").verifyComplete();
+        StepVerifier.create(executor.run(Mono.just("second"))).expectNext("second").verifyComplete();
+    }
+
+    @Test
+    void shouldReleasePermitWhenCallErrors() {
+        PictureCallExecutor executor = new PictureCallExecutor(1);
+
+        StepVerifier.create(executor.run(Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(executor.run(Mono.just("next"))).expectNext("next").verifyComplete();
+    }
+}
@@ -0,0 +1,58 @@
+package xlr.magas.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import reactor.core.publisher.Mono;
+import xlr.magas.infrastructure.in.web.ClientIdentityFilter;
+
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveWebConfigTest {
+
+    private final ReactiveWebConfig config = new ReactiveWebConfig();
+
+    @Test
+    void shouldServeWithNetty() {
+        assertThat(config.nettyReactiveWebServerFactory()).isInstanceOf(NettyReactiveWebServerFactory.class);
+    }
+
+    @Test
+    void shouldAnswerCorsPreflight() {
+        CorsWebFilter filter = config.corsWebFilter();
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.options("http://localhost:8080/api/v1/chat")
+                        .header("Origin", "http://localhost:3000")
+                        .header("Access-Control-Request-Method", "GET"));
+
+        filter.filter(exchange, ex -> Mono.empty()).block();
+
+        assertThat(exchange.getResponse().getHeaders().getAccessControlAllowOrigin()).isEqualTo("http://localhost:3000");
+        assertThat(exchange.getResponse().getHeaders().getAccessControlAllowCredentials()).isTrue();
+    }
+
+    @Test
+    void shouldRecordClientIdentityFromTrustedHeader() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("http://localhost:8080/api/v1/chat").header("X-Client-Id", "alice"));
+
+        config.clientIdentityWebFilter(true).filter(exchange, ex -> Mono.empty()).block();
+
+        assertThat(exchange.<String>getAttribute(ClientIdentityFilter.ATTRIBUTE)).isEqualTo("alice");
+    }
+
+    @Test
+    void shouldRecordRemoteAddressWhenHeaderIsNotTrusted() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("http://localhost:8080/api/v1/chat").header("X-Client-Id", "alice")
+                        .remoteAddress(new InetSocketAddress("10.0.0.7", 52000)));
+
+        config.clientIdentityWebFilter(false).filter(exchange, ex -> Mono.empty()).block();
+
+        assertThat(exchange.<String>getAttribute(ClientIdentityFilter.ATTRIBUTE)).isEqualTo("10.0.0.7");
+    }
+}
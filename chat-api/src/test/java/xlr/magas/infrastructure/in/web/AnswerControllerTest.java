@@ -1,22 +1,38 @@
 package xlr.magas.infrastructure.in.web;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.ports.in.ContinueConversationUseCase;
 import xlr.magas.domain.ports.in.GenerateStoryUseCase;
 
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AnswerController.class)
+@Import({ResumableStreams.class, SimpleMeterRegistry.class})
 class AnswerControllerTest {
 
     @Autowired
@@ -25,28 +41,66 @@ class AnswerControllerTest {
     @MockBean
     private GenerateStoryUseCase generateStoryUseCase;
 
+    @MockBean
+    private ContinueConversationUseCase continueConversationUseCase;
+
     @Test
     void shouldReturnStreamingAnswer() throws Exception {
-        Flux<String> mockStream = Flux.just(
-            "data: Once",
-            "data:  upon",
-            "data:  a",
-            "data:  time",
-            "data: [DONE]"
-        );
+        Flux<String> mockStream = Flux.just("Once", " upon", " a", " time");
         when(generateStoryUseCase.generateStory(anyString(), anyString())).thenReturn(mockStream);
 
-        mockMvc.perform(get("/chat").param("question", "Tell me a story").param("language", "English"))
+        MvcResult result = mockMvc.perform(get("/chat").param("question", "Tell me a story").param("language", "English"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM_VALUE));
     }
 
+    @Test
+    void shouldFrameEachTokenAsSingleEvent() throws Exception {
+        when(generateStoryUseCase.generateStory(eq("Hello"), anyString())).thenReturn(Flux.just("Once", " upon"));
+
+        MvcResult result = mockMvc.perform(get("/chat").param("question", "Hello"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(content().string(matchesPattern(
+                        "id:[0-9a-f-]{36}:0\ndata: Once\n\nid:[0-9a-f-]{36}:1\ndata:  upon\n\ndata: \\[DONE]\n\n")));
+    }
+
+    @Test
+    void shouldReplayAfterLastEventIdWithoutGeneratingAgain() throws Exception {
+        when(generateStoryUseCase.generateStory(eq("Hello"), anyString())).thenReturn(Flux.just("Once", " upon", " a"));
+
+        MvcResult first = mockMvc.perform(get("/chat").param("question", "Hello"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(first)).andReturn().getResponse().getContentAsString();
+        String firstId = body.substring("id:".length(), body.indexOf('\n'));
+
+        MvcResult resumed = mockMvc.perform(get("/chat").param("question", "Hello").header("Last-Event-ID", firstId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resumed))
+                .andExpect(content().string(matchesPattern(
+                        "id:[0-9a-f-]{36}:1\ndata:  upon\n\nid:[0-9a-f-]{36}:2\ndata:  a\n\ndata: \\[DONE]\n\n")));
+        verify(generateStoryUseCase, times(1)).generateStory(eq("Hello"), anyString());
+    }
+
     @Test
     void shouldHandleEmptyQuestionWithDefault() throws Exception {
-        Flux<String> mockStream = Flux.just("data: Hello", "data: [DONE]");
-        when(generateStoryUseCase.generateStory(anyString(), anyString())).thenReturn(mockStream);
+        Flux<String> mockStream = Flux.just("Hello");
+        when(generateStoryUseCase.generateStory(eq("Tell me a joke"), eq("English"))).thenReturn(mockStream);
 
-        mockMvc.perform(get("/chat"))
+        MvcResult result = mockMvc.perform(get("/chat"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM_VALUE));
     }
@@ -59,4 +113,45 @@ class AnswerControllerTest {
         mockMvc.perform(get("/chat").param("question", "Hello"))
                 .andExpect(status().isOk()); // SSE streams return 200 even with errors
     }
+
+    @Test
+    void shouldContinueConversationWhenIdIsGiven() throws Exception {
+        when(continueConversationUseCase.continueConversation("c-1", "And then?", "English"))
+                .thenReturn(Flux.just("The", " end"));
+
+        MvcResult result = mockMvc.perform(get("/chat").param("question", "And then?").param("conversation", "c-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(content().string(matchesPattern(
+                        "id:[0-9a-f-]{36}:0\ndata: The\n\nid:[0-9a-f-]{36}:1\ndata:  end\n\ndata: \\[DONE]\n\n")));
+        verifyNoInteractions(generateStoryUseCase);
+    }
+
+    @Test
+    void shouldAnswerNotFoundForUnknownConversation() throws Exception {
+        when(continueConversationUseCase.continueConversation(anyString(), anyString(), anyString()))
+                .thenReturn(Flux.error(new NoSuchElementException("No conversation guessed")));
+
+        MvcResult result = mockMvc.perform(get("/chat").param("question", "Hello").param("conversation", "guessed"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldStartConversationWithServerMintedId() throws Exception {
+        when(continueConversationUseCase.startConversation()).thenReturn(Mono.just("3f2c1a9e-0b7d-4e55-9a61-2d8c4b7e1f03"));
+
+        MvcResult result = mockMvc.perform(post("/chat/conversations"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("3f2c1a9e-0b7d-4e55-9a61-2d8c4b7e1f03"));
+    }
 }
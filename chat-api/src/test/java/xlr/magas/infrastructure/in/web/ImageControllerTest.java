@@ -0,0 +1,78 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import xlr.magas.infrastructure.out.cache.FileImageStore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ImageController.class)
+class ImageControllerTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FileImageStore fileImageStore;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldServeStoredImage() throws Exception {
+        Path blob = Files.write(directory.resolve(HASH + ".png"), new byte[]{1, 2, 3});
+        when(fileImageStore.find(HASH)).thenReturn(Optional.of(blob));
+
+        mockMvc.perform(get("/images/" + HASH))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}))
+                .andExpect(header().string("ETag", "\"" + HASH + "\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingETag() throws Exception {
+        Path blob = Files.write(directory.resolve(HASH + ".png"), new byte[]{1, 2, 3});
+        when(fileImageStore.find(HASH)).thenReturn(Optional.of(blob));
+
+        mockMvc.perform(get("/images/" + HASH).header("If-None-Match", "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void shouldServeRequestedByteRange() throws Exception {
+        Path blob = Files.write(directory.resolve(HASH + ".png"), new byte[]{1, 2, 3, 4, 5});
+        when(fileImageStore.find(HASH)).thenReturn(Optional.of(blob));
+
+        mockMvc.perform(get("/images/" + HASH).header("Range", "bytes=1-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 1-3/5"))
+                .andExpect(content().bytes(new byte[]{2, 3, 4}));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownImage() throws Exception {
+        when(fileImageStore.find(anyString())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/images/" + HASH))
+                .andExpect(status().isNotFound());
+    }
+}
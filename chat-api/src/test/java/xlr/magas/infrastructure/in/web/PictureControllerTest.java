@@ -4,16 +4,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.domain.admission.ClientContext;
 import xlr.magas.domain.ports.in.GenerateImageUseCase;
+import xlr.magas.infrastructure.config.PictureCallExecutor;
+
+import java.time.Duration;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PictureController.class)
+@Import(PictureCallExecutor.class)
 class PictureControllerTest {
 
     @Autowired
@@ -27,9 +39,13 @@ class PictureControllerTest {
         String prompt = "A cute cat";
         String expectedUrl = "http://example.com/cat.jpg";
 
-        when(generateImageUseCase.generateImage(prompt)).thenReturn(expectedUrl);
+        when(generateImageUseCase.generateImageAsync(prompt)).thenReturn(Mono.just(expectedUrl));
+
+        MvcResult result = mockMvc.perform(get("/picture").param("prompt", prompt))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        mockMvc.perform(get("/picture").param("prompt", prompt))
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("ok"))
                 .andExpect(jsonPath("$.url").value(expectedUrl));
@@ -40,11 +56,46 @@ class PictureControllerTest {
         String prompt = "A bad prompt";
         String errorMessage = "Something went wrong";
 
-        when(generateImageUseCase.generateImage(anyString())).thenThrow(new RuntimeException(errorMessage));
+        when(generateImageUseCase.generateImageAsync(anyString())).thenReturn(Mono.error(new RuntimeException(errorMessage)));
 
-        mockMvc.perform(get("/picture").param("prompt", prompt))
+        MvcResult result = mockMvc.perform(get("/picture").param("prompt", prompt))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("error"))
                 .andExpect(jsonPath("$.message").value(errorMessage));
     }
+
+    @Test
+    void shouldQueueUnderClientAddressIgnoringUntrustedHeader() throws Exception {
+        when(generateImageUseCase.generateImageAsync(anyString())).thenReturn(Mono.deferContextual(context ->
+                Mono.just("http://example.com/" + context.get(ClientContext.KEY) + ".jpg")));
+
+        MvcResult result = mockMvc.perform(get("/picture").param("prompt", "A cat").header("X-Client-Id", "alice")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.7");
+                            return request;
+                        }))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(jsonPath("$.url").value("http://example.com/10.0.0.7.jpg"));
+    }
+
+    @Test
+    void shouldAnswerTooManyRequestsWhenRejected() throws Exception {
+        when(generateImageUseCase.generateImageAsync(anyString()))
+                .thenReturn(Mono.error(new AdmissionRejectedException("picture:dall-e-3", Duration.ofSeconds(30))));
+
+        MvcResult result = mockMvc.perform(get("/picture").param("prompt", "A cat"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"));
+    }
 }
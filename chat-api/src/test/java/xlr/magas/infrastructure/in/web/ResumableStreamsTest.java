@@ -0,0 +1,115 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumableStreamsTest {
+
+    @TempDir
+    Path directory;
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private final ResumableStreams streams = new ResumableStreams(Duration.ofSeconds(10), Duration.ofMinutes(2),
+            64, 0, directory, 2, scheduler);
+
+    @Test
+    void shouldResumeAfterLastEventIdWhileUpstreamKeepsGenerating() {
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicInteger subscriptions = new AtomicInteger();
+        String[] lastId = new String[1];
+
+        StepVerifier.create(streams.open(null, () -> upstream.asFlux().doOnSubscribe(s -> subscriptions.incrementAndGet())))
+                .then(() -> upstream.tryEmitNext("Once"))
+                .assertNext(chunk -> lastId[0] = chunk.id())
+                .thenCancel()
+                .verify();
+        upstream.tryEmitNext(" upon");
+        scheduler.advanceTimeBy(Duration.ofSeconds(5));
+
+        StepVerifier.create(streams.open(lastId[0], () -> Flux.just("never used")).map(ResumableStreams.Chunk::text))
+                .expectNext(" upon")
+                .then(() -> upstream.tryEmitNext(" a"))
+                .expectNext(" a")
+                .then(upstream::tryEmitComplete)
+                .verifyComplete();
+        assertThat(subscriptions).hasValue(1);
+        assertThat(lastId[0]).endsWith(":0");
+    }
+
+    @Test
+    void shouldCancelUpstreamWhenNoClientReturnsWithinGrace() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        StepVerifier.create(streams.open(null, () -> Flux.<String>never().doOnCancel(() -> cancelled.set(true))))
+                .thenCancel()
+                .verify();
+        scheduler.advanceTimeBy(Duration.ofSeconds(9));
+        assertThat(cancelled).isFalse();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+        assertThat(cancelled).isTrue();
+        assertThat(streams.size()).isZero();
+    }
+
+    @Test
+    void shouldKeepFinishedStreamsForRetention() {
+        StepVerifier.create(streams.open(null, () -> Flux.just("Once"))).expectNextCount(1).verifyComplete();
+        assertThat(streams.size()).isEqualTo(1);
+
+        scheduler.advanceTimeBy(Duration.ofMinutes(2));
+
+        assertThat(streams.size()).isZero();
+    }
+
+    @Test
+    void shouldStartAFreshStreamForUnknownIds() {
+        StepVerifier.create(streams.open("unknown:3", () -> Flux.just("Once")).map(ResumableStreams.Chunk::text))
+                .expectNext("Once")
+                .verifyComplete();
+        StepVerifier.create(streams.open("garbage", () -> Flux.just("Twice")).map(ResumableStreams.Chunk::text))
+                .expectNext("Twice")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldDropTheOldestFinishedStreamBeyondTheCap() {
+        Sinks.Many<String> live = Sinks.many().unicast().onBackpressureBuffer();
+        StepVerifier.create(streams.open(null, live::asFlux)).thenCancel().verify();
+        String[] oldest = new String[1];
+        StepVerifier.create(streams.open(null, () -> Flux.just("first")))
+                .assertNext(chunk -> oldest[0] = chunk.id())
+                .verifyComplete();
+        StepVerifier.create(streams.open(null, () -> Flux.just("second"))).expectNextCount(1).verifyComplete();
+
+        assertThat(streams.size()).isEqualTo(2);
+        StepVerifier.create(streams.open(oldest[0].replaceAll(":0$", ":-1"), () -> Flux.just("regenerated"))
+                        .map(ResumableStreams.Chunk::text))
+                .expectNext("regenerated")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotResumeAStreamThatHasExpired() {
+        String[] id = new String[1];
+        StepVerifier.create(streams.open(null, () -> Flux.just("Once", " upon")))
+                .assertNext(chunk -> id[0] = chunk.id())
+                .thenCancel()
+                .verify();
+        scheduler.advanceTimeBy(Duration.ofMinutes(2));
+
+        StepVerifier.create(streams.open(id[0], () -> Flux.just("again")).map(ResumableStreams.Chunk::text))
+                .expectNext("again")
+                .verifyComplete();
+    }
+}
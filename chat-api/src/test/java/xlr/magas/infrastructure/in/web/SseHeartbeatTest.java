@@ -0,0 +1,41 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseHeartbeatTest {
+
+    @Test
+    void shouldSendHeartbeatsWhileStreamIsIdle() {
+        StepVerifier.withVirtualTime(() -> SseHeartbeat.withHeartbeat(
+                        Flux.just(ServerSentEvent.builder("token").build()).delaySubscription(Duration.ofSeconds(35)),
+                        Duration.ofSeconds(15)))
+                .thenAwait(Duration.ofSeconds(35))
+                .assertNext(event -> assertThat(event.comment()).isEqualTo("heartbeat"))
+                .assertNext(event -> assertThat(event.comment()).isEqualTo("heartbeat"))
+                .assertNext(event -> assertThat(event.data()).isEqualTo("token"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCancelUpstreamWhenClientDisconnects() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<ServerSentEvent<String>> upstream = Flux.<ServerSentEvent<String>>never()
+                .doOnCancel(() -> cancelled.set(true));
+
+        StepVerifier.withVirtualTime(() -> SseHeartbeat.withHeartbeat(upstream, Duration.ofSeconds(15)))
+                .thenAwait(Duration.ofSeconds(15))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        assertThat(cancelled).isTrue();
+    }
+}
@@ -0,0 +1,161 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryEvent;
+import xlr.magas.domain.model.StorySummary;
+import xlr.magas.domain.model.Text;
+import xlr.magas.domain.ports.in.NarrateStoryUseCase;
+import xlr.magas.domain.ports.in.ReadStoryUseCase;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(StoryController.class)
+class StoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NarrateStoryUseCase narrateStoryUseCase;
+
+    @MockBean
+    private ReadStoryUseCase readStoryUseCase;
+
+    @Test
+    void shouldStreamTypedStoryEvents() throws Exception {
+        var scene = new Scene(1, "Arrival", new Setting("Exterior", "Gate", "Dawn"), List.of());
+        var text = new Text("narration", null, null, "The gate opens.");
+        when(narrateStoryUseCase.narrateStory("dragons", "English", 5)).thenReturn(Flux.just(
+                StoryEvent.scene(scene),
+                StoryEvent.text(1, text),
+                StoryEvent.done(new Story(List.of(scene)))));
+
+        MvcResult result = mockMvc.perform(get("/story").param("topic", "dragons"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM_VALUE))
+                .andExpect(content().string(containsString(
+                        "event:scene\ndata:{\"order\":1,\"title\":\"Arrival\",\"setting\":{\"position\":\"Exterior\",\"location\":\"Gate\",\"time\":\"Dawn\"},\"texts\":[],\"image\":null}\n\n")))
+                .andExpect(content().string(containsString(
+                        "event:text\ndata:{\"scene\":1,\"text\":{\"type\":\"narration\",\"character\":null,\"tone\":null,\"text\":\"The gate opens.\"}}\n\n")))
+                .andExpect(content().string(containsString("event:done\ndata:{\"scenes\":[")));
+    }
+
+    @Test
+    void shouldPassLanguageAndSceneCount() throws Exception {
+        when(narrateStoryUseCase.narrateStory("dragons", "Spanish", 2)).thenReturn(Flux.empty());
+
+        MvcResult result = mockMvc.perform(get("/story").param("topic", "dragons")
+                        .param("language", "Spanish").param("scenes", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldEndWithErrorEventWhenGenerationFails() throws Exception {
+        when(narrateStoryUseCase.narrateStory("dragons", "English", 5))
+                .thenReturn(Flux.error(new IllegalStateException("The model did not return a story blueprint")));
+
+        MvcResult result = mockMvc.perform(get("/story").param("topic", "dragons"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(content().string(
+                        "event:error\ndata:{\"message\":\"The model did not return a story blueprint\"}\n\n"));
+    }
+
+    @Test
+    void shouldAnswerTooManyRequestsWhenRejectedBeforeFirstEvent() throws Exception {
+        when(narrateStoryUseCase.narrateStory("dragons", "English", 5))
+                .thenReturn(Flux.error(new AdmissionRejectedException("chat:gpt-4o", Duration.ofSeconds(12))));
+
+        MvcResult result = mockMvc.perform(get("/story").param("topic", "dragons"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+    }
+
+    @Test
+    void shouldRejectSceneCountsOutOfRange() throws Exception {
+        mockMvc.perform(get("/story").param("topic", "dragons").param("scenes", "500"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/story").param("topic", "dragons").param("scenes", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(narrateStoryUseCase);
+    }
+
+    @Test
+    void shouldReplayStoredStory() throws Exception {
+        var scene = new Scene(1, "Arrival", new Setting("Exterior", "Gate", "Dawn"), List.of());
+        when(readStoryUseCase.replayStory("42")).thenReturn(Flux.just(
+                StoryEvent.scene(scene),
+                StoryEvent.done(new Story(List.of(scene)))));
+
+        MvcResult result = mockMvc.perform(get("/story/42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:scene\ndata:{\"order\":1,")))
+                .andExpect(content().string(containsString("event:done\ndata:{\"scenes\":[")));
+    }
+
+    @Test
+    void shouldAnswerNotFoundForUnknownStory() throws Exception {
+        when(readStoryUseCase.replayStory("missing")).thenReturn(Flux.empty());
+
+        MvcResult result = mockMvc.perform(get("/story/missing"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldListStoredStoriesForTopic() throws Exception {
+        when(readStoryUseCase.findStories("dragons")).thenReturn(List.of(
+                new StorySummary("42", "dragons", "English", "The Last Ember", Instant.parse("2024-01-01T00:00:00Z"))));
+
+        mockMvc.perform(get("/story/search").param("topic", "dragons"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("42"))
+                .andExpect(jsonPath("$[0].title").value("The Last Ember"));
+    }
+}
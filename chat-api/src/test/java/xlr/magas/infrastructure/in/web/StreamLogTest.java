@@ -0,0 +1,91 @@
+package xlr.magas.infrastructure.in.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayThenFollowLiveChunks() {
+        StreamLog log = new StreamLog(16, 0, directory);
+        log.append("Once");
+        log.append(" upon");
+
+        StepVerifier.create(log.follow(1).map(StreamLog.Entry::chunk))
+                .expectNext(" upon")
+                .then(() -> log.append(" a"))
+                .expectNext(" a")
+                .then(log::complete)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldEndFollowersWithTheStreamError() {
+        StreamLog log = new StreamLog(16, 0, directory);
+        log.append("Once");
+        log.fail(new IllegalStateException("upstream failed"));
+
+        StepVerifier.create(log.follow(0).map(StreamLog.Entry::chunk))
+                .expectNext("Once")
+                .expectErrorMessage("upstream failed")
+                .verify();
+    }
+
+    @Test
+    void shouldOnlyReplayTheRingWithoutSpill() {
+        StreamLog log = appended(new StreamLog(4, 0, directory), 10);
+
+        assertThat(log.canReplayFrom(5)).isFalse();
+        assertThat(log.canReplayFrom(6)).isTrue();
+        assertThat(log.canReplayFrom(11)).isFalse();
+        StepVerifier.create(log.follow(6).map(StreamLog.Entry::chunk))
+                .expectNext("6", "7", "8", "9")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReplayEvictedChunksFromSpill() {
+        StreamLog log = appended(new StreamLog(4, 1024, directory), 10);
+
+        assertThat(log.canReplayFrom(0)).isTrue();
+        StepVerifier.create(log.follow(0).map(StreamLog.Entry::sequence))
+                .expectNext(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L)
+                .verifyComplete();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void shouldFallBackToTheRingWhenSpillOverflows() {
+        StreamLog log = appended(new StreamLog(4, 12, directory), 10);
+
+        assertThat(log.canReplayFrom(0)).isFalse();
+        assertThat(log.canReplayFrom(6)).isTrue();
+    }
+
+    @Test
+    void shouldHonourBackpressure() {
+        StreamLog log = appended(new StreamLog(16, 0, directory), 3);
+
+        StepVerifier.create(log.follow(0).map(StreamLog.Entry::chunk), 1)
+                .expectNext("0")
+                .thenRequest(2)
+                .expectNext("1", "2")
+                .verifyComplete();
+    }
+
+    private static StreamLog appended(StreamLog log, int chunks) {
+        for (int i = 0; i < chunks; i++) {
+            log.append(String.valueOf(i));
+        }
+        log.complete();
+        return log;
+    }
+}
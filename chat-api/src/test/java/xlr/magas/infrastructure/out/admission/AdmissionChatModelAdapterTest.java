@@ -0,0 +1,57 @@
+package xlr.magas.infrastructure.out.admission;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.infrastructure.out.ratelimit.TokenBucket;
+import xlr.magas.infrastructure.out.tokens.TokenCounter;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionChatModelAdapterTest {
+
+    private final ChatModelPort delegate = mock(ChatModelPort.class);
+    private final TokenCounter tokenCounter = new TokenCounter("gpt-4o");
+
+    @Test
+    void shouldChargePromptPlusMaxTokens() {
+        int prompt = tokenCounter.countPrompt("system", "user");
+        AdmissionChatModelAdapter adapter = adapter(prompt + 100);
+        when(delegate.askChatModel("system", "user", 100)).thenReturn(Flux.just("Hello"));
+
+        StepVerifier.create(adapter.askChatModel("system", "user", 100))
+                .expectNext("Hello")
+                .verifyComplete();
+        StepVerifier.create(adapter.askChatModel("system", "user", 100))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldNotCallUpstreamWhenRejected() {
+        AdmissionChatModelAdapter adapter = adapter(10);
+
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+        verify(delegate, never()).askChatModel("system", "user");
+    }
+
+    private AdmissionChatModelAdapter adapter(long tokensPerMinute) {
+        Clock clock = Clock.systemUTC();
+        AdmissionController controller = new AdmissionController("chat",
+                new TokenBucket(tokensPerMinute, Duration.ofMinutes(1), clock),
+                new TokenBucket(0, Duration.ofMinutes(1), clock),
+                8, Duration.ofMillis(100), Schedulers.parallel());
+        return new AdmissionChatModelAdapter(delegate, tokenCounter, controller, 4000);
+    }
+}
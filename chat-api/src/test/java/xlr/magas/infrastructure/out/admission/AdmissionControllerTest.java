@@ -0,0 +1,150 @@
+package xlr.magas.infrastructure.out.admission;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.domain.admission.ClientContext;
+import xlr.magas.infrastructure.out.ratelimit.TokenBucket;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControllerTest {
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private final Clock clock = new SchedulerClock(scheduler);
+
+    @Test
+    void shouldAdmitImmediatelyWhileBucketsHavePermits() {
+        AdmissionController controller = controller(1_000, 10, Duration.ofSeconds(10));
+
+        StepVerifier.create(controller.admit(600)).verifyComplete();
+        StepVerifier.create(controller.admit(400)).verifyComplete();
+        assertThat(controller.queued()).isZero();
+    }
+
+    @Test
+    void shouldQueueUntilTokensRefill() {
+        AdmissionController controller = controller(600, 0, Duration.ofSeconds(30));
+        controller.admit(600).block();
+        List<String> admitted = new ArrayList<>();
+
+        controller.admit(300).doOnSuccess(ignored -> admitted.add("next")).subscribe();
+        assertThat(controller.queued()).isEqualTo(1);
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(29));
+        assertThat(admitted).isEmpty();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertThat(admitted).containsExactly("next");
+        assertThat(controller.queued()).isZero();
+    }
+
+    @Test
+    void shouldServeClientsRoundRobin() {
+        AdmissionController controller = controller(0, 60, Duration.ofMinutes(1));
+        for (int i = 0; i < 60; i++) {
+            controller.admit(0).block();
+        }
+        List<String> admitted = new ArrayList<>();
+
+        admit(controller, "alice", admitted);
+        admit(controller, "alice", admitted);
+        admit(controller, "alice", admitted);
+        admit(controller, "bob", admitted);
+        scheduler.advanceTimeBy(Duration.ofSeconds(2));
+
+        assertThat(admitted).containsExactly("alice", "bob");
+        scheduler.advanceTimeBy(Duration.ofSeconds(2));
+        assertThat(admitted).containsExactly("alice", "bob", "alice", "alice");
+    }
+
+    @Test
+    void shouldShedWhenEstimatedWaitExceedsMaxWait() {
+        AdmissionController controller = controller(600, 0, Duration.ofSeconds(10));
+        controller.admit(600).block();
+
+        StepVerifier.create(controller.admit(300))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(AdmissionRejectedException.class)
+                        .extracting(e -> ((AdmissionRejectedException) e).retryAfter())
+                        .isEqualTo(Duration.ofSeconds(30)))
+                .verify();
+        assertThat(controller.queued()).isZero();
+    }
+
+    @Test
+    void shouldShedWhenQueueIsFull() {
+        AdmissionController controller = new AdmissionController("test",
+                new TokenBucket(0, Duration.ofMinutes(1), clock), new TokenBucket(1, Duration.ofMinutes(1), clock),
+                1, Duration.ofMinutes(5), scheduler);
+        controller.admit(0).block();
+        controller.admit(0).subscribe();
+
+        StepVerifier.create(controller.admit(0)).expectError(AdmissionRejectedException.class).verify();
+    }
+
+    @Test
+    void shouldRejectCallsLargerThanTheWholeQuota() {
+        AdmissionController controller = controller(1_000, 0, Duration.ofMinutes(5));
+        controller.admit(1).block();
+
+        StepVerifier.create(controller.admit(2_000)).expectError(AdmissionRejectedException.class).verify();
+    }
+
+    @Test
+    void shouldLeaveQueueWhenCancelled() {
+        AdmissionController controller = controller(600, 0, Duration.ofSeconds(30));
+        controller.admit(600).block();
+
+        controller.admit(300).subscribe().dispose();
+
+        assertThat(controller.queued()).isZero();
+    }
+
+    private AdmissionController controller(long tokensPerMinute, long requestsPerMinute, Duration maxWait) {
+        return new AdmissionController("test",
+                new TokenBucket(tokensPerMinute, Duration.ofMinutes(1), clock),
+                new TokenBucket(requestsPerMinute, Duration.ofMinutes(1), clock),
+                64, maxWait, scheduler);
+    }
+
+    private static void admit(AdmissionController controller, String client, List<String> admitted) {
+        controller.admit(0)
+                .doOnSuccess(ignored -> admitted.add(client))
+                .contextWrite(ClientContext.of(client))
+                .subscribe();
+    }
+
+    static class SchedulerClock extends Clock {
+        private final VirtualTimeScheduler scheduler;
+
+        SchedulerClock(VirtualTimeScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(scheduler.now(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package xlr.magas.infrastructure.out.admission;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.admission.AdmissionRejectedException;
+import xlr.magas.domain.ports.out.ImageModelPort;
+import xlr.magas.infrastructure.out.ratelimit.TokenBucket;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionImageModelAdapterTest {
+
+    @Test
+    void shouldLimitImagesPerMinute() {
+        ImageModelPort delegate = mock(ImageModelPort.class);
+        when(delegate.generateImageAsync("a cat")).thenReturn(Mono.just("http://example.com/cat.png"));
+        Clock clock = Clock.systemUTC();
+        AdmissionImageModelAdapter adapter = new AdmissionImageModelAdapter(delegate, new AdmissionController("picture",
+                new TokenBucket(0, Duration.ofMinutes(1), clock),
+                new TokenBucket(1, Duration.ofMinutes(1), clock),
+                8, Duration.ofSeconds(1), Schedulers.parallel()));
+
+        StepVerifier.create(adapter.generateImageAsync("a cat"))
+                .expectNext("http://example.com/cat.png")
+                .verifyComplete();
+        StepVerifier.create(adapter.generateImageAsync("a cat"))
+                .expectError(AdmissionRejectedException.class)
+                .verify();
+        verify(delegate, times(1)).generateImageAsync("a cat");
+    }
+}
@@ -0,0 +1,140 @@
+package xlr.magas.infrastructure.out.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.EmbeddingModel;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingChatModelAdapterTest {
+
+    @Mock
+    private ChatModelPort delegate;
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    private final OffHeapTokenStore store = new OffHeapTokenStore(1024 * 1024, Duration.ofHours(1), Clock.systemUTC());
+
+    @Test
+    void shouldReplayCachedAnswerWithOriginalChunking() {
+        CachingChatModelAdapter adapter = new CachingChatModelAdapter(delegate, store, Duration.ZERO);
+        when(delegate.askChatModel("system", "user")).thenReturn(Flux.just("Once", " upon", " a time"));
+
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNext("Once", " upon", " a time")
+                .verifyComplete();
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNext("Once", " upon", " a time")
+                .verifyComplete();
+
+        verify(delegate, times(1)).askChatModel("system", "user");
+    }
+
+    @Test
+    void shouldNotCacheFailedStreams() {
+        CachingChatModelAdapter adapter = new CachingChatModelAdapter(delegate, store, Duration.ZERO);
+        when(delegate.askChatModel("system", "user"))
+                .thenReturn(Flux.concat(Flux.just("Once"), Flux.error(new RuntimeException("upstream"))))
+                .thenReturn(Flux.just("Once", " again"));
+
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNext("Once")
+                .expectError(RuntimeException.class)
+                .verify();
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNext("Once", " again")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotCacheCancelledStreams() {
+        CachingChatModelAdapter adapter = new CachingChatModelAdapter(delegate, store, Duration.ZERO);
+        when(delegate.askChatModel("system", "user")).thenReturn(Flux.just("Once", " upon", " a time"));
+
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNext("Once")
+                .thenCancel()
+                .verify();
+        adapter.askChatModel("system", "user").blockLast();
+
+        verify(delegate, times(2)).askChatModel("system", "user");
+    }
+
+    @Test
+    void shouldPaceReplayWhenConfigured() {
+        CachingChatModelAdapter adapter = new CachingChatModelAdapter(delegate, store, Duration.ofMillis(50));
+        when(delegate.askChatModel("system", "user")).thenReturn(Flux.just("a", "b"));
+        adapter.askChatModel("system", "user").blockLast();
+
+        StepVerifier.withVirtualTime(() -> adapter.askChatModel("system", "user"))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .expectNext("a")
+                .thenAwait(Duration.ofMillis(50))
+                .expectNext("b")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldPassCompletionCapThroughAndCacheCappedAnswersApart() {
+        CachingChatModelAdapter adapter = new CachingChatModelAdapter(delegate, store, Duration.ZERO);
+        when(delegate.askChatModel("system", "user", 300)).thenReturn(Flux.just("Short."));
+        when(delegate.askChatModel("system", "user")).thenReturn(Flux.just("A much longer answer."));
+
+        StepVerifier.create(adapter.askChatModel("system", "user", 300))
+                .expectNext("Short.")
+                .verifyComplete();
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNext("A much longer answer.")
+                .verifyComplete();
+        StepVerifier.create(adapter.askChatModel("system", "user", 300))
+                .expectNext("Short.")
+                .verifyComplete();
+
+        verify(delegate, times(1)).askChatModel("system", "user", 300);
+        verify(delegate, times(1)).askChatModel("system", "user");
+    }
+
+    @Test
+    void shouldServeNearDuplicatePromptFromSemanticTier() {
+        CachingChatModelAdapter adapter = new CachingChatModelAdapter(delegate, store, Duration.ZERO,
+                embeddingModel, new SemanticIndex(100, 0.95));
+        when(embeddingModel.embed("a story about dragons")).thenReturn(List.of(1.0, 0.0));
+        when(embeddingModel.embed("a story about a dragon")).thenReturn(List.of(0.99, 0.02));
+        when(delegate.askChatModel(anyString(), anyString())).thenReturn(Flux.just("Dragons", "!"));
+
+        adapter.askChatModel("system", "a story about dragons").blockLast();
+
+        StepVerifier.create(adapter.askChatModel("system", "a story about a dragon"))
+                .expectNext("Dragons", "!")
+                .verifyComplete();
+        verify(delegate, times(1)).askChatModel(anyString(), anyString());
+    }
+
+    @Test
+    void shouldNotMixAnswersAcrossSystemMessages() {
+        CachingChatModelAdapter adapter = new CachingChatModelAdapter(delegate, store, Duration.ZERO,
+                embeddingModel, new SemanticIndex(100, 0.95));
+        when(embeddingModel.embed("dragons")).thenReturn(List.of(1.0, 0.0));
+        when(delegate.askChatModel(anyString(), anyString())).thenReturn(Flux.just("answer"));
+
+        adapter.askChatModel("narrator", "dragons").blockLast();
+        adapter.askChatModel("god", "dragons").blockLast();
+
+        verify(delegate, times(2)).askChatModel(anyString(), anyString());
+    }
+}
@@ -0,0 +1,163 @@
+package xlr.magas.infrastructure.out.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import xlr.magas.domain.ports.out.ImageModelPort;
+import xlr.magas.infrastructure.out.admission.AdmissionController;
+import xlr.magas.infrastructure.out.admission.AdmissionImageModelAdapter;
+import xlr.magas.infrastructure.out.ratelimit.TokenBucket;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingImageModelAdapterTest {
+
+    private static final byte[] IMAGE = {(byte) 0x89, 'P', 'N', 'G'};
+
+    @Mock
+    private ImageModelPort delegate;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+    private CachingImageModelAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    downloads.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header("Content-Type", "image/png")
+                            .body(new String(IMAGE, java.nio.charset.StandardCharsets.ISO_8859_1))
+                            .build());
+                })
+                .build();
+        FileImageStore store = new FileImageStore(directory, DataSize.ofMegabytes(1));
+        adapter = new CachingImageModelAdapter(new AttemptReportingImageModelAdapter(delegate), store, webClient,
+                "dall-e-3", "1024x1024", "/api/v1/images");
+    }
+
+    @Test
+    void shouldDownloadAndServeLocalUrlOnMiss() {
+        when(delegate.generateImageAsync("A magical forest")).thenReturn(Mono.just("https://upstream/img.png?sig=a%2Fb"));
+
+        StepVerifier.create(adapter.generateImageAsync("A magical forest"))
+                .assertNext(url -> assertThat(url).startsWith("/api/v1/images/").hasSize("/api/v1/images/".length() + 64))
+                .verifyComplete();
+        assertThat(downloads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeNormalizedPromptFromCache() {
+        when(delegate.generateImageAsync(anyString())).thenReturn(Mono.just("https://upstream/img.png"));
+
+        String first = adapter.generateImageAsync("A magical forest").block();
+        String second = adapter.generateImageAsync("  a   MAGICAL forest ").block();
+
+        assertThat(second).isEqualTo(first);
+        verify(delegate, times(1)).generateImageAsync(anyString());
+        assertThat(downloads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShareInFlightGenerationForSamePrompt() {
+        Sinks.One<String> upstream = Sinks.one();
+        when(delegate.generateImageAsync(anyString())).thenReturn(upstream.asMono());
+
+        Mono<String> first = adapter.generateImageAsync("dragon");
+        Mono<String> second = adapter.generateImageAsync("dragon");
+        first.subscribe();
+        second.subscribe();
+        upstream.tryEmitValue("https://upstream/dragon.png");
+
+        assertThat(first.block()).isEqualTo(second.block());
+        verify(delegate, times(1)).generateImageAsync(anyString());
+    }
+
+    @Test
+    void shouldFinishGenerationIntoCacheAfterAllCallersCancel() {
+        Sinks.One<String> upstream = Sinks.one();
+        when(delegate.generateImageAsync(anyString())).thenReturn(upstream.asMono());
+
+        adapter.generateImageAsync("dragon").subscribe().dispose();
+        adapter.generateImageAsync("dragon").subscribe().dispose();
+        assertThat(upstream.currentSubscriberCount()).isEqualTo(1);
+        upstream.tryEmitValue("https://upstream/dragon.png");
+
+        StepVerifier.create(adapter.generateImageAsync("dragon"))
+                .assertNext(url -> assertThat(url).startsWith("/api/v1/images/"))
+                .verifyComplete();
+        verify(delegate, times(1)).generateImageAsync(anyString());
+        assertThat(downloads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCallUpstreamOnceAllCallersCancelDuringAdmission() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        AdmissionController admission = new AdmissionController("picture:dall-e-3",
+                new TokenBucket(0, Duration.ofMinutes(1), Clock.systemUTC()),
+                new TokenBucket(1, Duration.ofMinutes(1), Clock.systemUTC()),
+                16, Duration.ofMinutes(2), scheduler);
+        CachingImageModelAdapter admitted = new CachingImageModelAdapter(new AdmissionImageModelAdapter(
+                new AttemptReportingImageModelAdapter(delegate), admission),
+                new FileImageStore(directory, DataSize.ofMegabytes(1)), WebClient.create(),
+                "dall-e-3", "1024x1024", "/api/v1/images");
+        admission.admit(0).block();
+
+        Disposable caller = admitted.generateImageAsync("dragon").subscribe();
+        assertThat(admission.queued()).isEqualTo(1);
+        caller.dispose();
+        scheduler.advanceTimeBy(Duration.ofMinutes(2));
+
+        assertThat(admission.queued()).isZero();
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void shouldNotCacheFailures() {
+        when(delegate.generateImageAsync(anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("No image data returned")))
+                .thenReturn(Mono.just("https://upstream/img.png"));
+
+        StepVerifier.create(adapter.generateImageAsync("castle"))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(adapter.generateImageAsync("castle"))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldKeySeparatelyPerModelAndSize() {
+        FileImageStore store = new FileImageStore(directory, DataSize.ofMegabytes(1));
+        CachingImageModelAdapter other = new CachingImageModelAdapter(delegate, store, WebClient.create(), "dall-e-2", "512x512", "/images");
+
+        assertThat(other.cacheKey("castle")).isNotEqualTo(adapter.cacheKey("castle"));
+        assertThat(adapter.cacheKey(" Castle ")).isEqualTo(adapter.cacheKey("castle"));
+    }
+}
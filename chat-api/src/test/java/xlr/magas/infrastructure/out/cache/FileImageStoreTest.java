@@ -0,0 +1,80 @@
+package xlr.magas.infrastructure.out.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileImageStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldStoreBlobUnderContentHash() throws Exception {
+        FileImageStore store = new FileImageStore(directory, DataSize.ofMegabytes(1));
+        byte[] bytes = {1, 2, 3};
+
+        String hash = store.put("key", bytes);
+
+        assertThat(hash).isEqualTo(FileImageStore.sha256(bytes));
+        assertThat(store.lookup("key")).contains(hash);
+        assertThat(Files.readAllBytes(store.find(hash).orElseThrow())).isEqualTo(bytes);
+    }
+
+    @Test
+    void shouldShareBlobBetweenKeysWithSameContent() throws Exception {
+        FileImageStore store = new FileImageStore(directory, DataSize.ofMegabytes(1));
+
+        String first = store.put("first", new byte[]{7, 7});
+        String second = store.put("second", new byte[]{7, 7});
+
+        assertThat(first).isEqualTo(second);
+        try (var blobs = Files.list(directory.resolve("blobs"))) {
+            assertThat(blobs.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedBlobWhenFull() {
+        FileImageStore store = new FileImageStore(directory, DataSize.ofBytes(20));
+
+        String first = store.put("first", new byte[10]);
+        String second = store.put("second", filled(10, 1));
+        store.lookup("first");
+        String third = store.put("third", filled(10, 2));
+
+        assertThat(store.find(first)).isPresent();
+        assertThat(store.find(second)).isEmpty();
+        assertThat(store.find(third)).isPresent();
+        assertThat(store.lookup("second")).isEmpty();
+    }
+
+    @Test
+    void shouldReloadIndexFromDisk() {
+        String hash = new FileImageStore(directory, DataSize.ofMegabytes(1)).put("key", new byte[]{4, 2});
+
+        FileImageStore reopened = new FileImageStore(directory, DataSize.ofMegabytes(1));
+
+        assertThat(reopened.lookup("key")).contains(hash);
+        assertThat(reopened.find(hash)).isPresent();
+    }
+
+    @Test
+    void shouldRejectMalformedHashes() {
+        FileImageStore store = new FileImageStore(directory, DataSize.ofMegabytes(1));
+
+        assertThat(store.find("../../etc/passwd")).isEmpty();
+        assertThat(store.find("abc")).isEmpty();
+    }
+
+    private static byte[] filled(int length, int value) {
+        byte[] bytes = new byte[length];
+        java.util.Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
@@ -0,0 +1,95 @@
+package xlr.magas.infrastructure.out.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapTokenStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void shouldRoundTripTokensWithOriginalChunking() {
+        OffHeapTokenStore store = new OffHeapTokenStore(1024, Duration.ofMinutes(5), clock);
+
+        store.put("key", List.of("Once", " upon", " a time\n", "¿Cómo?"));
+
+        assertThat(store.get("key")).contains(List.of("Once", " upon", " a time\n", "¿Cómo?"));
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        OffHeapTokenStore store = new OffHeapTokenStore(1024, Duration.ofMinutes(5), clock);
+        store.put("key", List.of("token"));
+
+        clock.advance(Duration.ofMinutes(6));
+
+        assertThat(store.get("key")).isEmpty();
+        assertThat(store.sizeInBytes()).isZero();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntriesOverBudget() {
+        // each entry: 4 (count) + 4 (length) + 10 bytes
+        OffHeapTokenStore store = new OffHeapTokenStore(40, Duration.ofMinutes(5), clock);
+        store.put("first", List.of("0123456789"));
+        store.put("second", List.of("0123456789"));
+        store.get("first");
+
+        store.put("third", List.of("0123456789"));
+
+        assertThat(store.contains("first")).isTrue();
+        assertThat(store.contains("second")).isFalse();
+        assertThat(store.contains("third")).isTrue();
+        assertThat(store.sizeInBytes()).isLessThanOrEqualTo(40);
+    }
+
+    @Test
+    void shouldSkipEntriesLargerThanBudget() {
+        OffHeapTokenStore store = new OffHeapTokenStore(8, Duration.ofMinutes(5), clock);
+
+        store.put("key", List.of("far too long for the budget"));
+
+        assertThat(store.contains("key")).isFalse();
+    }
+
+    @Test
+    void shouldReplaceExistingEntry() {
+        OffHeapTokenStore store = new OffHeapTokenStore(1024, Duration.ofMinutes(5), clock);
+        store.put("key", List.of("old"));
+
+        store.put("key", List.of("new", "er"));
+
+        assertThat(store.get("key")).contains(List.of("new", "er"));
+        assertThat(store.sizeInBytes()).isEqualTo(4 + 4 + 3 + 4 + 2);
+    }
+
+    static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
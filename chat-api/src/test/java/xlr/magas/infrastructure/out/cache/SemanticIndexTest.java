@@ -0,0 +1,54 @@
+package xlr.magas.infrastructure.out.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticIndexTest {
+
+    @Test
+    void shouldFindClosestKeyAboveThreshold() {
+        SemanticIndex index = new SemanticIndex(10, 0.95);
+        index.add("scope", List.of(1.0, 0.0, 0.0), "dragons");
+        index.add("scope", List.of(0.0, 1.0, 0.0), "castles");
+
+        assertThat(index.nearest("scope", List.of(0.99, 0.05, 0.0), key -> true)).contains("dragons");
+    }
+
+    @Test
+    void shouldIgnoreMatchesBelowThreshold() {
+        SemanticIndex index = new SemanticIndex(10, 0.95);
+        index.add("scope", List.of(1.0, 0.0), "dragons");
+
+        assertThat(index.nearest("scope", List.of(0.7, 0.7), key -> true)).isEmpty();
+    }
+
+    @Test
+    void shouldOnlyMatchWithinSameScope() {
+        SemanticIndex index = new SemanticIndex(10, 0.9);
+        index.add("narrator", List.of(1.0, 0.0), "dragons");
+
+        assertThat(index.nearest("god", List.of(1.0, 0.0), key -> true)).isEmpty();
+    }
+
+    @Test
+    void shouldDropKeysNoLongerInStore() {
+        SemanticIndex index = new SemanticIndex(10, 0.9);
+        index.add("scope", List.of(1.0, 0.0), "expired");
+
+        assertThat(index.nearest("scope", List.of(1.0, 0.0), key -> false)).isEmpty();
+        assertThat(index.nearest("scope", List.of(1.0, 0.0), key -> true)).isEmpty();
+    }
+
+    @Test
+    void shouldKeepOnlyMostRecentEntries() {
+        SemanticIndex index = new SemanticIndex(1, 0.9);
+        index.add("scope", List.of(1.0, 0.0), "old");
+        index.add("scope", List.of(0.0, 1.0), "new");
+
+        assertThat(index.nearest("scope", List.of(1.0, 0.0), key -> true)).isEmpty();
+        assertThat(index.nearest("scope", List.of(0.0, 1.0), key -> true)).contains("new");
+    }
+}
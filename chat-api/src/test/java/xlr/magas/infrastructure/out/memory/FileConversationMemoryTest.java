@@ -0,0 +1,165 @@
+package xlr.magas.infrastructure.out.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import xlr.magas.domain.admission.ClientContext;
+import xlr.magas.domain.model.Conversation;
+import xlr.magas.domain.model.Turn;
+import xlr.magas.domain.ports.out.ChatModelPort;
+import xlr.magas.infrastructure.out.tokens.TokenCounter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FileConversationMemoryTest {
+
+    private static final TokenCounter TOKEN_COUNTER = new TokenCounter("gpt-4o");
+    private static final Duration TTL = Duration.ofDays(7);
+
+    @TempDir
+    Path directory;
+
+    private final ChatModelPort chatModelPort = mock(ChatModelPort.class);
+
+    @Test
+    void shouldRecallNothingForUnknownId() {
+        assertThat(memory(1000).recall("guessed").block()).isNull();
+    }
+
+    @Test
+    void shouldStartConversationsUnderFreshRandomIds() {
+        String first = memory(1000).start().block();
+        String second = memory(1000).start().block();
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(UUID.fromString(first)).isNotNull();
+        assertThat(memory(1000).recall(first).block()).isEqualTo(Conversation.empty(first));
+    }
+
+    @Test
+    void shouldRecallRememberedTurnsAcrossRestarts() {
+        memory(1000).remember("c-1", new Turn("Who is Mira?", "A lamplighter.")).block();
+        memory(1000).remember("c-1", new Turn("Where?", "The harbour.")).block();
+
+        assertThat(memory(1000).recall("c-1").block().turns()).containsExactly(
+                new Turn("Who is Mira?", "A lamplighter."), new Turn("Where?", "The harbour."));
+        verifyNoInteractions(chatModelPort);
+    }
+
+    @Test
+    void shouldRecallOnlyNewestTurnsThatFitTheWindow() {
+        Turn turn = turn(0);
+        int window = 2 * TOKEN_COUNTER.count("User: " + turn.question() + "\nAssistant: " + turn.answer()) + 1;
+        when(chatModelPort.askChatModel(anyString(), anyString(), anyInt())).thenReturn(Flux.never());
+        FileConversationMemory memory = memory(window);
+
+        for (int i = 0; i < 4; i++) {
+            memory.remember("c-1", turn(i)).block();
+        }
+
+        assertThat(memory.recall("c-1").block().turns()).containsExactly(turn(2), turn(3));
+    }
+
+    @Test
+    void shouldFoldOldestTurnsIntoSummaryOnceWindowOverflows() {
+        Turn turn = turn(0);
+        int window = 4 * TOKEN_COUNTER.count("User: " + turn.question() + "\nAssistant: " + turn.answer()) + 1;
+        Sinks.One<String> summary = Sinks.one();
+        when(chatModelPort.askChatModel(eq(FileConversationMemory.SUMMARY_SYSTEM_MESSAGE), contains("Question 0"), eq(300)))
+                .thenReturn(summary.asMono().flux());
+        FileConversationMemory memory = memory(window);
+
+        for (int i = 0; i < 5; i++) {
+            memory.remember("c-1", turn(i)).block();
+        }
+        memory.remember("c-1", turn(5)).block();
+        summary.tryEmitValue("  Mira asked about lanterns.  ");
+
+        Conversation recalled = memory.recall("c-1").block();
+        assertThat(recalled.summary()).isEqualTo("Mira asked about lanterns.");
+        assertThat(recalled.turns()).containsExactly(turn(3), turn(4), turn(5));
+        verify(chatModelPort, times(1)).askChatModel(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void shouldKeepTurnsWhenSummaryFails() {
+        Turn turn = turn(0);
+        int window = TOKEN_COUNTER.count("User: " + turn.question() + "\nAssistant: " + turn.answer()) + 1;
+        when(chatModelPort.askChatModel(anyString(), anyString(), anyInt()))
+                .thenReturn(Flux.error(new IllegalStateException("rate limited")));
+        FileConversationMemory memory = memory(window);
+
+        memory.remember("c-1", turn(0)).block();
+        memory.remember("c-1", turn(1)).block();
+
+        Conversation recalled = memory.recall("c-1").block();
+        assertThat(recalled.summary()).isNull();
+        assertThat(recalled.turns()).containsExactly(turn(1));
+        assertThat(memory(10_000).recall("c-1").block().turns()).hasSize(2);
+    }
+
+    @Test
+    void shouldSummarizeOnBehalfOfTheCaller() {
+        Turn turn = turn(0);
+        int window = TOKEN_COUNTER.count("User: " + turn.question() + "\nAssistant: " + turn.answer()) + 1;
+        AtomicReference<String> client = new AtomicReference<>();
+        when(chatModelPort.askChatModel(anyString(), anyString(), anyInt())).thenReturn(Flux.deferContextual(context -> {
+            client.set(context.get(ClientContext.KEY));
+            return Flux.just("Summary.");
+        }));
+        FileConversationMemory memory = memory(window);
+
+        memory.remember("c-1", turn(0)).contextWrite(ClientContext.of("10.0.0.7")).block();
+        memory.remember("c-1", turn(1)).contextWrite(ClientContext.of("10.0.0.7")).block();
+
+        assertThat(client).hasValue("10.0.0.7");
+    }
+
+    @Test
+    void shouldForgetConversationsUntouchedForTtl() throws Exception {
+        memory(1000).remember("c-1", turn(0)).block();
+        memory(1000).remember("c-2", turn(1)).block();
+        Clock later = Clock.offset(Clock.systemUTC(), TTL.plusMinutes(1));
+
+        assertThat(memory(1000, later).recall("c-1").block()).isNull();
+        memory(1000, later).remember("c-3", turn(2)).block();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".json"))).hasSize(1);
+        }
+        assertThat(memory(1000).recall("c-3").block().turns()).containsExactly(turn(2));
+    }
+
+    private FileConversationMemory memory(int windowTokens) {
+        return memory(windowTokens, Clock.systemUTC());
+    }
+
+    private FileConversationMemory memory(int windowTokens, Clock clock) {
+        return new FileConversationMemory(directory, chatModelPort, TOKEN_COUNTER, new ObjectMapper(),
+                windowTokens, 300, TTL, clock, Schedulers.immediate());
+    }
+
+    private static Turn turn(int index) {
+        return new Turn("Question " + index + " about the lanterns?", "Answer " + index + ": they stay lit.");
+    }
+}
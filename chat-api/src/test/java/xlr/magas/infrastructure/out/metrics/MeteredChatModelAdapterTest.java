@@ -0,0 +1,50 @@
+package xlr.magas.infrastructure.out.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MeteredChatModelAdapterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatModelPort delegate = mock(ChatModelPort.class);
+    private final MeteredChatModelAdapter adapter =
+            new MeteredChatModelAdapter(delegate, new StreamMeter(registry, "chat.upstream"));
+
+    @Test
+    void shouldMeasureEachSubscriptionAsOneStream() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(delegate.askChatModel("system", "user")).thenReturn(Flux.defer(() -> attempts.incrementAndGet() == 1
+                ? Flux.error(new IOException("connection reset"))
+                : Flux.just("a", "b")));
+
+        StepVerifier.create(adapter.askChatModel("system", "user").retry(1))
+                .expectNext("a", "b")
+                .verifyComplete();
+
+        assertThat(registry.get("chat.upstream.errors").tag("cause", "connection").counter().count()).isEqualTo(1);
+        assertThat(registry.get("chat.upstream.duration").tag("outcome", "failed").timer().count()).isEqualTo(1);
+        assertThat(registry.get("chat.upstream.duration").tag("outcome", "completed").timer().count()).isEqualTo(1);
+        assertThat(registry.get("chat.upstream.tokens").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMeasureCallsWithATokenLimit() {
+        when(delegate.askChatModel("system", "user", 100)).thenReturn(Flux.just("summary"));
+
+        StepVerifier.create(adapter.askChatModel("system", "user", 100))
+                .expectNext("summary")
+                .verifyComplete();
+
+        assertThat(registry.get("chat.upstream.first.token").timer().count()).isEqualTo(1);
+    }
+}
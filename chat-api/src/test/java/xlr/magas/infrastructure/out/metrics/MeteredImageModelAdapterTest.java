@@ -0,0 +1,57 @@
+package xlr.magas.infrastructure.out.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.ports.out.ImageModelPort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MeteredImageModelAdapterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImageModelPort delegate = mock(ImageModelPort.class);
+    private final MeteredImageModelAdapter adapter = new MeteredImageModelAdapter(delegate, registry, "picture.upstream");
+
+    @Test
+    void shouldRecordLatencyOfAsyncGenerations() {
+        when(delegate.generateImageAsync("a cat")).thenReturn(Mono.just("https://images/cat.png"));
+
+        StepVerifier.create(adapter.generateImageAsync("a cat"))
+                .expectNext("https://images/cat.png")
+                .verifyComplete();
+
+        assertThat(registry.get("picture.upstream.latency").tag("outcome", "completed").timer().count()).isEqualTo(1);
+        assertThat(registry.get("picture.upstream.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldCountFailedGenerationsByCause() {
+        when(delegate.generateImageAsync("a cat")).thenReturn(Mono.error(
+                WebClientResponseException.create(500, "Internal Server Error", HttpHeaders.EMPTY, null, null)));
+
+        StepVerifier.create(adapter.generateImageAsync("a cat"))
+                .expectError(WebClientResponseException.class)
+                .verify();
+
+        assertThat(registry.get("picture.upstream.errors").tag("cause", "server_error").counter().count()).isEqualTo(1);
+        assertThat(registry.get("picture.upstream.latency").tag("outcome", "failed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMeasureBlockingGenerations() {
+        when(delegate.generateImage("a cat")).thenReturn("https://images/cat.png").thenThrow(new IllegalStateException("bad"));
+
+        assertThat(adapter.generateImage("a cat")).isEqualTo("https://images/cat.png");
+        assertThatThrownBy(() -> adapter.generateImage("a cat")).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("picture.upstream.latency").tag("outcome", "completed").timer().count()).isEqualTo(1);
+        assertThat(registry.get("picture.upstream.errors").tag("cause", "other").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,86 @@
+package xlr.magas.infrastructure.out.metrics;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import xlr.magas.infrastructure.out.resilience.CircuitOpenException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamMeterTest {
+
+    private final MockClock clock = new MockClock();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+    private final StreamMeter meter = new StreamMeter(registry, "chat.stream");
+
+    @Test
+    void shouldRecordFirstTokenGapsAndTokens() {
+        Sinks.Many<String> tokens = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.create(meter.measure(tokens.asFlux()))
+                .then(() -> {
+                    clock.add(Duration.ofMillis(400));
+                    tokens.tryEmitNext("Once");
+                    clock.add(Duration.ofMillis(20));
+                    tokens.tryEmitNext(" upon");
+                    clock.add(Duration.ofMillis(30));
+                    tokens.tryEmitNext(" a time");
+                    tokens.tryEmitComplete();
+                })
+                .expectNext("Once", " upon", " a time")
+                .verifyComplete();
+
+        assertThat(registry.get("chat.stream.first.token").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(400);
+        assertThat(registry.get("chat.stream.token.gap").timer().count()).isEqualTo(2);
+        assertThat(registry.get("chat.stream.token.gap").timer().max(TimeUnit.MILLISECONDS)).isEqualTo(30);
+        assertThat(registry.get("chat.stream.tokens").summary().totalAmount()).isEqualTo(3);
+        assertThat(registry.get("chat.stream.duration").tag("outcome", "completed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTrackActiveStreams() {
+        Sinks.Many<String> tokens = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.create(meter.measure(tokens.asFlux()))
+                .then(() -> assertThat(registry.get("chat.stream.active").gauge().value()).isEqualTo(1))
+                .thenCancel()
+                .verify();
+
+        assertThat(registry.get("chat.stream.active").gauge().value()).isZero();
+        assertThat(registry.get("chat.stream.duration").tag("outcome", "cancelled").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountErrorsByCause() {
+        StepVerifier.create(meter.measure(Flux.error(
+                        WebClientResponseException.create(429, "Too Many Requests", HttpHeaders.EMPTY, null, null))))
+                .expectError(WebClientResponseException.class)
+                .verify();
+
+        assertThat(registry.get("chat.stream.errors").tag("cause", "rate_limited").counter().count()).isEqualTo(1);
+        assertThat(registry.get("chat.stream.duration").tag("outcome", "failed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNameCauses() {
+        assertThat(StreamMeter.cause(new TimeoutException())).isEqualTo("timeout");
+        assertThat(StreamMeter.cause(new RuntimeException(new IOException("reset")))).isEqualTo("connection");
+        assertThat(StreamMeter.cause(new CircuitOpenException("chat"))).isEqualTo("circuit_open");
+        assertThat(StreamMeter.cause(
+                WebClientResponseException.create(503, "Unavailable", HttpHeaders.EMPTY, null, null))).isEqualTo("server_error");
+        assertThat(StreamMeter.cause(
+                WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, null, null))).isEqualTo("client_error");
+        assertThat(StreamMeter.cause(new IllegalStateException("bad"))).isEqualTo("other");
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatOptions;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 import xlr.magas.domain.ports.out.ChatModelPort;
@@ -52,11 +53,10 @@ class OpenAIChatAdapterTest {
 
         // Then
         StepVerifier.create(result)
-                .expectNext("data: Once\n\n")
-                .expectNext("data:  upon\n\n")
-                .expectNext("data:  a\n\n")
-                .expectNext("data:  time\n\n")
-                .expectNext("data: [DONE]\n\n")
+                .expectNext("Once")
+                .expectNext(" upon")
+                .expectNext(" a")
+                .expectNext(" time")
                 .verifyComplete();
     }
 
@@ -78,7 +78,6 @@ class OpenAIChatAdapterTest {
 
         // Then
         StepVerifier.create(result)
-                .expectNext("data: [DONE]\n\n")
                 .verifyComplete();
     }
 
@@ -101,8 +100,7 @@ class OpenAIChatAdapterTest {
 
         // Then
         StepVerifier.create(result)
-                .expectNext("data: Hello, world!\n\n")
-                .expectNext("data: [DONE]\n\n")
+                .expectNext("Hello, world!")
                 .verifyComplete();
     }
 
@@ -125,12 +123,11 @@ class OpenAIChatAdapterTest {
 
         // Then
         StepVerifier.create(result)
-                .expectNext("data: In a\n\n")
-                .expectNext("data:  far away\n\n")
-                .expectNext("data:  land,\n\n")
-                .expectNext("data:  there lived\n\n")
-                .expectNext("data:  a dragon.\n\n")
-                .expectNext("data: [DONE]\n\n")
+                .expectNext("In a")
+                .expectNext(" far away")
+                .expectNext(" land,")
+                .expectNext(" there lived")
+                .expectNext(" a dragon.")
                 .verifyComplete();
     }
 
@@ -176,11 +173,10 @@ class OpenAIChatAdapterTest {
 
         // Then
         StepVerifier.create(result)
-                .expectNext("data: Hello!\n\n")
-                .expectNext("data:  ¿Cómo\n\n")
-                .expectNext("data:  estás?\n\n")
-                .expectNext("data:  100%\n\n")
-                .expectNext("data: [DONE]\n\n")
+                .expectNext("Hello!")
+                .expectNext(" ¿Cómo")
+                .expectNext(" estás?")
+                .expectNext(" 100%")
                 .verifyComplete();
     }
 
@@ -204,8 +200,7 @@ class OpenAIChatAdapterTest {
         // Then
         assert port instanceof ChatModelPort;
         StepVerifier.create(port.askChatModel("system", "user"))
-                .expectNext("data: test\n\n")
-                .expectNext("data: [DONE]\n\n")
+                .expectNext("test")
                 .verifyComplete();
     }
 
@@ -228,9 +223,48 @@ class OpenAIChatAdapterTest {
 
         // Then
         StepVerifier.create(result)
-                .expectNext("data: Line 1\ndata: Line 2\n\n")
-                .expectNext("data: \ndata: Line 3\n\n")
-                .expectNext("data: [DONE]\n\n")
+                .expectNext("Line 1\nLine 2")
+                .expectNext("\nLine 3")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSkipEmptyChunks() {
+        // Given
+        when(chatClient.prompt()
+                .system(eq("System"))
+                .user(eq("User"))
+                .stream()
+                .content())
+                .thenReturn(Flux.just("", "Hello", "", " there"));
+
+        // When
+        Flux<String> result = adapter.askChatModel("System", "User");
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext("Hello")
+                .expectNext(" there")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldPassMaxTokensAsCallOptions() {
+        // Given
+        when(chatClient.prompt()
+                .system(eq("System"))
+                .user(eq("User"))
+                .options(any(OpenAiChatOptions.class))
+                .stream()
+                .content())
+                .thenReturn(Flux.just("", "Bounded"));
+
+        // When
+        Flux<String> result = adapter.askChatModel("System", "User", 500);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext("Bounded")
                 .verifyComplete();
     }
 }
@@ -2,17 +2,27 @@ package xlr.magas.infrastructure.out.openai;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,7 +40,7 @@ class OpenAIImageAdapterTest {
 
     @Test
     void shouldGenerateImage() {
-        adapter = new OpenAIImageAdapter(restTemplate, "test-key");
+        adapter = new OpenAIImageAdapter(restTemplate, WebClient.create(), "test-key", "dall-e-3", "1024x1024");
 
         String prompt = "A magical forest";
         String expectedUrl = "http://image.url";
@@ -51,9 +61,28 @@ class OpenAIImageAdapterTest {
         assertEquals(expectedUrl, result);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRequestConfiguredModelAndSize() {
+        adapter = new OpenAIImageAdapter(restTemplate, WebClient.create(), "test-key", "dall-e-2", "512x512");
+        ArgumentCaptor<HttpEntity<Map<String, Object>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        when(restTemplate.exchange(
+                eq("https://api.openai.com/v1/images/generations"),
+                eq(HttpMethod.POST),
+                request.capture(),
+                eq(Map.class)
+        )).thenReturn(ResponseEntity.ok(Map.of("data", List.of(Map.of("url", "http://image.url")))));
+
+        adapter.generateImage("A magical forest");
+
+        assertThat(request.getValue().getBody())
+                .containsEntry("model", "dall-e-2")
+                .containsEntry("size", "512x512");
+    }
+
     @Test
     void shouldThrowExceptionWhenResponseIsEmpty() {
-        adapter = new OpenAIImageAdapter(restTemplate, "test-key");
+        adapter = new OpenAIImageAdapter(restTemplate, WebClient.create(), "test-key", "dall-e-3", "1024x1024");
         String prompt = "A magical forest";
 
         when(restTemplate.exchange(
@@ -68,7 +97,7 @@ class OpenAIImageAdapterTest {
 
     @Test
     void shouldThrowExceptionWhenDataIsNull() {
-        adapter = new OpenAIImageAdapter(restTemplate, "test-key");
+        adapter = new OpenAIImageAdapter(restTemplate, WebClient.create(), "test-key", "dall-e-3", "1024x1024");
         String prompt = "A magical forest";
         Map<String, Object> mockResponse = Map.of(); // No "data" key
 
@@ -84,7 +113,7 @@ class OpenAIImageAdapterTest {
 
     @Test
     void shouldThrowExceptionWhenDataIsEmpty() {
-        adapter = new OpenAIImageAdapter(restTemplate, "test-key");
+        adapter = new OpenAIImageAdapter(restTemplate, WebClient.create(), "test-key", "dall-e-3", "1024x1024");
         String prompt = "A magical forest";
         Map<String, Object> mockResponse = Map.of("data", List.of());
 
@@ -100,7 +129,7 @@ class OpenAIImageAdapterTest {
 
     @Test
     void shouldThrowExceptionWhenUrlIsNull() {
-        adapter = new OpenAIImageAdapter(restTemplate, "test-key");
+        adapter = new OpenAIImageAdapter(restTemplate, WebClient.create(), "test-key", "dall-e-3", "1024x1024");
         String prompt = "A magical forest";
         // Data exists but URL is null
         Map<String, Object> item = new java.util.HashMap<>();
@@ -116,4 +145,52 @@ class OpenAIImageAdapterTest {
 
         assertThrows(IllegalStateException.class, () -> adapter.generateImage(prompt));
     }
+
+    @Test
+    void shouldGenerateImageAsync() {
+        List<String> authorizations = new ArrayList<>();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    authorizations.add(request.headers().getFirst("Authorization"));
+                    return Mono.just(jsonResponse(HttpStatus.OK, "{\"data\":[{\"url\":\"http://image.url\"}]}"));
+                })
+                .build();
+        adapter = new OpenAIImageAdapter(restTemplate, webClient, "test-key", "dall-e-3", "1024x1024");
+
+        StepVerifier.create(adapter.generateImageAsync("A magical forest"))
+                .expectNext("http://image.url")
+                .verifyComplete();
+        assertThat(authorizations).containsExactly("Bearer test-key");
+    }
+
+    @Test
+    void shouldFailAsyncWhenDataIsEmpty() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(jsonResponse(HttpStatus.OK, "{\"data\":[]}")))
+                .build();
+        adapter = new OpenAIImageAdapter(restTemplate, webClient, "test-key", "dall-e-3", "1024x1024");
+
+        StepVerifier.create(adapter.generateImageAsync("A magical forest"))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldFailAsyncOnUpstreamError() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(jsonResponse(HttpStatus.TOO_MANY_REQUESTS, "{}")))
+                .build();
+        adapter = new OpenAIImageAdapter(restTemplate, webClient, "test-key", "dall-e-3", "1024x1024");
+
+        StepVerifier.create(adapter.generateImageAsync("A magical forest"))
+                .expectError(WebClientResponseException.class)
+                .verify();
+    }
+
+    private static ClientResponse jsonResponse(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
 }
@@ -0,0 +1,79 @@
+package xlr.magas.infrastructure.out.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void shouldRejectOnceCapacityIsSpent() {
+        TokenBucket bucket = new TokenBucket(3, Duration.ofMinutes(1), clock);
+
+        assertThat(bucket.tryConsume(2)).isTrue();
+        assertThat(bucket.tryConsume(2)).isFalse();
+        assertThat(bucket.tryConsume(1)).isTrue();
+        assertThat(bucket.availablePermits()).isZero();
+    }
+
+    @Test
+    void shouldRefillContinuouslyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), clock);
+        bucket.tryConsume(60);
+
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(bucket.availablePermits()).isEqualTo(10);
+
+        clock.advance(Duration.ofHours(1));
+        assertThat(bucket.availablePermits()).isEqualTo(60);
+    }
+
+    @Test
+    void shouldTreatZeroCapacityAsUnlimited() {
+        TokenBucket bucket = new TokenBucket(0, Duration.ofMinutes(1), clock);
+
+        assertThat(bucket.tryConsume(1_000_000)).isTrue();
+    }
+
+    @Test
+    void shouldEstimateTimeUntilPermitsAreAvailable() {
+        TokenBucket bucket = new TokenBucket(60, Duration.ofMinutes(1), clock);
+        bucket.tryConsume(60);
+
+        assertThat(bucket.timeUntil(15)).isEqualTo(Duration.ofSeconds(15));
+        clock.advance(Duration.ofSeconds(20));
+        assertThat(bucket.timeUntil(15)).isZero();
+        assertThat(new TokenBucket(0, Duration.ofMinutes(1), clock).timeUntil(1_000)).isZero();
+    }
+
+    static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package xlr.magas.infrastructure.out.resilience;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, Duration.ofSeconds(30), clock,
+            ResiliencePolicy::isTransient);
+
+    @Test
+    void shouldOpenAfterConsecutiveTransientFailures() {
+        fail();
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        StepVerifier.create(circuitBreaker.protect(Flux.just("never called")))
+                .expectError(CircuitOpenException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldResetFailuresOnFirstElement() {
+        fail();
+        StepVerifier.create(circuitBreaker.protect(Flux.just("token")))
+                .expectNext("token")
+                .verifyComplete();
+        fail();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldIgnoreNonTransientErrors() {
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(circuitBreaker.protect(Flux.error(new IllegalArgumentException("bad request"))))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+        }
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldAllowSingleTrialAfterOpenDuration() {
+        fail();
+        fail();
+        clock.advance(Duration.ofSeconds(30));
+
+        StepVerifier.create(circuitBreaker.protect(Flux.never()))
+                .then(() -> StepVerifier.create(circuitBreaker.protect(Flux.just("second")))
+                        .expectError(CircuitOpenException.class)
+                        .verify())
+                .thenCancel()
+                .verify();
+        StepVerifier.create(circuitBreaker.protect(Flux.just("trial")))
+                .expectNext("trial")
+                .verifyComplete();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldReopenWhenTrialFails() {
+        fail();
+        fail();
+        clock.advance(Duration.ofSeconds(30));
+        fail();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void fail() {
+        StepVerifier.create(circuitBreaker.protect(Flux.error(new IOException("connection reset"))))
+                .expectError(IOException.class)
+                .verify();
+    }
+
+    static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package xlr.magas.infrastructure.out.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResiliencePolicyTest {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void shouldRetryWhenFirstTokenIsLate() {
+        StepVerifier.withVirtualTime(() -> policy(Duration.ZERO).apply(() -> attempts.incrementAndGet() == 1
+                        ? Flux.<String>never()
+                        : Flux.just("token")))
+                .thenAwait(Duration.ofSeconds(12))
+                .expectNext("token")
+                .verifyComplete();
+
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void shouldNotRetryOnceTokensHaveBeenForwarded() {
+        StepVerifier.withVirtualTime(() -> policy(Duration.ZERO).apply(() -> {
+                    attempts.incrementAndGet();
+                    return Flux.concat(Flux.just("token"), Flux.error(new IOException("connection reset")));
+                }))
+                .expectNext("token")
+                .expectError(IOException.class)
+                .verify();
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void shouldNotRetryClientErrors() {
+        StepVerifier.withVirtualTime(() -> policy(Duration.ZERO).apply(() -> {
+                    attempts.incrementAndGet();
+                    return Flux.error(WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, null, null));
+                }))
+                .expectError(WebClientResponseException.class)
+                .verify();
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void shouldGiveUpAtTotalDeadline() {
+        StepVerifier.withVirtualTime(() -> new ResiliencePolicy(Duration.ofSeconds(10), Duration.ofSeconds(15), 10,
+                        Duration.ofSeconds(1), Duration.ZERO, breaker(100))
+                        .apply(() -> {
+                            attempts.incrementAndGet();
+                            return Flux.<String>never();
+                        }))
+                .thenAwait(Duration.ofSeconds(15))
+                .expectError(TimeoutException.class)
+                .verify();
+
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void shouldHedgeSlowFirstToken() {
+        StepVerifier.withVirtualTime(() -> policy(Duration.ofSeconds(2)).apply(() -> attempts.incrementAndGet() == 1
+                        ? Flux.just("slow").delaySubscription(Duration.ofSeconds(8))
+                        : Flux.just("fast").delaySubscription(Duration.ofSeconds(1))))
+                .thenAwait(Duration.ofSeconds(3))
+                .expectNext("fast")
+                .verifyComplete();
+
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void shouldFailFastWhenCircuitIsOpen() {
+        ResiliencePolicy policy = new ResiliencePolicy(Duration.ofSeconds(10), Duration.ofSeconds(60), 1,
+                Duration.ofMillis(100), Duration.ZERO, breaker(1));
+        StepVerifier.create(policy.apply(() -> Flux.<String>error(new IOException("connection reset"))))
+                .expectError(IOException.class)
+                .verify();
+
+        StepVerifier.create(policy.apply(() -> {
+                    attempts.incrementAndGet();
+                    return Flux.just("token");
+                }))
+                .expectError(CircuitOpenException.class)
+                .verify();
+        assertThat(attempts).hasValue(0);
+    }
+
+    @Test
+    void shouldApplyToMonos() {
+        StepVerifier.withVirtualTime(() -> policy(Duration.ZERO).apply(Mono.defer(() -> attempts.incrementAndGet() == 1
+                        ? Mono.<String>error(WebClientResponseException.create(503, "Unavailable", HttpHeaders.EMPTY, null, null))
+                        : Mono.just("url"))))
+                .thenAwait(Duration.ofSeconds(2))
+                .expectNext("url")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReportEachRetry() {
+        List<Throwable> retries = new ArrayList<>();
+        StepVerifier.withVirtualTime(() -> new ResiliencePolicy(Duration.ofSeconds(10), Duration.ofSeconds(60), 3,
+                        Duration.ofMillis(500), Duration.ZERO, breaker(100), retries::add)
+                        .apply(() -> attempts.incrementAndGet() < 3
+                                ? Flux.<String>error(new IOException("connection reset"))
+                                : Flux.just("token")))
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext("token")
+                .verifyComplete();
+
+        assertThat(retries).hasSize(2).allMatch(IOException.class::isInstance);
+    }
+
+    @Test
+    void shouldClassifyTransientErrors() {
+        assertThat(ResiliencePolicy.isTransient(new TimeoutException())).isTrue();
+        assertThat(ResiliencePolicy.isTransient(new RuntimeException(new IOException("reset")))).isTrue();
+        assertThat(ResiliencePolicy.isTransient(
+                WebClientResponseException.create(429, "Too Many Requests", HttpHeaders.EMPTY, null, null))).isTrue();
+        assertThat(ResiliencePolicy.isTransient(new CircuitOpenException("chat"))).isFalse();
+        assertThat(ResiliencePolicy.isTransient(new IllegalStateException("bad"))).isFalse();
+    }
+
+    private ResiliencePolicy policy(Duration hedgeDelay) {
+        return new ResiliencePolicy(Duration.ofSeconds(10), Duration.ofSeconds(60), 3,
+                Duration.ofMillis(500), hedgeDelay, breaker(100));
+    }
+
+    private static CircuitBreaker breaker(int failureThreshold) {
+        return new CircuitBreaker("test", failureThreshold, Duration.ofSeconds(30), Clock.systemUTC(),
+                ResiliencePolicy::isTransient);
+    }
+}
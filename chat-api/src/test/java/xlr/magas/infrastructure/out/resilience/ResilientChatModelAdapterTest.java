@@ -0,0 +1,49 @@
+package xlr.magas.infrastructure.out.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientChatModelAdapterTest {
+
+    @Mock
+    private ChatModelPort delegate;
+
+    private final ResiliencePolicy policy = new ResiliencePolicy(Duration.ofSeconds(10), Duration.ofSeconds(30), 2,
+            Duration.ofMillis(1), Duration.ZERO,
+            new CircuitBreaker("chat", 5, Duration.ofSeconds(30), Clock.systemUTC(), ResiliencePolicy::isTransient));
+
+    @Test
+    void shouldRetryTransientFailureBeforeFirstToken() {
+        when(delegate.askChatModel("system", "user"))
+                .thenReturn(Flux.error(new IOException("connection reset")))
+                .thenReturn(Flux.just("Once", " upon"));
+
+        StepVerifier.create(new ResilientChatModelAdapter(delegate, policy).askChatModel("system", "user"))
+                .expectNext("Once", " upon")
+                .verifyComplete();
+        verify(delegate, times(2)).askChatModel("system", "user");
+    }
+
+    @Test
+    void shouldPassMaxTokensThrough() {
+        when(delegate.askChatModel("system", "user", 100)).thenReturn(Flux.just("Once"));
+
+        StepVerifier.create(new ResilientChatModelAdapter(delegate, policy).askChatModel("system", "user", 100))
+                .expectNext("Once")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,36 @@
+package xlr.magas.infrastructure.out.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import xlr.magas.domain.ports.out.ImageModelPort;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientImageModelAdapterTest {
+
+    @Mock
+    private ImageModelPort delegate;
+
+    @Test
+    void shouldRetryTransientImageFailure() {
+        ResiliencePolicy policy = new ResiliencePolicy(Duration.ofSeconds(10), Duration.ofSeconds(30), 2,
+                Duration.ofMillis(1), Duration.ZERO,
+                new CircuitBreaker("picture", 5, Duration.ofSeconds(30), Clock.systemUTC(), ResiliencePolicy::isTransient));
+        when(delegate.generateImageAsync("castle"))
+                .thenReturn(Mono.error(new IOException("connection reset")))
+                .thenReturn(Mono.just("https://upstream/castle.png"));
+
+        String url = new ResilientImageModelAdapter(delegate, policy).generateImage("castle");
+
+        assertThat(url).isEqualTo("https://upstream/castle.png");
+    }
+}
@@ -0,0 +1,195 @@
+package xlr.magas.infrastructure.out.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutingChatModelAdapterTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void shouldPreferBackendWithFewerOutstandingRequests() {
+        StubPort first = new StubPort(Flux.never());
+        StubPort second = new StubPort(Flux.just("b"));
+        RoutingChatModelAdapter router = new RoutingChatModelAdapter(List.of(backend("a", first, 1, 0), backend("b", second, 1, 0)));
+
+        router.askChatModel("system", "user").subscribe();
+        StepVerifier.create(router.askChatModel("system", "user"))
+                .expectNext("b")
+                .verifyComplete();
+
+        assertThat(first.calls).hasValue(1);
+        assertThat(second.calls).hasValue(1);
+    }
+
+    @Test
+    void shouldFavourHigherWeight() {
+        StubPort light = new StubPort(Flux.never());
+        StubPort heavy = new StubPort(Flux.never());
+        RoutingChatModelAdapter router = new RoutingChatModelAdapter(List.of(backend("light", light, 1, 0), backend("heavy", heavy, 3, 0)));
+
+        for (int i = 0; i < 4; i++) {
+            router.askChatModel("system", "user").subscribe();
+        }
+
+        assertThat(heavy.calls).hasValue(3);
+        assertThat(light.calls).hasValue(1);
+    }
+
+    @Test
+    void shouldLearnTimeToFirstToken() {
+        Sinks.Many<String> slowTokens = Sinks.many().unicast().onBackpressureBuffer();
+        StubPort slow = new StubPort(slowTokens.asFlux());
+        ChatBackend backend = backend("slow", slow, 1, 0);
+        RoutingChatModelAdapter router = new RoutingChatModelAdapter(List.of(backend));
+
+        router.askChatModel("system", "user").subscribe();
+        clock.advance(Duration.ofSeconds(6));
+        slowTokens.tryEmitNext("late");
+
+        assertThat(backend.ttftMillis()).isEqualTo(ChatBackend.INITIAL_TTFT_MILLIS
+                + ChatBackend.TTFT_SMOOTHING * (6000 - ChatBackend.INITIAL_TTFT_MILLIS));
+    }
+
+    @Test
+    void shouldFailOverAndCoolDownFailingBackend() {
+        StubPort broken = new StubPort(Flux.error(new IOException("connection refused")));
+        StubPort healthy = new StubPort(Flux.just("ok"));
+        ChatBackend brokenBackend = backend("broken", broken, 10, 0);
+        RoutingChatModelAdapter router = new RoutingChatModelAdapter(List.of(brokenBackend, backend("healthy", healthy, 1, 0)));
+
+        StepVerifier.create(router.askChatModel("system", "user"))
+                .expectNext("ok")
+                .verifyComplete();
+        StepVerifier.create(router.askChatModel("system", "user"))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(broken.calls).hasValue(1);
+        assertThat(brokenBackend.isCoolingDown()).isTrue();
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(brokenBackend.isCoolingDown()).isFalse();
+    }
+
+    @Test
+    void shouldNotFailOverAfterFirstToken() {
+        StubPort flaky = new StubPort(Flux.concat(Flux.just("partial"), Flux.error(new IOException("reset"))));
+        StubPort healthy = new StubPort(Flux.just("ok"));
+        RoutingChatModelAdapter router = new RoutingChatModelAdapter(List.of(backend("flaky", flaky, 10, 0), backend("healthy", healthy, 1, 0)));
+
+        StepVerifier.create(router.askChatModel("system", "user"))
+                .expectNext("partial")
+                .expectError(IOException.class)
+                .verify();
+
+        assertThat(healthy.calls).hasValue(0);
+    }
+
+    @Test
+    void shouldPassClientErrorsThroughWithoutCoolingDown() {
+        StubPort rejecting = new StubPort(Flux.error(
+                WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, null, null)));
+        StubPort healthy = new StubPort(Flux.just("ok"));
+        ChatBackend rejectingBackend = backend("rejecting", rejecting, 10, 0);
+        RoutingChatModelAdapter router = new RoutingChatModelAdapter(List.of(rejectingBackend, backend("healthy", healthy, 1, 0)));
+
+        StepVerifier.create(router.askChatModel("system", "user"))
+                .expectError(WebClientResponseException.BadRequest.class)
+                .verify();
+
+        assertThat(healthy.calls).hasValue(0);
+        assertThat(rejectingBackend.isCoolingDown()).isFalse();
+    }
+
+    @Test
+    void shouldRespectRequestsPerMinute() {
+        StubPort limited = new StubPort(Flux.just("limited"));
+        RoutingChatModelAdapter router = new RoutingChatModelAdapter(List.of(backend("limited", limited, 1, 1)));
+
+        StepVerifier.create(router.askChatModel("system", "user", 100))
+                .expectNext("limited")
+                .verifyComplete();
+        StepVerifier.create(router.askChatModel("system", "user", 100))
+                .expectError(NoBackendAvailableException.class)
+                .verify();
+
+        clock.advance(Duration.ofMinutes(1));
+        StepVerifier.create(router.askChatModel("system", "user", 100))
+                .expectNext("limited")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSurfaceLastErrorWhenEveryBackendFails() {
+        StubPort broken = new StubPort(Flux.error(new IOException("connection refused")));
+        RoutingChatModelAdapter router = new RoutingChatModelAdapter(List.of(backend("broken", broken, 1, 0)));
+
+        StepVerifier.create(router.askChatModel("system", "user"))
+                .expectErrorMessage("connection refused")
+                .verify();
+    }
+
+    private ChatBackend backend(String name, ChatModelPort port, int weight, int requestsPerMinute) {
+        return new ChatBackend(name, port, weight, requestsPerMinute, Duration.ofSeconds(10), clock);
+    }
+
+    private static final class StubPort implements ChatModelPort {
+
+        private final Flux<String> response;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubPort(Flux<String> response) {
+            this.response = response;
+        }
+
+        @Override
+        public Flux<String> askChatModel(String system, String user) {
+            calls.incrementAndGet();
+            return response;
+        }
+
+        @Override
+        public Flux<String> askChatModel(String system, String user, int maxTokens) {
+            return askChatModel(system, user);
+        }
+    }
+
+    static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package xlr.magas.infrastructure.out.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.Text;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedStoryStoreTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path directory;
+
+    private final List<SegmentedStoryStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (SegmentedStoryStore store : stores) {
+            store.close();
+        }
+    }
+
+    @Test
+    void shouldFindStoredStoryById() {
+        SegmentedStoryStore store = open(DataSize.ofMegabytes(1));
+        StoredStory story = story("1", "Dragons");
+
+        store.save(story);
+
+        assertThat(store.findById("1")).contains(story);
+        assertThat(store.findById("2")).isEmpty();
+    }
+
+    @Test
+    void shouldFindNewestStoriesFirstByNormalizedTopic() {
+        SegmentedStoryStore store = open(DataSize.ofMegabytes(1));
+
+        store.save(story("1", "Dragons"));
+        store.save(story("2", "  dragons "));
+        store.save(story("3", "Robots"));
+
+        assertThat(store.findByTopic("DRAGONS")).extracting("id").containsExactly("2", "1");
+        assertThat(store.findByTopic("unicorns")).isEmpty();
+    }
+
+    @Test
+    void shouldRollSegmentsAndReadAcrossThem() throws Exception {
+        SegmentedStoryStore store = open(DataSize.ofBytes(512));
+
+        for (int i = 0; i < 5; i++) {
+            store.save(story(String.valueOf(i), "Dragons"));
+        }
+
+        assertThat(segments()).hasSizeGreaterThan(1);
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.findById(String.valueOf(i))).map(StoredStory::id).contains(String.valueOf(i));
+        }
+    }
+
+    @Test
+    void shouldRebuildIndexFromSegments() throws Exception {
+        SegmentedStoryStore store = open(DataSize.ofBytes(512));
+        for (int i = 0; i < 3; i++) {
+            store.save(story(String.valueOf(i), "Dragons"));
+        }
+        store.close();
+
+        SegmentedStoryStore reopened = open(DataSize.ofBytes(512));
+
+        assertThat(reopened.findById("1")).contains(story("1", "Dragons"));
+        assertThat(reopened.findByTopic("dragons")).extracting("id").containsExactly("2", "1", "0");
+    }
+
+    @Test
+    void shouldTruncateTornRecordAndKeepAppending() throws Exception {
+        SegmentedStoryStore store = open(DataSize.ofMegabytes(1));
+        store.save(story("1", "Dragons"));
+        store.save(story("2", "Dragons"));
+        store.close();
+        Path segment = segments().get(0);
+        long intact;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            intact = channel.size();
+            channel.truncate(intact - 10);
+        }
+
+        SegmentedStoryStore reopened = open(DataSize.ofMegabytes(1));
+        reopened.save(story("3", "Dragons"));
+
+        assertThat(reopened.findById("1")).isPresent();
+        assertThat(reopened.findById("2")).isEmpty();
+        assertThat(reopened.findById("3")).contains(story("3", "Dragons"));
+    }
+
+    @Test
+    void shouldReadRecordsWrittenAsJson() throws Exception {
+        StoredStory legacy = story("1", "Dragons");
+        byte[] summary = OBJECT_MAPPER.writeValueAsBytes(legacy.summary());
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(legacy);
+        CRC32 crc = new CRC32();
+        crc.update(summary);
+        crc.update(body);
+        Files.write(directory.resolve(String.format("%020d.log", 0)), ByteBuffer
+                .allocate(SegmentedStoryStore.HEADER_BYTES + summary.length + body.length)
+                .putInt(summary.length).putInt(body.length).putInt((int) crc.getValue())
+                .put(summary).put(body)
+                .array());
+
+        SegmentedStoryStore store = open(DataSize.ofMegabytes(1));
+        store.save(story("2", "Dragons"));
+
+        assertThat(store.findById("1")).contains(legacy);
+        assertThat(store.findById("2")).contains(story("2", "Dragons"));
+        assertThat(store.findByTopic("dragons")).extracting("id").containsExactly("2", "1");
+    }
+
+    @Test
+    void shouldDeleteOldestSegmentsBeyondMaxSize() throws Exception {
+        SegmentedStoryStore store = open(DataSize.ofBytes(1), DataSize.ofBytes(1));
+
+        store.save(story("1", "Dragons"));
+        store.save(story("2", "Castles"));
+        store.save(story("3", "Dragons"));
+
+        assertThat(segments()).hasSize(1);
+        assertThat(store.findById("1")).isEmpty();
+        assertThat(store.findById("2")).isEmpty();
+        assertThat(store.findById("3")).isPresent();
+        assertThat(store.findByTopic("dragons")).extracting("id").containsExactly("3");
+        assertThat(store.findByTopic("castles")).isEmpty();
+    }
+
+    private SegmentedStoryStore open(DataSize segmentSize) {
+        return open(segmentSize, DataSize.ofMegabytes(64));
+    }
+
+    private SegmentedStoryStore open(DataSize segmentSize, DataSize maxSize) {
+        SegmentedStoryStore store = new SegmentedStoryStore(directory, segmentSize, maxSize, new StoryCodec(), OBJECT_MAPPER);
+        stores.add(store);
+        return store;
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static StoredStory story(String id, String topic) {
+        var setting = new Setting("Exterior", "Gate", "Dawn");
+        var scene = new Scene(1, "Arrival", setting, List.of(new Text("narration", null, null, "The gate opens.")),
+                "/api/v1/images/" + id);
+        var blueprint = new StoryBlueprint("Quest " + id, "Fantasy", "Epic", List.of("courage"), List.of(),
+                new StoryBlueprint.StoryArc("", "", "", ""),
+                new StoryBlueprint.WorldSetting("Citadels", "Embers", "", "", "Smoky"), List.of());
+        return new StoredStory(id, topic, "English", Instant.parse("2024-01-01T00:00:00Z"), blueprint,
+                "/api/v1/images/cover", new Story(List.of(scene)));
+    }
+}
@@ -0,0 +1,122 @@
+package xlr.magas.infrastructure.out.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import xlr.magas.domain.model.Scene;
+import xlr.magas.domain.model.Setting;
+import xlr.magas.domain.model.Story;
+import xlr.magas.domain.model.StoryBlueprint;
+import xlr.magas.domain.model.StoredStory;
+import xlr.magas.domain.model.Text;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StoryCodecTest {
+
+    private final StoryCodec codec = new StoryCodec();
+
+    @Test
+    void shouldRoundTripStoredStory() {
+        StoredStory story = story();
+
+        byte[] bytes = codec.encodeStory(story);
+
+        assertThat(codec.decodeStory(bytes, 0, bytes.length)).isEqualTo(story);
+    }
+
+    @Test
+    void shouldRoundTripNullsAndUnicode() {
+        var scene = new Scene(-1, null, null, List.of(new Text("dialogue", null, null, "Ça va, 龍? 🐉")), null);
+        var blueprint = new StoryBlueprint("Sans titre", null, null, null, List.of(), null, null, Arrays.asList("a", null));
+        var story = new StoredStory("1", "dragons", null, null, blueprint, null, new Story(List.of(scene)));
+
+        byte[] bytes = codec.encodeStory(story);
+
+        assertThat(codec.decodeStory(bytes, 0, bytes.length)).isEqualTo(story);
+        assertThat(codec.decodeScene(codec.encodeScene(scene))).isEqualTo(scene);
+        assertThat(codec.decodeBlueprint(codec.encodeBlueprint(blueprint))).isEqualTo(blueprint);
+    }
+
+    @Test
+    void shouldDecodeFromOffset() {
+        var summary = story().summary();
+        byte[] encoded = codec.encodeSummary(summary);
+        byte[] framed = new byte[encoded.length + 4];
+        System.arraycopy(encoded, 0, framed, 2, encoded.length);
+
+        assertThat(codec.decodeSummary(framed, 2, encoded.length)).isEqualTo(summary);
+    }
+
+    @Test
+    void shouldWriteRepeatedSymbolsOnce() {
+        List<Text> texts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            texts.add(new Text("dialogue", "Captain Ilse Varn", "resolute", "Line " + i));
+        }
+        byte[] bytes = codec.encodeScene(new Scene(1, "Harbour", null, texts));
+
+        assertThat(occurrences(bytes, "Captain Ilse Varn")).isEqualTo(1);
+        assertThat(occurrences(bytes, "resolute")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBeSmallerThanJson() throws Exception {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        StoredStory story = story();
+
+        assertThat(codec.encodeStory(story).length).isLessThan(objectMapper.writeValueAsBytes(story).length * 3 / 4);
+    }
+
+    @Test
+    void shouldRejectUnknownVersionAndTruncatedInput() {
+        byte[] bytes = codec.encodeStory(story());
+        byte[] unknown = bytes.clone();
+        unknown[0] = 42;
+
+        assertThatThrownBy(() -> codec.decodeStory(unknown, 0, unknown.length))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported");
+        assertThatThrownBy(() -> codec.decodeStory(bytes, 0, bytes.length / 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Truncated");
+    }
+
+    private static int occurrences(byte[] bytes, String value) {
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        String needle = new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+        int count = 0;
+        for (int index = text.indexOf(needle); index >= 0; index = text.indexOf(needle, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static StoredStory story() {
+        var blueprint = new StoryBlueprint("The Lantern Keepers", "Fantasy", "Wistful", List.of("Memory", "Belonging"),
+                List.of(new StoryBlueprint.CharacterProfile("Mira", "Apprentice lamplighter", "Curious", "Keep the lights",
+                                "Oren's ward", "Lets go"),
+                        new StoryBlueprint.CharacterProfile("Oren", "Cartographer", "Gruff", "Redemption", "Mira's mentor", "Opens up")),
+                new StoryBlueprint.StoryArc("The lanterns fail", "A search", "A bargain", "Relit"),
+                new StoryBlueprint.WorldSetting("Harbour", "After the flood", "Guilds", "Dark lanterns erase memory", "Fog"),
+                List.of("The lanterns begin to fail", "Mira relights the first lantern"));
+        List<Scene> scenes = new ArrayList<>();
+        for (int order = 1; order <= 3; order++) {
+            var setting = new Setting("Exterior", "Harbour", "Night");
+            scenes.add(new Scene(order, "Scene " + order, setting, List.of(
+                    new Text("narration", null, "hushed", "Fog rolled over the harbour as the lanterns guttered."),
+                    new Text("dialogue", "Mira", "urgent", "They're going out, all of them."),
+                    new Text("dialogue", "Oren", "gruff", "Then we find out why before the tide turns.")),
+                    "/api/v1/images/scene-" + order));
+        }
+        return new StoredStory("3f1c2b8e-5d4a-4f7e-9b1a-2c3d4e5f6a7b", "lanterns", "English",
+                Instant.parse("2024-01-01T12:30:00.123Z"), blueprint, "/api/v1/images/cover", new Story(scenes));
+    }
+}
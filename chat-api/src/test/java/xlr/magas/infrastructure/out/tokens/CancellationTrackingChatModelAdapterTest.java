@@ -0,0 +1,87 @@
+package xlr.magas.infrastructure.out.tokens;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CancellationTrackingChatModelAdapterTest {
+
+    private final RecordingChatModelPort upstream = new RecordingChatModelPort();
+    private final CancellationTrackingChatModelAdapter adapter = new CancellationTrackingChatModelAdapter(upstream, 100);
+
+    @Test
+    void shouldCancelUpstreamAndCountUnusedMaxTokens() {
+        StepVerifier.create(adapter.askChatModel("system", "user", 50))
+                .expectNext("token-0", "token-1", "token-2")
+                .thenCancel()
+                .verify();
+
+        assertThat(upstream.cancelled).isTrue();
+        assertThat(adapter.cancelledStreams()).isEqualTo(1);
+        assertThat(adapter.maxTokensAvoided()).isEqualTo(47);
+        assertThat(adapter.tokensSaved()).isZero();
+    }
+
+    @Test
+    void shouldUseDefaultBudgetForTwoArgumentCalls() {
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+
+        assertThat(adapter.maxTokensAvoided()).isEqualTo(90);
+    }
+
+    @Test
+    void shouldEstimateSavedTokensFromCompletedStreams() {
+        upstream.limit = 20;
+        StepVerifier.create(adapter.askChatModel("system", "user", 50)).expectNextCount(20).verifyComplete();
+        upstream.limit = Long.MAX_VALUE;
+
+        StepVerifier.create(adapter.askChatModel("system", "user", 50))
+                .expectNextCount(3)
+                .thenCancel()
+                .verify();
+
+        assertThat(adapter.tokensSaved()).isEqualTo(17);
+        assertThat(adapter.maxTokensAvoided()).isEqualTo(47);
+    }
+
+    @Test
+    void shouldNotCountCompletedStreams() {
+        upstream.limit = 5;
+
+        StepVerifier.create(adapter.askChatModel("system", "user", 50))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        assertThat(upstream.cancelled).isFalse();
+        assertThat(adapter.cancelledStreams()).isZero();
+        assertThat(adapter.maxTokensAvoided()).isZero();
+        assertThat(adapter.tokensSaved()).isZero();
+    }
+
+    private static final class RecordingChatModelPort implements ChatModelPort {
+
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private long limit = Long.MAX_VALUE;
+
+        @Override
+        public Flux<String> askChatModel(String system, String user) {
+            return Flux.range(0, Integer.MAX_VALUE)
+                    .take(limit)
+                    .map(i -> "token-" + i)
+                    .doOnCancel(() -> cancelled.set(true));
+        }
+
+        @Override
+        public Flux<String> askChatModel(String system, String user, int maxTokens) {
+            return askChatModel(system, user);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package xlr.magas.infrastructure.out.tokens;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import xlr.magas.domain.ports.out.ChatModelPort;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenBudgetingChatModelAdapterTest {
+
+    @Mock
+    private ChatModelPort delegate;
+
+    @Mock
+    private TokenCounter tokenCounter;
+
+    @Test
+    void shouldCapMaxTokensAtConfiguredCompletionBudget() {
+        when(tokenCounter.contextWindow()).thenReturn(128_000);
+        when(tokenCounter.countPrompt("system", "user")).thenReturn(1_000);
+        when(delegate.askChatModel("system", "user", 4000)).thenReturn(Flux.just("ok"));
+        var adapter = new TokenBudgetingChatModelAdapter(delegate, tokenCounter, 4000, 256, false);
+
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldShrinkMaxTokensToRemainingContext() {
+        when(tokenCounter.contextWindow()).thenReturn(8_000);
+        when(tokenCounter.countPrompt("system", "user")).thenReturn(7_000);
+        when(delegate.askChatModel("system", "user", 1000)).thenReturn(Flux.just("ok"));
+        var adapter = new TokenBudgetingChatModelAdapter(delegate, tokenCounter, 4000, 256, false);
+
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldHonourSmallerRequestedMaxTokens() {
+        when(tokenCounter.contextWindow()).thenReturn(128_000);
+        when(tokenCounter.countPrompt("system", "user")).thenReturn(1_000);
+        when(delegate.askChatModel("system", "user", 500)).thenReturn(Flux.just("ok"));
+        var adapter = new TokenBudgetingChatModelAdapter(delegate, tokenCounter, 4000, 256, false);
+
+        StepVerifier.create(adapter.askChatModel("system", "user", 500))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectOversizedPromptBeforeDispatch() {
+        when(tokenCounter.contextWindow()).thenReturn(8_000);
+        when(tokenCounter.countPrompt("system", "huge")).thenReturn(7_900);
+        when(tokenCounter.countPrompt("system", "")).thenReturn(100);
+        var adapter = new TokenBudgetingChatModelAdapter(delegate, tokenCounter, 4000, 256, false);
+
+        StepVerifier.create(adapter.askChatModel("system", "huge"))
+                .expectError(PromptTooLargeException.class)
+                .verify();
+        verify(delegate, never()).askChatModel(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void shouldTrimUserMessageWhenConfigured() {
+        when(tokenCounter.contextWindow()).thenReturn(8_000);
+        when(tokenCounter.countPrompt("system", "huge")).thenReturn(7_900);
+        when(tokenCounter.countPrompt("system", "")).thenReturn(100);
+        when(tokenCounter.truncate("huge", 7_644)).thenReturn("hu");
+        when(tokenCounter.countPrompt("system", "hu")).thenReturn(7_744);
+        when(delegate.askChatModel("system", "hu", 256)).thenReturn(Flux.just("ok"));
+        var adapter = new TokenBudgetingChatModelAdapter(delegate, tokenCounter, 4000, 256, true);
+
+        StepVerifier.create(adapter.askChatModel("system", "huge"))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectWhenSystemMessageAloneOverflows() {
+        when(tokenCounter.contextWindow()).thenReturn(8_000);
+        when(tokenCounter.countPrompt(eq("system"), anyString())).thenReturn(7_900);
+        var adapter = new TokenBudgetingChatModelAdapter(delegate, tokenCounter, 4000, 256, true);
+
+        StepVerifier.create(adapter.askChatModel("system", "user"))
+                .expectError(PromptTooLargeException.class)
+                .verify();
+        verify(delegate, never()).askChatModel(anyString(), anyString(), anyInt());
+    }
+}
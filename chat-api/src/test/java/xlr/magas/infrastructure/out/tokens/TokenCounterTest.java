@@ -0,0 +1,48 @@
+package xlr.magas.infrastructure.out.tokens;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenCounterTest {
+
+    private final TokenCounter tokenCounter = new TokenCounter("gpt-4o");
+
+    @Test
+    void shouldCountTokens() {
+        assertThat(tokenCounter.count("")).isZero();
+        assertThat(tokenCounter.count("Hello world")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldAddChatFramingToPromptCount() {
+        int content = tokenCounter.count("You are a storyteller") + tokenCounter.count("Tell me a story");
+
+        assertThat(tokenCounter.countPrompt("You are a storyteller", "Tell me a story"))
+                .isEqualTo(content + 2 * TokenCounter.TOKENS_PER_MESSAGE + TokenCounter.REPLY_PRIMING_TOKENS);
+    }
+
+    @Test
+    void shouldTruncateToTokenLimit() {
+        String text = "one two three four five six seven eight";
+
+        String truncated = tokenCounter.truncate(text, 3);
+
+        assertThat(tokenCounter.count(truncated)).isEqualTo(3);
+        assertThat(text).startsWith(truncated);
+        assertThat(tokenCounter.truncate("short", 10)).isEqualTo("short");
+    }
+
+    @Test
+    void shouldExposeModelContextWindow() {
+        assertThat(tokenCounter.contextWindow()).isEqualTo(128_000);
+    }
+
+    @Test
+    void shouldRejectUnknownModel() {
+        assertThatThrownBy(() -> new TokenCounter("not-a-model"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown tokenizer model: not-a-model");
+    }
+}
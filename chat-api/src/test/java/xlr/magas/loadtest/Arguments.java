@@ -0,0 +1,32 @@
+package xlr.magas.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --name=value} command-line options for the load-test tools.
+ */
+final class Arguments {
+
+    private Arguments() {
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return values;
+    }
+
+    static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+}
@@ -0,0 +1,175 @@
+package xlr.magas.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the OpenAI chat completions endpoint, for load tests that should not spend credit.
+ * Streams {@code chat.completion.chunk} events with a configurable time to first token and
+ * inter-token latency, and injects failures: 500s, 429s, and streams dropped halfway through.
+ * Run it, then start the app with the {@code fake-llm} profile:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=xlr.magas.loadtest.FakeOpenAiServer \
+ *     -Dexec.args="--port=9999 --ttft=400ms --inter-token=25ms --tokens=300 --error-rate=0.01"
+ * </pre>
+ */
+public final class FakeOpenAiServer {
+
+    private static final List<String> WORDS = List.of("Once", " upon", " a", " time", ",", " in", " a", " harbour",
+            " city", " of", " lanterns", ",", " a", " girl", " named", " Mira", " kept", " the", " lights", ".");
+
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong ids = new AtomicLong();
+
+    public FakeOpenAiServer(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        Options options = Options.parse(args);
+        DisposableServer server = new FakeOpenAiServer(options).start();
+        System.out.printf("Fake OpenAI server on http://localhost:%d (%s)%n", server.port(), options);
+        server.onDispose().block();
+    }
+
+    public DisposableServer start() {
+        return HttpServer.create()
+                .port(options.port())
+                .route(routes -> routes.post("/v1/chat/completions", this::chatCompletions))
+                .bindNow();
+    }
+
+    private Publisher<Void> chatCompletions(HttpServerRequest request, HttpServerResponse response) {
+        return request.receive().aggregate().asString().defaultIfEmpty("{}").flatMap(body -> {
+            JsonNode json = readTree(body);
+            String id = "chatcmpl-fake-" + ids.incrementAndGet();
+            String model = json.path("model").asText("fake");
+            int maxTokens = json.path("max_tokens").asInt(0);
+            int tokens = maxTokens > 0 ? Math.min(options.tokens(), maxTokens) : options.tokens();
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < options.errorRate()) {
+                return fail(response, 500, "server_error", "Injected failure");
+            }
+            if (roll < options.errorRate() + options.rateLimitRate()) {
+                response.header("retry-after", "1");
+                return fail(response, 429, "rate_limit_exceeded", "Injected rate limit");
+            }
+            boolean drop = roll < options.errorRate() + options.rateLimitRate() + options.dropRate();
+
+            if (!json.path("stream").asBoolean(false)) {
+                Duration total = options.timeToFirstToken().plus(options.interTokenLatency().multipliedBy(tokens));
+                return Mono.delay(total).then(response.header("content-type", "application/json")
+                        .sendString(Mono.just(write(completion(id, model, tokens)))).then());
+            }
+
+            Flux<String> events = Flux.interval(options.timeToFirstToken(), options.interTokenLatency())
+                    .take(tokens)
+                    .map(index -> write(chunk(id, model, index.intValue(), WORDS.get(index.intValue() % WORDS.size()), null)));
+            events = drop
+                    ? events.take(tokens / 2).concatWith(Flux.error(new IOException("Injected dropped stream")))
+                    : events.concatWith(Flux.just(write(chunk(id, model, tokens, null, "stop")), "[DONE]"));
+            response.header("content-type", "text/event-stream").header("cache-control", "no-cache");
+            // Flush every event, as the real API does, so clients see tokens as they are produced.
+            return response.send(ByteBufFlux.fromString(events.map(data -> "data: " + data + "\n\n"),
+                    StandardCharsets.UTF_8, response.alloc()), buffer -> true).then();
+        });
+    }
+
+    private Mono<Void> fail(HttpServerResponse response, int status, String type, String message) {
+        Map<String, Object> error = Map.of("error", Map.of("message", message, "type", type));
+        return Mono.delay(options.timeToFirstToken()).then(response.status(status)
+                .header("content-type", "application/json")
+                .sendString(Mono.just(write(error))).then());
+    }
+
+    private static Map<String, Object> chunk(String id, String model, int index, String content, String finishReason) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        if (index == 0) {
+            delta.put("role", "assistant");
+        }
+        if (content != null) {
+            delta.put("content", content);
+        }
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", delta);
+        choice.put("finish_reason", finishReason);
+        return envelope(id, "chat.completion.chunk", model, choice);
+    }
+
+    private static Map<String, Object> completion(String id, String model, int tokens) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < tokens; i++) {
+            content.append(WORDS.get(i % WORDS.size()));
+        }
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("message", Map.of("role", "assistant", "content", content.toString()));
+        choice.put("finish_reason", "stop");
+        Map<String, Object> completion = envelope(id, "chat.completion", model, choice);
+        completion.put("usage", Map.of("prompt_tokens", 0, "completion_tokens", tokens, "total_tokens", tokens));
+        return completion;
+    }
+
+    private static Map<String, Object> envelope(String id, String object, String model, Map<String, Object> choice) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("id", id);
+        envelope.put("object", object);
+        envelope.put("created", System.currentTimeMillis() / 1000);
+        envelope.put("model", model);
+        envelope.put("choices", List.of(choice));
+        return envelope;
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Options(int port, Duration timeToFirstToken, Duration interTokenLatency, int tokens,
+                          double errorRate, double rateLimitRate, double dropRate) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = Arguments.parse(args);
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("port", "9999")),
+                    Arguments.duration(values.getOrDefault("ttft", "400ms")),
+                    Arguments.duration(values.getOrDefault("inter-token", "25ms")),
+                    Integer.parseInt(values.getOrDefault("tokens", "300")),
+                    Double.parseDouble(values.getOrDefault("error-rate", "0")),
+                    Double.parseDouble(values.getOrDefault("rate-limit-rate", "0")),
+                    Double.parseDouble(values.getOrDefault("drop-rate", "0")));
+        }
+    }
+}
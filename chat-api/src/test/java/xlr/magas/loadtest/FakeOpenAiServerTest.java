@@ -0,0 +1,91 @@
+package xlr.magas.loadtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.DisposableServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FakeOpenAiServerTest {
+
+    private DisposableServer server;
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void shouldStreamChunksThenDone() {
+        WebClient client = start(new FakeOpenAiServer.Options(0, Duration.ofMillis(5), Duration.ofMillis(1), 3, 0, 0, 0));
+
+        StepVerifier.create(client.post().uri("/v1/chat/completions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("model", "gpt-4o", "stream", true))
+                        .retrieve()
+                        .bodyToFlux(String.class))
+                .assertNext(chunk -> assertThat(chunk)
+                        .contains("\"object\":\"chat.completion.chunk\"")
+                        .contains("\"delta\":{\"role\":\"assistant\",\"content\":\"Once\"}"))
+                .assertNext(chunk -> assertThat(chunk).contains("\"content\":\" upon\""))
+                .assertNext(chunk -> assertThat(chunk).contains("\"content\":\" a\""))
+                .assertNext(chunk -> assertThat(chunk).contains("\"finish_reason\":\"stop\""))
+                .expectNext("[DONE]")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCapTokensAtMaxTokens() {
+        WebClient client = start(new FakeOpenAiServer.Options(0, Duration.ZERO, Duration.ofMillis(1), 50, 0, 0, 0));
+
+        StepVerifier.create(client.post().uri("/v1/chat/completions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("model", "gpt-4o", "max_tokens", 2))
+                        .retrieve()
+                        .bodyToMono(Map.class))
+                .assertNext(completion -> assertThat(completion.get("usage"))
+                        .isEqualTo(Map.of("prompt_tokens", 0, "completion_tokens", 2, "total_tokens", 2)))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldInjectRateLimits() {
+        WebClient client = start(new FakeOpenAiServer.Options(0, Duration.ZERO, Duration.ofMillis(1), 3, 0, 1, 0));
+
+        StepVerifier.create(client.post().uri("/v1/chat/completions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("model", "gpt-4o", "stream", true))
+                        .retrieve()
+                        .bodyToFlux(String.class))
+                .expectErrorSatisfies(error -> assertThat(((WebClientResponseException) error).getStatusCode())
+                        .isEqualTo(HttpStatusCode.valueOf(429)))
+                .verify();
+    }
+
+    @Test
+    void shouldDropStreamsHalfway() {
+        WebClient client = start(new FakeOpenAiServer.Options(0, Duration.ZERO, Duration.ofMillis(1), 4, 0, 0, 1));
+
+        StepVerifier.create(client.post().uri("/v1/chat/completions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("model", "gpt-4o", "stream", true))
+                        .retrieve()
+                        .bodyToFlux(String.class))
+                .expectNextCount(2)
+                .expectError()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private WebClient start(FakeOpenAiServer.Options options) {
+        server = new FakeOpenAiServer(options).start();
+        return WebClient.create("http://localhost:" + server.port());
+    }
+}
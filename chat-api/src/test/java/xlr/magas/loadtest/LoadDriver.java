@@ -0,0 +1,227 @@
+package xlr.magas.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens many concurrent SSE streams against {@code /chat} and reports time to first byte, time to
+ * first token, token throughput and, given the server's pid, resident memory per open connection.
+ * Pair it with {@link FakeOpenAiServer} and the {@code fake-llm} profile for a baseline that costs
+ * nothing and does not depend on OpenAI's latency:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=xlr.magas.loadtest.LoadDriver \
+ *     -Dexec.args="--url=http://localhost:8080/api/v1/chat --connections=2000 --ramp-up=10s --pid=12345"
+ * </pre>
+ */
+public final class LoadDriver {
+
+    private final Options options;
+
+    public LoadDriver(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        System.out.println(new LoadDriver(Options.parse(args)).run().format());
+    }
+
+    public Report run() {
+        ConnectionProvider connections = ConnectionProvider.builder("load-driver")
+                .maxConnections(options.connections())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient client = HttpClient.create(connections)
+                .headers(headers -> headers.set(HttpHeaderNames.ACCEPT, "text/event-stream"));
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peakActive = new AtomicInteger();
+        long baselineRss = rss();
+        AtomicLong peakRss = new AtomicLong(baselineRss);
+        Disposable sampler = options.pid() == null ? null : Flux.interval(Duration.ofMillis(250))
+                .subscribe(tick -> peakRss.accumulateAndGet(rss(), Math::max));
+
+        Duration spacing = options.rampUp().dividedBy(options.connections());
+        long start = System.nanoTime();
+        try {
+            Flux<Long> arrivals = spacing.isZero()
+                    ? Flux.range(0, options.connections()).map(Integer::longValue)
+                    : Flux.interval(Duration.ZERO, spacing).take(options.connections());
+            List<Probe> probes = arrivals
+                    .flatMap(index -> stream(client)
+                            .doOnSubscribe(subscription -> peakActive.accumulateAndGet(active.incrementAndGet(), Math::max))
+                            .doFinally(signal -> active.decrementAndGet()), options.connections())
+                    .collectList()
+                    .block();
+            long elapsed = System.nanoTime() - start;
+            return Report.of(probes, elapsed, peakActive.get(),
+                    options.pid() == null ? -1 : peakRss.get() - baselineRss);
+        } finally {
+            if (sampler != null) {
+                sampler.dispose();
+            }
+            connections.dispose();
+        }
+    }
+
+    private Mono<Probe> stream(HttpClient client) {
+        return Mono.defer(() -> {
+            Probe probe = new Probe(System.nanoTime());
+            return client.get()
+                    .uri(options.url())
+                    .response((response, body) -> response.status().code() == 200
+                            ? body.asString(StandardCharsets.UTF_8)
+                            : Flux.error(new IOException("HTTP " + response.status().code())))
+                    .doOnNext(probe::receive)
+                    .then(Mono.fromSupplier(probe::complete))
+                    .timeout(options.timeout())
+                    .onErrorResume(error -> Mono.just(probe.fail()));
+        });
+    }
+
+    private long rss() {
+        if (options.pid() == null) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", options.pid().toString(), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException e) {
+            // The server may have exited; keep the last sample.
+        }
+        return -1;
+    }
+
+    /**
+     * Timings for one stream. Events are counted as tokens when they carry data other than
+     * {@code [DONE]}; heartbeat comments are skipped.
+     */
+    static final class Probe {
+        private final long start;
+        private final StringBuilder pending = new StringBuilder();
+        private long firstByte = -1;
+        private long firstToken = -1;
+        private long end = -1;
+        private int tokens;
+        private boolean failed;
+
+        Probe(long start) {
+            this.start = start;
+        }
+
+        void receive(String chunk) {
+            long now = System.nanoTime();
+            if (firstByte < 0) {
+                firstByte = now;
+            }
+            pending.append(chunk);
+            for (int boundary = pending.indexOf("\n\n"); boundary >= 0; boundary = pending.indexOf("\n\n")) {
+                String event = pending.substring(0, boundary);
+                pending.delete(0, boundary + 2);
+                if (isToken(event)) {
+                    tokens++;
+                    if (firstToken < 0) {
+                        firstToken = now;
+                    }
+                }
+            }
+        }
+
+        Probe complete() {
+            end = System.nanoTime();
+            return this;
+        }
+
+        Probe fail() {
+            end = System.nanoTime();
+            failed = true;
+            return this;
+        }
+
+        private static boolean isToken(String event) {
+            for (String line : event.split("\n")) {
+                if (line.startsWith("data:") && !line.substring(5).trim().equals("[DONE]")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public record Report(int connections, int failed, long[] firstByteNanos, long[] firstTokenNanos,
+                         long tokens, double tokensPerSecond, double streamTokensPerSecondP50,
+                         int peakConnections, long rssGrowthBytes) {
+
+        static Report of(List<Probe> probes, long elapsedNanos, int peakConnections, long rssGrowthBytes) {
+            List<Probe> completed = probes.stream().filter(probe -> !probe.failed).toList();
+            long[] firstByte = completed.stream().filter(probe -> probe.firstByte >= 0)
+                    .mapToLong(probe -> probe.firstByte - probe.start).sorted().toArray();
+            long[] firstToken = completed.stream().filter(probe -> probe.firstToken >= 0)
+                    .mapToLong(probe -> probe.firstToken - probe.start).sorted().toArray();
+            double[] streamRates = completed.stream().filter(probe -> probe.firstToken >= 0 && probe.end > probe.firstToken)
+                    .mapToDouble(probe -> probe.tokens * 1e9 / (probe.end - probe.firstToken)).sorted().toArray();
+            long tokens = probes.stream().mapToLong(probe -> probe.tokens).sum();
+            return new Report(probes.size(), probes.size() - completed.size(), firstByte, firstToken, tokens,
+                    tokens * 1e9 / elapsedNanos,
+                    streamRates.length == 0 ? 0 : streamRates[(streamRates.length - 1) / 2],
+                    peakConnections, rssGrowthBytes);
+        }
+
+        static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        String format() {
+            StringBuilder report = new StringBuilder()
+                    .append(String.format("connections      %d (%d failed, peak %d open)%n", connections, failed, peakConnections))
+                    .append(String.format("first byte       p50 %d ms, p90 %d ms, p99 %d ms%n",
+                            millis(firstByteNanos, 50), millis(firstByteNanos, 90), millis(firstByteNanos, 99)))
+                    .append(String.format("first token      p50 %d ms, p90 %d ms, p99 %d ms%n",
+                            millis(firstTokenNanos, 50), millis(firstTokenNanos, 90), millis(firstTokenNanos, 99)))
+                    .append(String.format("tokens           %d total, %.0f/s overall, %.1f/s per stream (p50)%n",
+                            tokens, tokensPerSecond, streamTokensPerSecondP50));
+            if (rssGrowthBytes >= 0 && peakConnections > 0) {
+                report.append(String.format("server memory    %d KB RSS growth, %.1f KB per connection%n",
+                        rssGrowthBytes / 1024, rssGrowthBytes / 1024.0 / peakConnections));
+            }
+            return report.toString();
+        }
+
+        private static long millis(long[] sorted, double percentile) {
+            return Duration.ofNanos(percentile(sorted, percentile)).toMillis();
+        }
+    }
+
+    public record Options(String url, int connections, Duration rampUp, Duration timeout, Long pid) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = Arguments.parse(args);
+            String pid = values.get("pid");
+            return new Options(
+                    values.getOrDefault("url", "http://localhost:8080/api/v1/chat?question=Tell%20me%20a%20story"),
+                    Integer.parseInt(values.getOrDefault("connections", "1000")),
+                    Arguments.duration(values.getOrDefault("ramp-up", "10s")),
+                    Arguments.duration(values.getOrDefault("timeout", "120s")),
+                    pid == null ? null : Long.valueOf(pid));
+        }
+    }
+}
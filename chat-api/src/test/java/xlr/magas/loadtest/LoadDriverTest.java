@@ -0,0 +1,56 @@
+package xlr.magas.loadtest;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadDriverTest {
+
+    @Test
+    void shouldMeasureConcurrentStreams() {
+        DisposableServer server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/chat", (request, response) -> response
+                        .header("content-type", "text/event-stream")
+                        .sendString(Flux.just(":heartbeat\n\n", "data: Once\n\n", "data: upon\n\ndata: a time\n\n", "data: [DONE]\n\n")
+                                .delayElements(Duration.ofMillis(5)))))
+                .bindNow();
+        try {
+            LoadDriver.Report report = new LoadDriver(new LoadDriver.Options(
+                    "http://localhost:" + server.port() + "/chat", 50, Duration.ZERO, Duration.ofSeconds(10), null)).run();
+
+            assertThat(report.connections()).isEqualTo(50);
+            assertThat(report.failed()).isZero();
+            assertThat(report.tokens()).isEqualTo(150);
+            assertThat(report.firstTokenNanos()).hasSize(50);
+            assertThat(LoadDriver.Report.percentile(report.firstTokenNanos(), 50))
+                    .isGreaterThanOrEqualTo(LoadDriver.Report.percentile(report.firstByteNanos(), 50));
+            assertThat(report.format()).contains("connections      50 (0 failed");
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void shouldCountFailedStreams() {
+        LoadDriver.Report report = new LoadDriver(new LoadDriver.Options(
+                "http://localhost:1/chat", 3, Duration.ZERO, Duration.ofSeconds(5), null)).run();
+
+        assertThat(report.failed()).isEqualTo(3);
+        assertThat(report.tokens()).isZero();
+    }
+
+    @Test
+    void shouldUseNearestRankPercentiles() {
+        long[] sorted = {10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+
+        assertThat(LoadDriver.Report.percentile(sorted, 50)).isEqualTo(50);
+        assertThat(LoadDriver.Report.percentile(sorted, 99)).isEqualTo(100);
+        assertThat(LoadDriver.Report.percentile(new long[0], 99)).isZero();
+    }
+}